@@ -0,0 +1,96 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.repository.UserRepository;
+import com.fingalden.template.business.service.OpaqueTokenStore;
+import com.fingalden.template.core.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问令牌认证的基准测试
+ * 按JwtAuthenticationFilter的处理方式测量一次认证的耗时：
+ * jwt为签名校验、解析并按用户名查询认证信息；opaque-near-cache为近端缓存命中；
+ * opaque-redis关闭近端缓存（有效期为0），每次从Redis读取会话。启动时打印两种令牌的平均字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessTokenBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"jwt", "opaque-near-cache", "opaque-redis"})
+    private String mode;
+
+    private BenchmarkContext context;
+    private JwtUtils jwtUtils;
+    private UserDetailsService userDetailsService;
+    private OpaqueTokenStore opaqueTokenStore;
+    private String[] tokens;
+
+    @Setup
+    public void setup() throws IOException {
+        context = BenchmarkContext.start("user.search.enabled=false", "auth.token-mode=opaque",
+                "auth.opaque.near-cache-ttl=" + ("opaque-redis".equals(mode) ? 0 : 3600000));
+        long[] ids = context.seedUsers("token-", USERS);
+        jwtUtils = context.getBean(JwtUtils.class);
+        userDetailsService = context.getBean(UserDetailsService.class);
+        opaqueTokenStore = context.getBean(OpaqueTokenStore.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        tokens = new String[USERS];
+        long jwtBytes = 0;
+        long opaqueBytes = 0;
+        for (int i = 0; i < USERS; i++) {
+            String jwt = jwtUtils.generateToken(ids[i], "token-" + i, "ROLE_USER");
+            String opaque = opaqueTokenStore.create(userRepository.findAuthByUsername("token-" + i));
+            jwtBytes += jwt.getBytes(StandardCharsets.UTF_8).length;
+            opaqueBytes += opaque.getBytes(StandardCharsets.UTF_8).length;
+            tokens[i] = "jwt".equals(mode) ? jwt : opaque;
+        }
+        System.out.printf("%n[token] jwt=%d bytes opaque=%d bytes%n", jwtBytes / USERS, opaqueBytes / USERS);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public Object authenticate() {
+        String token = tokens[ThreadLocalRandom.current().nextInt(USERS)];
+        if (!"jwt".equals(mode)) {
+            AuthUser user = opaqueTokenStore.lookup(token);
+            if (user == null) {
+                throw new IllegalStateException("会话不存在");
+            }
+            return user;
+        }
+        if (!jwtUtils.validateToken(token)) {
+            throw new IllegalStateException("令牌无效");
+        }
+        Claims claims = jwtUtils.parseToken(token);
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+}
@@ -0,0 +1,132 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.TokenPair;
+import com.fingalden.template.business.service.AuthService;
+import com.fingalden.template.business.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 登录与刷新的负载测试，按AuthController中记录的性能预算检查p99延迟
+ * 每个CPU核一个并发线程，先预热再计时；嵌入式Redis和H2与应用同进程，结果只用于发现明显的退化。
+ * 预算可通过系统属性调整，如 -Dload.login-p99=300 -Dload.refresh-p99=30（毫秒）
+ */
+@TestPropertySource(properties = {
+        "logging.level.org.springframework.security=info",
+        "logging.level.com.fingalden.template=info"
+})
+class AuthLoadTest extends IntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthLoadTest.class);
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final String PASSWORD = "load-test-secret";
+
+    /**
+     * 登录p99预算（毫秒）
+     */
+    @Value("${load.login-p99:150}")
+    private long loginBudget;
+
+    /**
+     * 刷新p99预算（毫秒）
+     */
+    @Value("${load.refresh-p99:10}")
+    private long refreshBudget;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void loginWithinBudget() throws Exception {
+        userService.register("load-login", PASSWORD, null, null);
+        run("login", 5, () -> authService.login("load-login", PASSWORD));
+
+        long[] latencies = run("login", 20, () -> authService.login("load-login", PASSWORD));
+        assertThat(percentile(latencies, 0.99)).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(loginBudget));
+    }
+
+    @Test
+    void refreshWithinBudget() throws Exception {
+        userService.register("load-refresh", PASSWORD, null, null);
+        // 每个线程使用自己的令牌族，依次提交上一次刷新得到的token
+        ThreadLocal<String> refreshTokens = ThreadLocal.withInitial(
+                () -> authService.login("load-refresh", PASSWORD).getRefreshToken());
+        Callable<TokenPair> refresh = () -> {
+            TokenPair pair = authService.refresh(refreshTokens.get());
+            refreshTokens.set(pair.getRefreshToken());
+            return pair;
+        };
+        run("refresh", 200, refresh);
+
+        long[] latencies = run("refresh", 1000, refresh);
+        assertThat(percentile(latencies, 0.99)).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(refreshBudget));
+    }
+
+    /**
+     * 每个线程执行指定次数的操作并记录每次的耗时
+     *
+     * @param name       操作名称，用于日志
+     * @param iterations 每个线程的执行次数
+     * @param action     操作
+     * @return 所有操作的耗时（纳秒），已排序
+     */
+    private long[] run(String name, int iterations, Callable<?> action) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    long[] latencies = new long[iterations];
+                    for (int i = 0; i < iterations; i++) {
+                        long begin = System.nanoTime();
+                        action.call();
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[THREADS * iterations];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * iterations, iterations);
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(all);
+            logger.info("{}: {} threads, {} ops, {} ops/s, p50 {} ms, p99 {} ms, max {} ms", name, THREADS,
+                    all.length, all.length * 1_000_000_000L / elapsed, millis(percentile(all, 0.5)),
+                    millis(percentile(all, 0.99)), millis(all[all.length - 1]));
+            return all;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证查询的基准测试
+ * 对比UserDetailsServiceImpl使用的AuthUser投影查询与按用户名加载完整实体的查询。
+ * 实体查询不读写二级缓存，只比较实体的构造、快照和持久化上下文注册开销，分配量可加 -prof gc 查看
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthProjectionBenchmark {
+
+    private static final int USERS = 10000;
+
+    private BenchmarkContext context;
+    private UserRepository userRepository;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setup() throws IOException {
+        context = BenchmarkContext.start("user.search.enabled=false");
+        context.seedUsers("auth-", USERS);
+        userRepository = context.getBean(UserRepository.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthUser projection() {
+        return userRepository.findAuthByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public User entity() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select u from User u where u.username = :username", User.class)
+                    .setParameter("username", randomUsername())
+                    .setHint(HibernateHints.HINT_CACHE_MODE, "IGNORE")
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String randomUsername() {
+        return "auth-" + ThreadLocalRandom.current().nextInt(USERS);
+    }
+}
@@ -0,0 +1,130 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.TestApplication;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.SnowflakeIdGenerator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试使用的应用上下文
+ * 与IntegrationTest相同：在随机端口启动嵌入式Redis，以test配置（H2内存数据库）启动TestApplication。
+ * 数据库和Redis与被测代码同进程，结果用于对比不同实现，不代表生产环境的绝对延迟
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    /**
+     * 批量写入测试用户的语句
+     */
+    private static final String INSERT_SQL = "insert into " + UserConstant.TABLE_NAME
+            + " (id, username, password, email, phone, role, status, create_time, update_time, version)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    /**
+     * 测试用户的密码
+     */
+    static final String PASSWORD = "benchmark-secret";
+
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(RedisServer redisServer, ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    /**
+     * 启动嵌入式Redis和应用上下文
+     *
+     * @param properties 额外的配置，格式为key=value
+     * @return 基准测试上下文
+     * @throws IOException 嵌入式Redis启动失败
+     */
+    static BenchmarkContext start(String... properties) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        RedisServer redisServer = RedisServer.newRedisServer()
+                .port(port)
+                .bind("127.0.0.1")
+                .setting("save \"\"")
+                .setting("appendonly no")
+                .build();
+        redisServer.start();
+        // 以命令行参数传入，优先级高于application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.data.redis.host=127.0.0.1",
+                "--spring.data.redis.port=" + port,
+                "--server.port=0",
+                "--logging.level.root=warn",
+                "--logging.level.com.fingalden.template=warn",
+                "--logging.level.org.springframework=warn"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                    .profiles("test")
+                    .run(args.toArray(new String[0]));
+            return new BenchmarkContext(redisServer, context);
+        } catch (RuntimeException e) {
+            redisServer.stop();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取Bean
+     *
+     * @param type Bean类型
+     * @param <T>  Bean类型
+     * @return Bean实例
+     */
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * 绕过实体直接批量写入测试用户，用户名为 prefix + 序号，邮箱和手机号由序号生成，密码均为PASSWORD
+     *
+     * @param prefix 用户名前缀
+     * @param count  用户数
+     * @return 按序号排列的用户ID
+     */
+    long[] seedUsers(String prefix, int count) {
+        JdbcTemplate jdbcTemplate = getBean(JdbcTemplate.class);
+        String passwordHash = getBean(PasswordEncoder.class).encode(PASSWORD);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long[] ids = new long[count];
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < count; i++) {
+            ids[i] = SnowflakeIdGenerator.getInstance().nextId();
+            batch.add(new Object[]{ids[i], prefix + i, passwordHash, prefix + i + "@example.com",
+                    String.format("139%08d", i), UserConstant.DEFAULT_ROLE, UserConstant.STATUS_ENABLED, now, now});
+            if (batch.size() == 1000 || i == count - 1) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            redisServer.stop();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.business.dto.LoginAuditEvent;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.service.LoginAuditWriter;
+import com.fingalden.template.common.constant.UserConstant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录审计写入的基准测试，分数为每秒写入的事件数
+ * synchronous在调用线程中逐条写入：一个事务内插入审计记录、更新最后登录时间并失效二级缓存；
+ * batched把一批事件交给LoginAuditWriter，等待后台线程全部写完后返回
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginAuditBenchmark {
+
+    private static final int USERS = 1000;
+
+    /**
+     * 每次调用写入的事件数，与login-audit.batch-size默认值相同
+     */
+    private static final int EVENTS = 500;
+
+    private static final String INSERT_SQL = "insert into " + UserConstant.LOGIN_AUDIT_TABLE_NAME
+            + " (id, user_id, username, success, reason, ip, user_agent, create_time) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_LAST_LOGIN_SQL = "update " + UserConstant.TABLE_NAME
+            + " set update_time = ? where id = ? and update_time < ?";
+
+    private final AtomicLong auditIds = new AtomicLong();
+
+    private BenchmarkContext context;
+    private long[] userIds;
+    private LoginAuditWriter loginAuditWriter;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private Counter writtenCounter;
+    private Counter failedCounter;
+
+    @Setup
+    public void setup() throws IOException {
+        context = BenchmarkContext.start("user.search.enabled=false", "login-audit.batch-size=" + EVENTS);
+        userIds = context.seedUsers("audit-", USERS);
+        loginAuditWriter = context.getBean(LoginAuditWriter.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        writtenCounter = meterRegistry.get("login.audit.events").tag("result", "written").counter();
+        failedCounter = meterRegistry.get("login.audit.events").tag("result", "failed").counter();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void synchronous() {
+        for (int i = 0; i < EVENTS; i++) {
+            LoginAuditEvent event = nextEvent();
+            Timestamp time = new Timestamp(event.getTime());
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_SQL, auditIds.incrementAndGet(), event.getUserId(), event.getUsername(),
+                        event.isSuccess(), event.getReason(), event.getIp(), event.getUserAgent(), time);
+                jdbcTemplate.update(UPDATE_LAST_LOGIN_SQL, time, event.getUserId(), time);
+            });
+            entityManagerFactory.getCache().evict(User.class, event.getUserId());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void batched() throws InterruptedException {
+        double target = processed() + EVENTS;
+        for (int i = 0; i < EVENTS; i++) {
+            loginAuditWriter.record(nextEvent());
+        }
+        while (processed() < target) {
+            Thread.sleep(1);
+        }
+    }
+
+    private LoginAuditEvent nextEvent() {
+        int user = ThreadLocalRandom.current().nextInt(USERS);
+        return new LoginAuditEvent(userIds[user], "audit-" + user, true, null, "127.0.0.1",
+                "benchmark", System.currentTimeMillis());
+    }
+
+    private double processed() {
+        return writtenCounter.count() + failedCounter.count();
+    }
+}
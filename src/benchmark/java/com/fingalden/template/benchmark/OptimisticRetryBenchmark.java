@@ -0,0 +1,92 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.business.service.UserService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 乐观锁重试的争用基准测试
+ * 8个线程并发修改同一用户的邮箱，按最大执行次数对比提交成功与最终冲突的吞吐量：
+ * max-attempts=1相当于不重试，冲突直接返回给调用方。committed和conflicted为每秒的次数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class OptimisticRetryBenchmark {
+
+    @Param({"1", "5"})
+    private int maxAttempts;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    private BenchmarkContext context;
+    private UserService userService;
+    private long userId;
+
+    @Setup
+    public void setup() throws IOException {
+        context = BenchmarkContext.start("user.search.enabled=false",
+                "retry.optimistic.max-attempts=" + maxAttempts,
+                "logging.level.com.fingalden.template.core.utils.OptimisticRetryUtils=error");
+        userId = context.seedUsers("contention-", 1)[0];
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    /**
+     * 每个线程的更新结果计数，由JMH作为附加结果输出
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcome {
+
+        public long committed;
+
+        public long conflicted;
+
+        private String emailPrefix;
+
+        private long sequence;
+
+        @Setup(Level.Trial)
+        public void setup(OptimisticRetryBenchmark benchmark) {
+            emailPrefix = "contention-" + benchmark.threadIds.getAndIncrement() + "-";
+        }
+    }
+
+    @Benchmark
+    public void updateSameUser(Outcome outcome) {
+        try {
+            userService.updateProfile(userId, outcome.emailPrefix + outcome.sequence++ + "@example.com", null);
+            outcome.committed++;
+        } catch (OptimisticLockingFailureException e) {
+            outcome.conflicted++;
+        }
+    }
+}
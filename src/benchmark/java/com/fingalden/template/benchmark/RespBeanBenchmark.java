@@ -0,0 +1,79 @@
+package com.fingalden.template.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.fingalden.template.core.utils.JsonResponses;
+import com.fingalden.template.core.utils.RespBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RespBean序列化基准测试
+ * 对比固定响应的即时序列化与预先序列化字节的查找，以及按键存放的Map数据与类型化数据的序列化，
+ * ObjectMapper与应用一样注册了Blackbird模块。分配量可加 -prof gc 查看
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespBeanBenchmark {
+
+    private ObjectMapper objectMapper;
+    private JsonResponses jsonResponses;
+    private Summary summary;
+
+    /**
+     * 典型的类型化响应数据
+     */
+    public record Summary(long id, String username, String email, String role, int status) {
+    }
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = new ObjectMapper().registerModule(new BlackbirdModule());
+        jsonResponses = new JsonResponses(objectMapper);
+        summary = new Summary(370384436685967360L, "alice", "alice@example.com", "ROLE_USER", 1);
+    }
+
+    @Benchmark
+    public byte[] successSerialized() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(RespBean.success());
+    }
+
+    @Benchmark
+    public byte[] successPrepared() {
+        return jsonResponses.lookup(RespBean.success());
+    }
+
+    @Benchmark
+    public byte[] keyedData() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(RespBean.success("user", Map.of(
+                "id", summary.id(), "username", summary.username(), "email", summary.email(),
+                "role", summary.role(), "status", summary.status())));
+    }
+
+    @Benchmark
+    public byte[] typedData() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(RespBean.of(summary));
+    }
+
+    @Benchmark
+    public byte[] typedList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(RespBean.of(List.of(summary, summary, summary)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按自然键查询用户的基准测试
+ * 按表中行数测量邮箱、手机号查询的延迟，两者走唯一索引，延迟应基本不随行数增长；
+ * 用户名查询走自然ID加载，命中二级缓存后不执行SQL，作为对照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class UserLookupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private BenchmarkContext context;
+    private UserRepository userRepository;
+
+    @Setup
+    public void setup() throws IOException {
+        context = BenchmarkContext.start("user.search.enabled=false");
+        context.seedUsers("lookup-", rows);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public User findByEmail() {
+        return userRepository.findByEmail("lookup-" + ThreadLocalRandom.current().nextInt(rows) + "@example.com");
+    }
+
+    @Benchmark
+    public User findByPhone() {
+        return userRepository.findByPhone(String.format("139%08d", ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    @Benchmark
+    public User findByUsername() {
+        return userRepository.findByUsername("lookup-" + ThreadLocalRandom.current().nextInt(rows));
+    }
+}
@@ -0,0 +1,102 @@
+package com.fingalden.template.benchmark;
+
+import com.fingalden.template.business.service.UserSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserSearchIndex基准测试
+ * 按用户量测量前缀查询延迟和一次重建的耗时；每个用户量启动时打印快照的堆占用
+ * （user.search.index.bytes指标与GC后的堆增量）以及一次重建期间的堆峰值，重建的分配量可加 -prof gc 查看
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class UserSearchIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int users;
+
+    private BenchmarkContext context;
+    private UserSearchIndex index;
+
+    @Setup
+    public void setup() throws IOException {
+        // 启动时不自动加载，避免与下面的手动加载重叠
+        context = BenchmarkContext.start("user.search.enabled=false");
+        context.seedUsers("search-", users);
+        index = context.getBean(UserSearchIndex.class);
+
+        long before = usedHeapAfterGc();
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        index.reload();
+        long peak = pools.stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        long retained = usedHeapAfterGc() - before;
+        double snapshotBytes = context.getBean(MeterRegistry.class).get("user.search.index.bytes").gauge().value();
+        System.out.printf("%n[footprint] users=%d snapshot=%.1fMB retained=%.1fMB rebuildPeakAboveBaseline=%.1fMB%n",
+                users, snapshotBytes / 1e6, retained / 1e6, (peak - before) / 1e6);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> searchUsername() {
+        return index.search("search-" + ThreadLocalRandom.current().nextInt(users), 20);
+    }
+
+    @Benchmark
+    public List<Long> searchShortPrefix() {
+        // 短前缀命中大量词项，只取前20个用户
+        return index.search("search-" + ThreadLocalRandom.current().nextInt(10), 20);
+    }
+
+    @Benchmark
+    public List<Long> searchPhone() {
+        return index.search(String.format("139%08d", ThreadLocalRandom.current().nextInt(users)), 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void rebuild() {
+        index.reload();
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,230 @@
+package com.fingalden.template.auth;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.MethodAuthorizationDeniedHandler;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 带判断结果缓存的@PreAuthorize授权管理器
+ * 表达式的解析由Spring Security按方法缓存，编译由表达式处理器的SpEL编译器完成，这里在此之上：
+ * 1. 可选缓存判断结果，键为（方法、角色、权限模型版本，以及表达式用到时的用户ID和参数值），有效期很短；
+ *    权限模型重新编译后版本号变化，旧结果不再命中
+ * 2. 表达式引用了Bean（@）或静态方法（T(...)），或参数不是字符串、数字、布尔、枚举等简单值时不缓存，
+ *    当前用户不是本系统的用户时也不缓存
+ * 3. 按方法记录判断耗时，区分是否命中缓存
+ */
+public class CachedPreAuthorizeManager implements AuthorizationManager<MethodInvocation>,
+        MethodAuthorizationDeniedHandler {
+
+    private final PreAuthorizeAuthorizationManager delegate;
+    private final ObjectProvider<PermissionModel> permissionModelProvider;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    /**
+     * 判断结果缓存，未启用时为null
+     */
+    private final Cache<Key, AuthorizationResult> decisions;
+
+    /**
+     * 每个方法的缓存规则和计时器，首次调用时生成
+     */
+    private final Map<Method, Plan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * 创建授权管理器
+     * 依赖通过ObjectProvider延迟获取，避免方法安全配置提前初始化权限模型和指标注册表
+     *
+     * @param delegate                实际执行表达式的授权管理器
+     * @param permissionModelProvider 角色权限模型
+     * @param meterRegistryProvider   指标注册表
+     * @param cacheEnabled            是否缓存判断结果
+     * @param cacheTtl                判断结果有效期（毫秒）
+     * @param cacheSize               判断结果最大条目数
+     */
+    public CachedPreAuthorizeManager(PreAuthorizeAuthorizationManager delegate,
+                                     ObjectProvider<PermissionModel> permissionModelProvider,
+                                     ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                     boolean cacheEnabled, long cacheTtl, long cacheSize) {
+        this.delegate = delegate;
+        this.permissionModelProvider = permissionModelProvider;
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.decisions = cacheEnabled
+                ? Caffeine.newBuilder()
+                        .expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+                        .maximumSize(cacheSize)
+                        .build()
+                : null;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        long start = System.nanoTime();
+        Plan plan = plans.get(invocation.getMethod());
+        if (plan == null) {
+            plan = plans.computeIfAbsent(invocation.getMethod(), method -> plan(method, invocation));
+        }
+        Key key = decisions == null ? null : key(plan, authentication.get(), invocation);
+        if (key != null) {
+            AuthorizationResult cached = decisions.getIfPresent(key);
+            if (cached != null) {
+                plan.hitTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
+        AuthorizationResult decision = delegate.authorize(authentication, invocation);
+        if (key != null && decision != null) {
+            decisions.put(key, decision);
+        }
+        plan.missTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return decision;
+    }
+
+    /**
+     * 已废弃的判断入口，Spring Security通过authorize调用，这里只为实现接口
+     */
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        AuthorizationResult result = authorize(authentication, invocation);
+        if (result == null || result instanceof AuthorizationDecision) {
+            return (AuthorizationDecision) result;
+        }
+        return new AuthorizationDecision(result.isGranted());
+    }
+
+    @Override
+    public Object handleDeniedInvocation(MethodInvocation invocation, AuthorizationResult result) {
+        return delegate.handleDeniedInvocation(invocation, result);
+    }
+
+    /**
+     * 生成判断结果的缓存键
+     *
+     * @param plan           方法的缓存规则
+     * @param authentication 认证信息
+     * @param invocation     方法调用
+     * @return 缓存键，不能缓存时返回null
+     */
+    private Key key(Plan plan, Authentication authentication, MethodInvocation invocation) {
+        if (!plan.cacheable() || authentication == null) {
+            return null;
+        }
+        Long userId;
+        String role;
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthUser user) {
+            userId = user.getId();
+            role = user.getRole();
+        } else if (principal instanceof User user) {
+            userId = user.getId();
+            role = user.getRole();
+        } else {
+            return null;
+        }
+        List<Object> args = null;
+        if (plan.usesArguments()) {
+            Object[] arguments = invocation.getArguments();
+            for (Object argument : arguments) {
+                if (!isSimpleValue(argument)) {
+                    return null;
+                }
+            }
+            args = Arrays.asList(arguments.clone());
+        }
+        return new Key(plan.method(), role, permissionModelProvider.getObject().getVersion(),
+                plan.usesPrincipal() ? userId : null, args);
+    }
+
+    /**
+     * 根据方法上的@PreAuthorize表达式生成缓存规则，并注册该方法的计时器
+     *
+     * @param method     调用的方法
+     * @param invocation 方法调用，用于取得目标类
+     * @return 缓存规则
+     */
+    private Plan plan(Method method, MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() == null ? method.getDeclaringClass()
+                : AopUtils.getTargetClass(invocation.getThis());
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+        }
+        String expression = annotation == null ? "" : annotation.value();
+        boolean cacheable = annotation != null && !expression.contains("@") && !expression.contains("T(");
+        boolean usesPrincipal = expression.contains("principal") || expression.contains("authentication");
+        boolean usesArguments = expression.contains("#");
+
+        String name = targetClass.getSimpleName() + "." + method.getName();
+        MeterRegistry meterRegistry = meterRegistryProvider.getObject();
+        return new Plan(method, cacheable, usesPrincipal, usesArguments,
+                timer(meterRegistry, name, "hit"), timer(meterRegistry, name, "miss"));
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String method, String cache) {
+        return Timer.builder("security.method.authorization")
+                .tag("method", method)
+                .tag("cache", cache)
+                .description("Time spent evaluating @PreAuthorize per method")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 判断参数是否是可以作为缓存键的简单值
+     *
+     * @param value 参数值
+     * @return 是否是null、字符串、数字、布尔、字符或枚举
+     */
+    private static boolean isSimpleValue(Object value) {
+        return value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum<?>;
+    }
+
+    /**
+     * 方法的缓存规则
+     *
+     * @param method        方法
+     * @param cacheable     判断结果是否可以缓存
+     * @param usesPrincipal 表达式是否引用当前用户，是则缓存键包含用户ID
+     * @param usesArguments 表达式是否引用方法参数，是则缓存键包含参数值
+     * @param hitTimer      命中缓存时的计时器
+     * @param missTimer     执行表达式时的计时器
+     */
+    private record Plan(Method method, boolean cacheable, boolean usesPrincipal, boolean usesArguments,
+                        Timer hitTimer, Timer missTimer) {
+    }
+
+    /**
+     * 判断结果的缓存键
+     *
+     * @param method  方法
+     * @param role    角色
+     * @param version 权限模型版本号
+     * @param userId  用户ID，表达式未引用当前用户时为null
+     * @param args    参数值，表达式未引用参数时为null
+     */
+    private record Key(Method method, String role, long version, Long userId, List<Object> args) {
+    }
+}
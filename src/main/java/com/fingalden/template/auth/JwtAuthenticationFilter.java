@@ -1,6 +1,11 @@
 package com.fingalden.template.auth;
 
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.service.OpaqueTokenStore;
+import com.fingalden.template.core.utils.JsonResponses;
+import com.fingalden.template.core.utils.JsonResponses.Prepared;
 import com.fingalden.template.core.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -24,6 +29,7 @@ import java.io.IOException;
 /**
  * JWT认证过滤器，用于拦截请求并进行JWT token验证
  * 继承OncePerRequestFilter以确保过滤器只对每个请求执行一次
+ * 不含"."的token是不透明令牌（auth.token-mode=opaque时签发），从OpaqueTokenStore查询会话，不解析JWT
  */
 @Component
 @RequiredArgsConstructor
@@ -33,6 +39,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final OpaqueTokenStore opaqueTokenStore;
+    private final JsonResponses jsonResponses;
 
     /**
      * 从请求头中获取JWT token
@@ -69,12 +77,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws IOException, ServletException {
         String token = getTokenFromRequest(request);
         
+        if (StringUtils.hasText(token) && token.indexOf('.') < 0) {
+            AuthUser user = opaqueTokenStore.lookup(token);
+            if (user != null) {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+            } else {
+                logger.debug("Unknown or expired opaque token");
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         if (StringUtils.hasText(token)) {
             try {
                 // 验证token是否有效
                 if (jwtUtils.validateToken(token)) {
+                    Claims claims = jwtUtils.parseToken(token);
+                    if (claims.get("fid") != null) {
+                        // 刷新token只能用于换发新token，不能作为访问token使用
+                        logger.warn("Refresh token used as access token");
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
                     // 从token中获取用户名
-                    String username = jwtUtils.getUsernameFromToken(token);
+                    String username = claims.getSubject();
                     // 加载用户信息
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                     // 创建认证对象
@@ -88,27 +115,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
             } catch (ExpiredJwtException e) {
                 logger.warn("JWT token expired: {}", token);
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"code\":401,\"message\":\"Token expired\"}");
+                jsonResponses.write(response, Prepared.TOKEN_EXPIRED);
                 return;
             } catch (MalformedJwtException e) {
                 logger.warn("Invalid JWT token format: {}", token);
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"code\":401,\"message\":\"Invalid token format\"}");
+                jsonResponses.write(response, Prepared.INVALID_TOKEN_FORMAT);
                 return;
             } catch (UnsupportedJwtException e) {
                 logger.warn("Unsupported JWT token: {}", token);
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"code\":401,\"message\":\"Unsupported token\"}");
+                jsonResponses.write(response, Prepared.UNSUPPORTED_TOKEN);
                 return;
             } catch (Exception e) {
                 logger.error("JWT authentication failed: {}", e.getMessage());
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"code\":401,\"message\":\"Authentication failed\"}");
+                jsonResponses.write(response, Prepared.AUTHENTICATION_FAILED);
                 return;
             }
         }
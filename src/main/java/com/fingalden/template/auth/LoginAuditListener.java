@@ -0,0 +1,99 @@
+package com.fingalden.template.auth;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.dto.LoginAuditEvent;
+import com.fingalden.template.business.service.LoginAuditWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * 登录审计监听器
+ * 监听AuthenticationManager发布的认证成功、失败事件，转换为审计事件交给LoginAuditWriter异步写入；
+ * 携带JWT的普通请求不经过AuthenticationManager，不会产生审计记录
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginAuditListener {
+
+    /**
+     * 用户名最大长度，与审计表字段长度一致
+     */
+    private static final int MAX_USERNAME_LENGTH = 64;
+
+    /**
+     * 失败原因最大长度，与审计表字段长度一致
+     */
+    private static final int MAX_REASON_LENGTH = 128;
+
+    /**
+     * User-Agent最大长度，与审计表字段长度一致
+     */
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+
+    private final LoginAuditWriter loginAuditWriter;
+
+    /**
+     * 处理认证成功事件
+     *
+     * @param event 认证成功事件
+     */
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        Authentication authentication = event.getAuthentication();
+        Long userId = authentication.getPrincipal() instanceof AuthUser user ? user.getId() : null;
+        record(userId, authentication.getName(), true, null);
+    }
+
+    /**
+     * 处理认证失败事件
+     *
+     * @param event 认证失败事件
+     */
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        record(null, event.getAuthentication().getName(), false, event.getException().getClass().getSimpleName());
+    }
+
+    /**
+     * 从当前请求中取出客户端信息，生成审计事件
+     *
+     * @param userId   用户ID
+     * @param username 用户名
+     * @param success  是否成功
+     * @param reason   失败原因
+     */
+    private void record(Long userId, String username, boolean success, String reason) {
+        String ip = null;
+        String userAgent = null;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            ip = request.getRemoteAddr();
+            userAgent = truncate(request.getHeader(HttpHeaders.USER_AGENT), MAX_USER_AGENT_LENGTH);
+        }
+        // 用户名来自客户端输入，超长时截断，避免整批审计记录写入失败
+        loginAuditWriter.record(new LoginAuditEvent(userId,
+                username == null ? "" : truncate(username, MAX_USERNAME_LENGTH), success,
+                truncate(reason, MAX_REASON_LENGTH), ip, userAgent, System.currentTimeMillis()));
+    }
+
+    /**
+     * 截断超过字段长度的字符串
+     *
+     * @param value     字符串
+     * @param maxLength 最大长度
+     * @return 截断后的字符串，为null时返回null
+     */
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,219 @@
+package com.fingalden.template.auth;
+
+import com.fingalden.template.common.constant.UserConstant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 角色权限模型
+ * 权限表和角色权限关系表编译为不可变快照：每个权限编码分配一个位序号，每个角色一个long[]位图，
+ * 判断角色是否拥有某个权限只需两次哈希查找和一次位运算，不查询数据库，也不创建对象：
+ * 1. 启动时编译一次，之后定时比较两张表的行数和最大创建时间，有变化时重新编译，使其他节点修改的权限生效
+ * 2. 本节点通过接口修改权限后立即重新编译
+ * 3. 同时生成各角色共享的GrantedAuthority列表，见RoleAuthorities
+ * 权限数据只存放在默认分片上
+ */
+@Component
+public class PermissionModel implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionModel.class);
+
+    /**
+     * 查询所有权限编码，按编码排序使位序号稳定
+     */
+    private static final String PERMISSION_SQL = "select code from " + UserConstant.PERMISSION_TABLE_NAME
+            + " order by code";
+
+    /**
+     * 查询所有角色权限关系
+     */
+    private static final String ROLE_PERMISSION_SQL = "select role, permission_code from "
+            + UserConstant.ROLE_PERMISSION_TABLE_NAME;
+
+    /**
+     * 查询两张表的指纹：行数和最大创建时间，增删关系都会使其变化
+     */
+    private static final String FINGERPRINT_SQL = "select"
+            + " (select count(*) from " + UserConstant.PERMISSION_TABLE_NAME + "),"
+            + " (select max(create_time) from " + UserConstant.PERMISSION_TABLE_NAME + "),"
+            + " (select count(*) from " + UserConstant.ROLE_PERMISSION_TABLE_NAME + "),"
+            + " (select max(create_time) from " + UserConstant.ROLE_PERMISSION_TABLE_NAME + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 加载事务模板，总是开启新事务并读取主库，避免刚修改的权限因从库延迟而读不到
+     */
+    private final TransactionTemplate loadTemplate;
+
+    /**
+     * 检查事务模板，只读，检查变化时读取从库
+     */
+    private final TransactionTemplate checkTemplate;
+
+    /**
+     * 当前快照，加载完成前为空快照，此时所有权限判断均为false
+     */
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), null);
+
+    /**
+     * 快照版本号，每次重新编译后加1
+     */
+    private volatile long version;
+
+    /**
+     * 构造函数注入依赖
+     *
+     * @param jdbcTemplate       JDBC模板
+     * @param transactionManager 事务管理器
+     */
+    @Autowired
+    public PermissionModel(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.checkTemplate = new TransactionTemplate(transactionManager);
+        this.checkTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.checkTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 所有单例创建完成后（表结构已由Hibernate更新，Web服务尚未开始接收请求）编译一次
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * 判断角色是否拥有权限
+     *
+     * @param role 角色
+     * @param code 权限编码
+     * @return 是否拥有，角色或权限不存在时返回false
+     */
+    public boolean has(String role, String code) {
+        if (role == null || code == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        Integer bit = current.bits().get(code);
+        long[] roleBits = current.roles().get(role);
+        return bit != null && roleBits != null && (roleBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 获取快照版本号，缓存权限判断结果时用于识别权限数据是否已变化
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 定时检查权限数据是否变化，有变化时重新编译
+     */
+    @Scheduled(fixedDelayString = "${rbac.reload-interval:30000}")
+    public void checkForChanges() {
+        try {
+            String fingerprint = checkTemplate.execute(status -> fingerprint());
+            if (!Objects.equals(fingerprint, snapshot.fingerprint())) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to check permission changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库加载权限数据并编译为新快照
+     * 加载失败时保留原快照
+     */
+    public synchronized void reload() {
+        try {
+            long start = System.currentTimeMillis();
+            Snapshot next = loadTemplate.execute(status -> compile());
+            snapshot = next;
+            RoleAuthorities.update(next.authorities());
+            version++;
+            logger.info("Permission model compiled: {} permissions, {} roles in {} ms",
+                    next.bits().size(), next.roles().size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load permission model: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 在当前事务中读取指纹和权限数据并编译
+     *
+     * @return 新快照
+     */
+    private Snapshot compile() {
+        // 先读指纹，编译期间发生的修改会在下次检查时被发现
+        String fingerprint = fingerprint();
+        List<String> codes = jdbcTemplate.queryForList(PERMISSION_SQL, String.class);
+        Map<String, Integer> bits = new HashMap<>(codes.size() * 2);
+        Map<String, GrantedAuthority> interned = new HashMap<>(codes.size() * 2);
+        for (String code : codes) {
+            bits.put(code, bits.size());
+            interned.put(code, new SimpleGrantedAuthority(code));
+        }
+
+        int words = Math.max((codes.size() + 63) >>> 6, 1);
+        Map<String, long[]> roles = new HashMap<>();
+        Map<String, List<GrantedAuthority>> grants = new HashMap<>();
+        jdbcTemplate.query(ROLE_PERMISSION_SQL, rs -> {
+            String role = rs.getString("role");
+            Integer bit = bits.get(rs.getString("permission_code"));
+            if (bit == null) {
+                // 关系引用了已删除的权限，忽略
+                return;
+            }
+            roles.computeIfAbsent(role, r -> new long[words])[bit >>> 6] |= 1L << bit;
+            grants.computeIfAbsent(role, r -> new ArrayList<>()).add(interned.get(codes.get(bit)));
+        });
+
+        Map<String, List<GrantedAuthority>> authorities = new HashMap<>(grants.size() * 2);
+        for (Map.Entry<String, List<GrantedAuthority>> entry : grants.entrySet()) {
+            List<GrantedAuthority> list = new ArrayList<>(entry.getValue().size() + 1);
+            list.add(new SimpleGrantedAuthority(entry.getKey()));
+            list.addAll(entry.getValue());
+            authorities.put(entry.getKey(), List.copyOf(list));
+        }
+        return new Snapshot(Map.copyOf(bits), Map.copyOf(roles), Map.copyOf(authorities), fingerprint);
+    }
+
+    private String fingerprint() {
+        return jdbcTemplate.queryForObject(FINGERPRINT_SQL, (rs, rowNum) ->
+                rs.getLong(1) + "/" + rs.getTimestamp(2) + "/" + rs.getLong(3) + "/" + rs.getTimestamp(4));
+    }
+
+    /**
+     * 权限模型快照
+     *
+     * @param bits        权限编码到位序号的映射
+     * @param roles       角色到权限位图的映射
+     * @param authorities 角色到共享权限列表的映射
+     * @param fingerprint 编译时的数据指纹
+     */
+    private record Snapshot(Map<String, Integer> bits, Map<String, long[]> roles,
+                            Map<String, List<GrantedAuthority>> authorities, String fingerprint) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.fingalden.template.auth;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+
+/**
+ * 基于角色权限位图的权限判断
+ * 在@PreAuthorize中使用，如@PreAuthorize("hasPermission(null, 'user:export')")；
+ * 只按当前用户的角色判断，目标对象参数不参与判断
+ */
+@Component
+public class RbacPermissionEvaluator implements PermissionEvaluator {
+
+    private final PermissionModel permissionModel;
+
+    /**
+     * 构造函数注入依赖
+     *
+     * @param permissionModel 角色权限模型
+     */
+    @Autowired
+    public RbacPermissionEvaluator(PermissionModel permissionModel) {
+        this.permissionModel = permissionModel;
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return check(authentication, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType,
+                                 Object permission) {
+        return check(authentication, permission);
+    }
+
+    /**
+     * 取当前用户的角色，在角色权限位图中判断
+     *
+     * @param authentication 认证信息
+     * @param permission     权限编码
+     * @return 是否拥有权限
+     */
+    private boolean check(Authentication authentication, Object permission) {
+        if (authentication == null || !(permission instanceof String code)) {
+            return false;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthUser user) {
+            return permissionModel.has(user.getRole(), code);
+        }
+        if (principal instanceof User user) {
+            return permissionModel.has(user.getRole(), code);
+        }
+        return false;
+    }
+}
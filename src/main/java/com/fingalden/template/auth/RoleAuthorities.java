@@ -0,0 +1,55 @@
+package com.fingalden.template.auth;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 角色权限列表的共享实例
+ * 每个角色的GrantedAuthority列表（角色本身加上该角色拥有的权限编码）只创建一次，由所有用户共享，
+ * 认证时获取权限列表不再逐次创建对象；权限模型重新加载后替换为新的列表
+ */
+public final class RoleAuthorities {
+
+    /**
+     * 由权限模型编译的各角色权限列表
+     */
+    private static volatile Map<String, List<GrantedAuthority>> compiled = Map.of();
+
+    /**
+     * 未配置任何权限的角色，只包含角色本身
+     */
+    private static final Map<String, List<GrantedAuthority>> ROLE_ONLY = new ConcurrentHashMap<>();
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * 获取角色的权限列表
+     *
+     * @param role 角色
+     * @return 不可修改的权限列表，角色为空时返回空列表
+     */
+    public static List<GrantedAuthority> of(String role) {
+        if (role == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = compiled.get(role);
+        if (authorities != null) {
+            return authorities;
+        }
+        return ROLE_ONLY.computeIfAbsent(role, r -> List.of(new SimpleGrantedAuthority(r)));
+    }
+
+    /**
+     * 替换各角色的权限列表，由权限模型在重新加载后调用
+     *
+     * @param authorities 各角色的权限列表
+     */
+    static void update(Map<String, List<GrantedAuthority>> authorities) {
+        compiled = authorities;
+    }
+}
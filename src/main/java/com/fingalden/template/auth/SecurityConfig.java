@@ -1,10 +1,30 @@
 package com.fingalden.template.auth;
 
-import jakarta.servlet.http.HttpServletResponse;
+import com.fingalden.template.core.utils.JsonResponses;
+import com.fingalden.template.core.utils.JsonResponses.Prepared;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Role;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerAfterMethodInterceptor;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PostAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.PostFilterAuthorizationMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.PreFilterAuthorizationMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,7 +43,7 @@ import org.springframework.security.web.access.AccessDeniedHandler;
  */
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity(prePostEnabled = true) // 启用方法级安全注解
+@EnableMethodSecurity(prePostEnabled = false) // 启用方法级安全注解，@PreAuthorize等拦截器由本类自行注册
 public class SecurityConfig {
 
     /**
@@ -50,6 +70,99 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * 配置方法安全表达式处理器，使hasPermission使用角色权限位图判断
+     * 表达式解析器启用SpEL编译（MIXED模式），多次执行后编译为字节码，编译失败时自动退回解释执行；
+     * 声明为静态方法并延迟注入权限判断，避免方法安全配置提前初始化本配置类和权限模型
+     *
+     * @param permissionEvaluator 基于角色权限位图的权限判断
+     * @return MethodSecurityExpressionHandler实例
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            @Lazy RbacPermissionEvaluator permissionEvaluator) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(permissionEvaluator);
+        handler.setExpressionParser(new SpelExpressionParser(new SpelParserConfiguration(
+                SpelCompilerMode.MIXED, SecurityConfig.class.getClassLoader())));
+        return handler;
+    }
+
+    /**
+     * 注册@PreAuthorize拦截器，使用可缓存判断结果并按方法记录耗时的授权管理器
+     *
+     * @param expressionHandler       方法安全表达式处理器
+     * @param applicationContext      应用上下文
+     * @param permissionModelProvider 角色权限模型
+     * @param meterRegistryProvider   指标注册表
+     * @param cacheEnabled            是否缓存判断结果
+     * @param cacheTtl                判断结果有效期（毫秒）
+     * @param cacheSize               判断结果最大条目数
+     * @return @PreAuthorize拦截器
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor preAuthorizeAdvisor(
+            MethodSecurityExpressionHandler expressionHandler,
+            ApplicationContext applicationContext,
+            ObjectProvider<PermissionModel> permissionModelProvider,
+            ObjectProvider<MeterRegistry> meterRegistryProvider,
+            @Value("${security.method.decision-cache.enabled:false}") boolean cacheEnabled,
+            @Value("${security.method.decision-cache.ttl:5000}") long cacheTtl,
+            @Value("${security.method.decision-cache.size:10000}") long cacheSize) {
+        PreAuthorizeAuthorizationManager delegate = new PreAuthorizeAuthorizationManager();
+        delegate.setExpressionHandler(expressionHandler);
+        delegate.setApplicationContext(applicationContext);
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(new CachedPreAuthorizeManager(delegate,
+                permissionModelProvider, meterRegistryProvider, cacheEnabled, cacheTtl, cacheSize));
+    }
+
+    /**
+     * 注册@PostAuthorize拦截器
+     *
+     * @param expressionHandler  方法安全表达式处理器
+     * @param applicationContext 应用上下文
+     * @return @PostAuthorize拦截器
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor postAuthorizeAdvisor(MethodSecurityExpressionHandler expressionHandler,
+                                               ApplicationContext applicationContext) {
+        PostAuthorizeAuthorizationManager manager = new PostAuthorizeAuthorizationManager();
+        manager.setExpressionHandler(expressionHandler);
+        manager.setApplicationContext(applicationContext);
+        return AuthorizationManagerAfterMethodInterceptor.postAuthorize(manager);
+    }
+
+    /**
+     * 注册@PreFilter拦截器
+     *
+     * @param expressionHandler 方法安全表达式处理器
+     * @return @PreFilter拦截器
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor preFilterAdvisor(MethodSecurityExpressionHandler expressionHandler) {
+        PreFilterAuthorizationMethodInterceptor interceptor = new PreFilterAuthorizationMethodInterceptor();
+        interceptor.setExpressionHandler(expressionHandler);
+        return interceptor;
+    }
+
+    /**
+     * 注册@PostFilter拦截器
+     *
+     * @param expressionHandler 方法安全表达式处理器
+     * @return @PostFilter拦截器
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor postFilterAdvisor(MethodSecurityExpressionHandler expressionHandler) {
+        PostFilterAuthorizationMethodInterceptor interceptor = new PostFilterAuthorizationMethodInterceptor();
+        interceptor.setExpressionHandler(expressionHandler);
+        return interceptor;
+    }
+
     /**
      * 配置认证入口点，用于处理未认证请求
      * 当用户尝试访问受保护资源但未提供有效认证时，会调用此入口点
@@ -65,17 +178,14 @@ public class SecurityConfig {
 
     /**
      * 配置访问拒绝处理器，用于处理无权访问请求
-     * 当用户尝试访问其没有权限的资源时，会调用此处理器
+     * 当用户尝试访问其没有权限的资源时，会调用此处理器，写出预先序列化的403响应
      *
+     * @param jsonResponses 预先序列化的常用响应
      * @return AccessDeniedHandler实例
      */
     @Bean
-    public AccessDeniedHandler accessDeniedHandler() {
-        return (request, response, accessDeniedException) -> {
-            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"code\":403,\"message\":\"Access Denied\"}");
-        };
+    public AccessDeniedHandler accessDeniedHandler(JsonResponses jsonResponses) {
+        return (request, response, accessDeniedException) -> jsonResponses.write(response, Prepared.ACCESS_DENIED);
     }
 
     /**
@@ -84,12 +194,14 @@ public class SecurityConfig {
      *
      * @param http HttpSecurity实例
      * @param jwtFilter JWT认证过滤器
+     * @param accessDeniedHandler 访问拒绝处理器
      * @return SecurityFilterChain实例
      * @throws Exception 配置异常
      */
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
-                                           JwtAuthenticationFilter jwtFilter) throws Exception {
+                                           JwtAuthenticationFilter jwtFilter,
+                                           AccessDeniedHandler accessDeniedHandler) throws Exception {
         http
             // 禁用CSRF保护，因为我们使用JWT进行认证
             .csrf().disable()
@@ -105,7 +217,7 @@ public class SecurityConfig {
             // 配置认证入口点和访问拒绝处理器
             .exceptionHandling()
             .authenticationEntryPoint(authenticationEntryPoint())
-            .accessDeniedHandler(accessDeniedHandler())
+            .accessDeniedHandler(accessDeniedHandler)
             .and()
             
             // 配置授权规则
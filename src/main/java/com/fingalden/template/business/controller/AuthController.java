@@ -0,0 +1,108 @@
+package com.fingalden.template.business.controller;
+
+import com.fingalden.template.business.dto.LoginRequest;
+import com.fingalden.template.business.dto.RefreshTokenRequest;
+import com.fingalden.template.business.dto.RegisterRequest;
+import com.fingalden.template.business.service.AuthService;
+import com.fingalden.template.business.service.UserService;
+import com.fingalden.template.common.constant.HttpStatus;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.RespBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 认证接口，无需登录即可访问
+ * 各接口的性能预算（单节点，数据库与Redis同机房，BCrypt强度为默认的10）：
+ * 1. 登录：一次BCrypt校验（约60~100ms，CPU密集）+ 一次认证信息查询 + 一次Redis脚本，
+ *    p99 ≤ 150ms，吞吐约为每CPU核 10~15 次/秒
+ * 2. 注册：一次BCrypt哈希 + 常见情况下一次插入（布隆过滤器命中时多一次冲突查询），p99 ≤ 150ms，吞吐与登录相当
+ * 3. 刷新：一次Redis脚本往返 + 一次认证信息查询（命中从库或二级缓存）+ 两次HMAC签名，
+ *    不做密码校验，p99 ≤ 10ms，吞吐约为每CPU核 2000 次/秒
+ * 登录与注册的耗时主要由BCrypt决定，调整强度时预算按比例变化（强度每加1耗时翻倍）
+ */
+@RestController
+@RequestMapping("/api/user")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final UserService userService;
+    private final AuthService authService;
+
+    /**
+     * 用户名密码登录
+     * 用户名或密码错误、账户已禁用时由全局异常处理返回401
+     *
+     * @param request 登录请求
+     * @return 统一响应格式，data.token为签发的访问token和刷新token
+     */
+    @PostMapping("/login")
+    public RespBean login(@RequestBody LoginRequest request) {
+        if (!StringUtils.hasText(request.getUsername()) || !StringUtils.hasText(request.getPassword())) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "用户名和密码不能为空");
+        }
+        return RespBean.success("token", authService.login(request.getUsername().trim(), request.getPassword()));
+    }
+
+    /**
+     * 换发访问token和刷新token
+     * 每个刷新token只能使用一次；客户端并发刷新时，宽限期内重复提交刚用过的token会得到同一令牌族的有效token，
+     * 超出宽限期重复使用旧token视为泄露，该次登录签发的所有刷新token失效
+     *
+     * @param request 刷新请求
+     * @return 统一响应格式，data.token为新签发的访问token和刷新token
+     */
+    @PostMapping("/refresh-token")
+    public RespBean refreshToken(@RequestBody RefreshTokenRequest request) {
+        if (!StringUtils.hasText(request.getRefreshToken())) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "刷新token不能为空");
+        }
+        return RespBean.success("token", authService.refresh(request.getRefreshToken()));
+    }
+
+    /**
+     * 注册用户
+     * 常见情况下只执行一次插入：布隆过滤器判断用户名、邮箱、手机号都是新的时不查询数据库，由唯一索引兜底；
+     * 分片模式下总是查询所有分片检查冲突
+     *
+     * @param request 注册请求
+     * @return 统一响应格式，data.user为注册后的用户
+     */
+    @PostMapping("/register")
+    public RespBean register(@RequestBody RegisterRequest request) {
+        if (!StringUtils.hasText(request.getUsername()) || !StringUtils.hasText(request.getPassword())) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "用户名和密码不能为空");
+        }
+        String username = request.getUsername().trim();
+        String email = emptyToNull(request.getEmail());
+        String phone = emptyToNull(request.getPhone());
+        if (username.length() > UserConstant.MAX_USERNAME_LENGTH) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "用户名不能超过" + UserConstant.MAX_USERNAME_LENGTH + "个字符");
+        }
+        if (request.getPassword().getBytes(StandardCharsets.UTF_8).length > UserConstant.MAX_PASSWORD_BYTES) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "密码不能超过" + UserConstant.MAX_PASSWORD_BYTES + "个字节");
+        }
+        if (email != null && email.length() > UserConstant.MAX_EMAIL_LENGTH) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "邮箱不能超过" + UserConstant.MAX_EMAIL_LENGTH + "个字符");
+        }
+        if (phone != null && phone.length() > UserConstant.MAX_PHONE_LENGTH) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "手机号不能超过" + UserConstant.MAX_PHONE_LENGTH + "个字符");
+        }
+        try {
+            return RespBean.success("user", userService.register(username, request.getPassword(), email, phone));
+        } catch (DuplicateKeyException e) {
+            return RespBean.error(HttpStatus.DATA_DUPLICATE, e.getMessage());
+        }
+    }
+
+    private String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value.trim() : null;
+    }
+}
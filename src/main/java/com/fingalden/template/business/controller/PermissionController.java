@@ -0,0 +1,88 @@
+package com.fingalden.template.business.controller;
+
+import com.fingalden.template.business.service.PermissionService;
+import com.fingalden.template.common.constant.HttpStatus;
+import com.fingalden.template.core.utils.RespBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 权限管理接口，仅管理员可访问
+ * 业务接口通过@PreAuthorize("hasPermission(null, '权限编码')")声明所需权限
+ */
+@RestController
+@RequestMapping("/permission")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class PermissionController {
+
+    /**
+     * 权限编码最大长度，与表结构一致
+     */
+    private static final int MAX_CODE_LENGTH = 64;
+
+    private final PermissionService permissionService;
+
+    /**
+     * 查询所有权限
+     *
+     * @return 统一响应格式，data.permissions为权限列表
+     */
+    @GetMapping
+    public RespBean list() {
+        return RespBean.success("permissions", permissionService.listPermissions());
+    }
+
+    /**
+     * 新增或修改权限
+     *
+     * @param code 权限编码，如user:export
+     * @param name 权限名称
+     * @return 统一响应格式，data.permission为保存后的权限
+     */
+    @PutMapping("/{code}")
+    public RespBean save(@PathVariable String code, @RequestParam(value = "name", required = false) String name) {
+        if (!StringUtils.hasText(code) || code.length() > MAX_CODE_LENGTH) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "权限编码不能为空且不能超过" + MAX_CODE_LENGTH + "个字符");
+        }
+        return RespBean.success("permission", permissionService.savePermission(code, name));
+    }
+
+    /**
+     * 查询角色拥有的权限
+     *
+     * @param role 角色，如ROLE_ADMIN
+     * @return 统一响应格式，data.permissions为权限编码列表
+     */
+    @GetMapping("/role/{role}")
+    public RespBean rolePermissions(@PathVariable String role) {
+        return RespBean.success("permissions", permissionService.getRolePermissions(role));
+    }
+
+    /**
+     * 替换角色拥有的全部权限
+     *
+     * @param role  角色，如ROLE_ADMIN
+     * @param codes 权限编码列表
+     * @return 统一响应格式
+     */
+    @PutMapping("/role/{role}")
+    public RespBean replaceRolePermissions(@PathVariable String role, @RequestBody List<String> codes) {
+        try {
+            permissionService.replaceRolePermissions(role, codes);
+        } catch (IllegalArgumentException e) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, e.getMessage());
+        }
+        return RespBean.success();
+    }
+}
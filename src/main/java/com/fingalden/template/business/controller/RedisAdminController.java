@@ -0,0 +1,43 @@
+package com.fingalden.template.business.controller;
+
+import com.fingalden.template.core.utils.KeyspaceMemorySampler;
+import com.fingalden.template.core.utils.RespBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Redis管理接口，仅管理员可访问
+ */
+@RestController
+@RequestMapping("/admin/redis")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class RedisAdminController {
+
+    private final KeyspaceMemorySampler keyspaceMemorySampler;
+
+    /**
+     * 查询最近一次采样的各命名空间键数量和内存估算
+     *
+     * @return 统一响应格式，data.keyspaces为统计列表
+     */
+    @GetMapping("/keyspaces")
+    public RespBean keyspaces() {
+        return RespBean.success("keyspaces", keyspaceMemorySampler.getLatest());
+    }
+
+    /**
+     * 立即执行一次采样并返回结果
+     *
+     * @return 统一响应格式，data.keyspaces为统计列表
+     */
+    @PostMapping("/keyspaces/sample")
+    public RespBean sample() {
+        keyspaceMemorySampler.sample();
+        return RespBean.success("keyspaces", keyspaceMemorySampler.getLatest());
+    }
+}
@@ -0,0 +1,180 @@
+package com.fingalden.template.business.controller;
+
+import com.fingalden.template.business.dto.CursorPage;
+import com.fingalden.template.business.dto.UserProfileUpdate;
+import com.fingalden.template.business.dto.UserSummary;
+import com.fingalden.template.business.service.UserBatchLoader;
+import com.fingalden.template.business.service.UserService;
+import com.fingalden.template.common.constant.HttpStatus;
+import com.fingalden.template.core.utils.RespBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 用户查询接口
+ */
+@RestController
+@RequestMapping("/user")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserService userService;
+    private final UserBatchLoader userBatchLoader;
+
+    /**
+     * 每页最大条数，从配置文件读取
+     */
+    @Value("${user.page.max-size:100}")
+    private int maxPageSize;
+
+    /**
+     * 批量查询单次允许的最大ID数，从配置文件读取
+     */
+    @Value("${user.batch.max-ids:1000}")
+    private int maxBatchIds;
+
+    /**
+     * 搜索单次返回的最大用户数，从配置文件读取
+     */
+    @Value("${user.search.max-limit:50}")
+    private int maxSearchLimit;
+
+    /**
+     * 分页查询用户列表，仅管理员可访问
+     * 首页不传cursor，之后传入上一页返回的nextCursor；nextCursor为空表示已到最后一页
+     *
+     * @param role   角色，可选
+     * @param status 状态，可选
+     * @param cursor 上一页返回的游标，可选
+     * @param size   每页条数，超过上限时按上限处理
+     * @param total  是否返回总数（可能为缓存的近似值）
+     * @return 统一响应格式，data.page为分页结果
+     */
+    @GetMapping("/list")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RespBean list(@RequestParam(value = "role", required = false) String role,
+                         @RequestParam(value = "status", required = false) Integer status,
+                         @RequestParam(value = "cursor", required = false) String cursor,
+                         @RequestParam(value = "size", defaultValue = "20") int size,
+                         @RequestParam(value = "total", defaultValue = "false") boolean total) {
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            afterId = CursorPage.decodeCursor(cursor);
+            if (afterId == null) {
+                return RespBean.error(HttpStatus.PARAM_ERROR, "无效的游标");
+            }
+        }
+        if (size <= 0) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "每页条数必须大于0");
+        }
+        CursorPage<UserSummary> page = userService.listUsers(role, status, afterId,
+                Math.min(size, maxPageSize), total);
+        return RespBean.success("page", page);
+    }
+
+    /**
+     * 根据ID批量查询用户，仅管理员可访问
+     * 所有ID合并为分块的IN查询，已在二级缓存中的用户不查询数据库
+     *
+     * @param ids 用户ID列表，逗号分隔
+     * @return 统一响应格式，data.users为存在的用户，按传入顺序排列
+     */
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RespBean batch(@RequestParam("ids") List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "单次最多查询" + maxBatchIds + "个用户");
+        }
+        List<UserSummary> users = userBatchLoader.loadMany(ids).values().stream()
+                .map(UserSummary::of)
+                .toList();
+        return RespBean.success("users", users);
+    }
+
+    /**
+     * 按用户名、邮箱或手机号前缀搜索用户，仅管理员可访问
+     * 在内存索引中查找，不查询数据库的LIKE条件
+     *
+     * @param q     查询前缀，不区分大小写
+     * @param limit 最多返回的用户数，超过上限时按上限处理
+     * @return 统一响应格式，data.users为匹配的用户
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RespBean search(@RequestParam("q") String q,
+                           @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (q.isBlank()) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "查询内容不能为空");
+        }
+        if (limit <= 0) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "返回条数必须大于0");
+        }
+        List<UserSummary> users = userService.searchUsers(q, Math.min(limit, maxSearchLimit));
+        if (users == null) {
+            return RespBean.error(HttpStatus.SERVICE_UNAVAILABLE, "搜索索引正在加载，请稍后重试");
+        }
+        return RespBean.success("users", users);
+    }
+
+    /**
+     * 修改用户资料，管理员或用户本人可访问
+     *
+     * @param id     用户ID
+     * @param update 修改内容，为空的字段不修改
+     * @return 统一响应格式，data.user为修改后的用户
+     */
+    @PutMapping("/{id}/profile")
+    @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
+    public RespBean updateProfile(@PathVariable Long id, @RequestBody UserProfileUpdate update) {
+        return result(userService.updateProfile(id, update.getEmail(), update.getPhone()));
+    }
+
+    /**
+     * 修改用户角色，仅管理员可访问
+     *
+     * @param id   用户ID
+     * @param role 角色
+     * @return 统一响应格式，data.user为修改后的用户
+     */
+    @PutMapping("/{id}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RespBean updateRole(@PathVariable Long id, @RequestParam("role") String role) {
+        return result(userService.updateRole(id, role));
+    }
+
+    /**
+     * 修改用户状态，仅管理员可访问
+     *
+     * @param id     用户ID
+     * @param status 状态：0-禁用，1-启用
+     * @return 统一响应格式，data.user为修改后的用户
+     */
+    @PutMapping("/{id}/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RespBean updateStatus(@PathVariable Long id, @RequestParam("status") Integer status) {
+        return result(userService.updateStatus(id, status));
+    }
+
+    /**
+     * 将修改结果转换为统一响应格式
+     *
+     * @param user 修改后的用户，为空表示用户不存在
+     * @return 统一响应格式
+     */
+    private RespBean result(UserSummary user) {
+        if (user == null) {
+            return RespBean.error(HttpStatus.DATA_NOT_FOUND, HttpStatus.DATA_NOT_FOUND_MSG);
+        }
+        return RespBean.success("user", user);
+    }
+}
@@ -0,0 +1,75 @@
+package com.fingalden.template.business.controller;
+
+import com.fingalden.template.business.service.UserExportService;
+import com.fingalden.template.common.constant.DataFormat;
+import com.fingalden.template.common.constant.HttpStatus;
+import com.fingalden.template.core.utils.RespBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 用户导出接口，仅管理员可访问
+ */
+@RestController
+@RequestMapping("/user/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class UserExportController {
+
+    /**
+     * gzip压缩缓冲区大小
+     */
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final UserExportService userExportService;
+
+    /**
+     * 流式导出所有用户
+     * 数据边查询边写出，不在内存中缓存完整结果；客户端支持gzip时边写边压缩
+     *
+     * @param format         导出格式：csv或ndjson
+     * @param acceptEncoding 客户端支持的内容编码
+     * @return 导出内容，格式不支持时返回统一响应格式的错误
+     */
+    @GetMapping
+    public ResponseEntity<?> export(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        DataFormat exportFormat = DataFormat.of(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest()
+                    .body(RespBean.error(HttpStatus.PARAM_ERROR, "不支持的文件格式: " + format));
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                userExportService.export(gzipOut, exportFormat);
+                gzipOut.finish();
+            } else {
+                userExportService.export(out, exportFormat);
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + format.toLowerCase() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+}
@@ -0,0 +1,68 @@
+package com.fingalden.template.business.controller;
+
+import com.fingalden.template.business.dto.UserImportJob;
+import com.fingalden.template.business.service.UserImportService;
+import com.fingalden.template.common.constant.DataFormat;
+import com.fingalden.template.common.constant.HttpStatus;
+import com.fingalden.template.core.utils.RespBean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 用户批量导入接口，仅管理员可访问
+ */
+@RestController
+@RequestMapping("/user/import")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    /**
+     * 上传文件并提交导入任务
+     * 上传内容先流式写入临时文件，随后在后台导入，接口立即返回任务ID
+     *
+     * @param file   CSV（首行为表头）或NDJSON文件
+     * @param format 文件格式：csv或ndjson
+     * @return 统一响应格式，data.job为导入任务
+     * @throws IOException 写入临时文件失败
+     */
+    @PostMapping
+    public RespBean submit(@RequestParam("file") MultipartFile file,
+                           @RequestParam(value = "format", defaultValue = "csv") String format) throws IOException {
+        DataFormat importFormat = DataFormat.of(format);
+        if (importFormat == null) {
+            return RespBean.error(HttpStatus.PARAM_ERROR, "不支持的文件格式: " + format);
+        }
+        Path temp = Files.createTempFile("user-import-", "." + format.toLowerCase());
+        file.transferTo(temp);
+        return RespBean.success("job", userImportService.submit(temp, importFormat));
+    }
+
+    /**
+     * 查询导入任务进度
+     *
+     * @param jobId 任务ID
+     * @return 统一响应格式，data.job为导入任务
+     */
+    @GetMapping("/{jobId}")
+    public RespBean progress(@PathVariable String jobId) {
+        UserImportJob job = userImportService.getJob(jobId);
+        if (job == null) {
+            return RespBean.error(HttpStatus.DATA_NOT_FOUND, HttpStatus.DATA_NOT_FOUND_MSG);
+        }
+        return RespBean.success("job", job);
+    }
+}
@@ -0,0 +1,72 @@
+package com.fingalden.template.business.dto;
+
+import com.fingalden.template.auth.RoleAuthorities;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * 认证用户投影，只包含认证所需的字段
+ * 由UserRepository通过构造器表达式直接查询生成，不是托管实体，
+ * 不会注册到持久化上下文，也没有脏检查开销
+ */
+@Getter
+public class AuthUser implements UserDetails {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 用户ID
+     */
+    private final Long id;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 密码哈希
+     */
+    private final String password;
+
+    /**
+     * 用户角色
+     */
+    private final String role;
+
+    /**
+     * 用户状态：0-禁用，1-启用
+     */
+    private final Integer status;
+
+    public AuthUser(Long id, String username, String password, String role, Integer status) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.status = status;
+    }
+
+    /**
+     * 获取角色及其权限编码，使用按角色共享的列表，权限模型重新加载后立即反映新的权限
+     *
+     * @return 权限列表
+     */
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return RoleAuthorities.of(role);
+    }
+
+    /**
+     * 账户是否可用
+     * 根据用户状态字段判断，1表示可用
+     *
+     * @return 账户是否可用
+     */
+    @Override
+    public boolean isEnabled() {
+        return status != null && status == 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.fingalden.template.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 键集分页结果
+ * 游标是上一页最后一条记录排序键的不透明编码，客户端只需原样传回，
+ * 查询时以"排序键大于游标"定位，翻到任意深度的代价都与第一页相同
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * 本页数据
+     */
+    private List<T> items;
+
+    /**
+     * 下一页游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 总数，未请求总数时为null
+     */
+    private Long total;
+
+    /**
+     * 将排序键编码为游标
+     *
+     * @param key 排序键
+     * @return 游标
+     */
+    public static String encodeCursor(long key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(key).array());
+    }
+
+    /**
+     * 将游标解码为排序键
+     *
+     * @param cursor 游标
+     * @return 排序键，游标格式不正确时返回null
+     */
+    public static Long decodeCursor(String cursor) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                return null;
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
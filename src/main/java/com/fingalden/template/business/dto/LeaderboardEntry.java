@@ -0,0 +1,29 @@
+package com.fingalden.template.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 排行榜条目，包含成员、分数和排名
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+
+    /**
+     * 成员标识
+     */
+    private String member;
+
+    /**
+     * 分数
+     */
+    private Double score;
+
+    /**
+     * 排名，从1开始
+     */
+    private Long rank;
+}
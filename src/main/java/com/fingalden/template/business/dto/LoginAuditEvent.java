@@ -0,0 +1,49 @@
+package com.fingalden.template.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 登录审计事件，在认证线程中创建，由LoginAuditWriter异步批量写入
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAuditEvent {
+
+    /**
+     * 用户ID，登录失败或用户不存在时为空
+     */
+    private Long userId;
+
+    /**
+     * 登录时使用的用户名
+     */
+    private String username;
+
+    /**
+     * 是否登录成功
+     */
+    private boolean success;
+
+    /**
+     * 失败原因
+     */
+    private String reason;
+
+    /**
+     * 客户端IP
+     */
+    private String ip;
+
+    /**
+     * 客户端User-Agent
+     */
+    private String userAgent;
+
+    /**
+     * 登录时间（毫秒时间戳）
+     */
+    private long time;
+}
@@ -0,0 +1,20 @@
+package com.fingalden.template.business.dto;
+
+import lombok.Data;
+
+/**
+ * 用户登录请求
+ */
+@Data
+public class LoginRequest {
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 密码
+     */
+    private String password;
+}
@@ -0,0 +1,15 @@
+package com.fingalden.template.business.dto;
+
+import lombok.Data;
+
+/**
+ * 刷新token请求
+ */
+@Data
+public class RefreshTokenRequest {
+
+    /**
+     * 登录或上次刷新时签发的刷新token
+     */
+    private String refreshToken;
+}
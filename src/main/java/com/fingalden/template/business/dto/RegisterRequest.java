@@ -0,0 +1,30 @@
+package com.fingalden.template.business.dto;
+
+import lombok.Data;
+
+/**
+ * 用户注册请求
+ */
+@Data
+public class RegisterRequest {
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 密码
+     */
+    private String password;
+
+    /**
+     * 邮箱，可为空
+     */
+    private String email;
+
+    /**
+     * 手机号，可为空
+     */
+    private String phone;
+}
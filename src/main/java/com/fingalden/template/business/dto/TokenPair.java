@@ -0,0 +1,29 @@
+package com.fingalden.template.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 登录或刷新后签发的令牌
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenPair {
+
+    /**
+     * 访问token
+     */
+    private String accessToken;
+
+    /**
+     * 刷新token，每次刷新后换发，旧的不能再使用
+     */
+    private String refreshToken;
+
+    /**
+     * 访问token的有效期（毫秒）
+     */
+    private long expiresIn;
+}
@@ -0,0 +1,95 @@
+package com.fingalden.template.business.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户批量导入任务的进度和结果
+ */
+@Data
+public class UserImportJob {
+
+    /**
+     * 错误明细最多保留的条数
+     */
+    private static final int MAX_ERRORS = 100;
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * 任务ID
+     */
+    private final String jobId;
+
+    /**
+     * 任务状态
+     */
+    private volatile Status status = Status.RUNNING;
+
+    /**
+     * 已读取的行数
+     */
+    private final AtomicLong processed = new AtomicLong();
+
+    /**
+     * 成功导入的行数
+     */
+    private final AtomicLong imported = new AtomicLong();
+
+    /**
+     * 因用户名、邮箱或手机号重复而跳过的行数
+     */
+    private final AtomicLong duplicates = new AtomicLong();
+
+    /**
+     * 格式错误或写入失败的行数
+     */
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * 错误明细，最多保留MAX_ERRORS条
+     */
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * 开始时间（毫秒时间戳）
+     */
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * 结束时间（毫秒时间戳），运行中为0
+     */
+    private volatile long endTime;
+
+    /**
+     * 记录一条错误
+     *
+     * @param line    行号，从1开始
+     * @param message 错误信息
+     */
+    public void addError(long line, String message) {
+        failed.incrementAndGet();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + line + ": " + message);
+        }
+    }
+
+    /**
+     * 获取导入速率
+     *
+     * @return 每秒处理的行数
+     */
+    public long getRowsPerSecond() {
+        long elapsed = (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+        return elapsed <= 0 ? 0 : processed.get() * 1000 / elapsed;
+    }
+}
@@ -0,0 +1,41 @@
+package com.fingalden.template.business.dto;
+
+import lombok.Data;
+
+/**
+ * 批量导入的单行用户数据
+ * CSV的列名或NDJSON的字段名与属性名一致
+ */
+@Data
+public class UserImportRow {
+
+    /**
+     * 用户名，必填
+     */
+    private String username;
+
+    /**
+     * 密码，必填；以$2a$、$2b$或$2y$开头时视为已经过BCrypt哈希，直接入库
+     */
+    private String password;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 用户角色，为空时使用默认角色
+     */
+    private String role;
+
+    /**
+     * 用户状态，为空时为启用
+     */
+    private Integer status;
+}
@@ -0,0 +1,20 @@
+package com.fingalden.template.business.dto;
+
+import lombok.Data;
+
+/**
+ * 用户资料修改请求，为空的字段不修改
+ */
+@Data
+public class UserProfileUpdate {
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+}
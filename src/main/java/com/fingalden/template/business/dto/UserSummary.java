@@ -0,0 +1,67 @@
+package com.fingalden.template.business.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fingalden.template.business.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 用户列表项，用户列表查询的投影结果
+ * 不包含密码，查询时只读取这些列，不加载完整实体
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+
+    /**
+     * 用户ID
+     */
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 用户角色
+     */
+    private String role;
+
+    /**
+     * 用户状态：0-禁用，1-启用
+     */
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 由用户实体创建列表项
+     *
+     * @param user 用户实体
+     * @return 用户列表项
+     */
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(), user.getPhone(),
+                user.getRole(), user.getStatus(), user.getCreateTime());
+    }
+}
@@ -0,0 +1,73 @@
+package com.fingalden.template.business.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 登录审计实体类
+ * 记录每次登录尝试，由LoginAuditWriter通过JDBC批量写入，此处的映射用于生成表结构和查询
+ */
+@Data
+@Entity
+@Table(name = "sys_login_audit", indexes = {
+        @Index(name = "idx_login_audit_username_time", columnList = "username, create_time")
+})
+public class LoginAudit {
+
+    /**
+     * 审计记录ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 用户ID，用户不存在时为空
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * 登录时使用的用户名
+     */
+    @Column(nullable = false, length = 64)
+    private String username;
+
+    /**
+     * 是否登录成功
+     */
+    @Column(nullable = false)
+    private Boolean success;
+
+    /**
+     * 失败原因
+     */
+    @Column(length = 128)
+    private String reason;
+
+    /**
+     * 客户端IP
+     */
+    @Column(length = 64)
+    private String ip;
+
+    /**
+     * 客户端User-Agent
+     */
+    @Column(name = "user_agent", length = 255)
+    private String userAgent;
+
+    /**
+     * 登录时间
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "create_time", nullable = false)
+    private Date createTime;
+}
@@ -0,0 +1,44 @@
+package com.fingalden.template.business.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+/**
+ * 权限实体类
+ * 权限编码如user:export，在@PreAuthorize中通过hasPermission(null, 'user:export')校验；
+ * 分片模式下只存放在默认分片上
+ */
+@Data
+@Entity
+@Table(name = "sys_permission")
+public class Permission {
+
+    /**
+     * 权限编码
+     */
+    @Id
+    @Column(length = 64)
+    private String code;
+
+    /**
+     * 权限名称
+     */
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * 创建时间
+     */
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "create_time", nullable = false, updatable = false)
+    private Date createTime;
+}
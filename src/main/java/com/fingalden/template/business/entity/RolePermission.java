@@ -0,0 +1,54 @@
+package com.fingalden.template.business.entity;
+
+import com.fingalden.template.core.utils.SnowflakeId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+/**
+ * 角色权限关系实体类
+ * 启动时与权限表一起编译为每个角色的权限位图，修改后各节点自动重新加载；
+ * 分片模式下只存放在默认分片上
+ */
+@Data
+@Entity
+@Table(name = "sys_role_permission", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_role_permission", columnNames = {"role", "permission_code"})
+})
+public class RolePermission {
+
+    /**
+     * 主键ID
+     */
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    /**
+     * 角色，如ROLE_ADMIN
+     */
+    @Column(nullable = false, length = 32)
+    private String role;
+
+    /**
+     * 权限编码
+     */
+    @Column(name = "permission_code", nullable = false, length = 64)
+    private String permissionCode;
+
+    /**
+     * 创建时间
+     */
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "create_time", nullable = false, updatable = false)
+    private Date createTime;
+}
@@ -1,68 +1,124 @@
 package com.fingalden.template.business.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fingalden.template.auth.RoleAuthorities;
+import com.fingalden.template.core.utils.SnowflakeId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 
 /**
  * 用户实体类，实现了UserDetails接口，用于Spring Security认证
+ * 用户名、邮箱、手机号均建立唯一索引，对应UserRepository中按这三个字段的查询
+ * 角色、状态与ID的组合索引用于按条件的键集分页，过滤后直接按ID有序扫描，无需排序
+ * 启用二级缓存：按ID查询走实体缓存，按用户名查询走自然ID缓存，通过Hibernate更新时自动失效
+ * 使用版本号乐观锁，并发更新时后提交者失败而不是覆盖前者；更新语句只包含实际修改的列
  */
 @Data
 @EqualsAndHashCode
+@Entity
+@Table(name = "sys_user", indexes = {
+        @Index(name = "uk_user_username", columnList = "username", unique = true),
+        @Index(name = "uk_user_email", columnList = "email", unique = true),
+        @Index(name = "uk_user_phone", columnList = "phone", unique = true),
+        @Index(name = "idx_user_role_status_id", columnList = "role, status, id"),
+        @Index(name = "idx_user_role_id", columnList = "role, id"),
+        @Index(name = "idx_user_status_id", columnList = "status, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@DynamicUpdate
 public class User implements UserDetails {
     private static final long serialVersionUID = 1L;
 
     /**
      * 用户ID
      */
+    @Id
+    @SnowflakeId // 应用内生成按时间递增的ID，插入时无需访问数据库
+    @JsonSerialize(using = ToStringSerializer.class) // 雪花ID超出JavaScript安全整数范围，序列化为字符串
     private Long id;
 
     /**
      * 用户名
      */
+    @NaturalId(mutable = true)
+    @Column(nullable = false, length = 64)
     private String username;
 
     /**
      * 密码
      */
+    @Column(nullable = false, length = 100)
     private String password;
 
     /**
      * 邮箱
      */
+    @Column(length = 128)
     private String email;
 
     /**
      * 手机号
      */
+    @Column(length = 20)
     private String phone;
 
     /**
      * 用户角色
      */
+    @Column(nullable = false, length = 32)
     private String role;
 
     /**
      * 用户状态：0-禁用，1-启用
      */
+    @Column(nullable = false)
     private Integer status;
 
     /**
      * 创建时间
      */
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "create_time", nullable = false, updatable = false)
     private Date createTime;
 
     /**
      * 更新时间
      */
+    @UpdateTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "update_time", nullable = false)
     private Date updateTime;
 
+    /**
+     * 版本号，每次更新时加1，用于乐观锁
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * 获取用户权限列表
      * Spring Security需要此方法来获取用户的权限信息
@@ -71,8 +127,8 @@ public class User implements UserDetails {
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // 将用户角色转换为Spring Security的GrantedAuthority
-        return Collections.singletonList(new SimpleGrantedAuthority(role));
+        // 角色及其权限编码，使用按角色共享的列表
+        return RoleAuthorities.of(role);
     }
 
     /**
@@ -0,0 +1,46 @@
+package com.fingalden.template.business.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 联系方式目录实体类
+ * 分片模式下各分片的唯一索引只能保证邮箱和手机号在本分片内唯一，
+ * 注册时在默认分片的本表中登记邮箱和手机号，主键冲突即表示已被其他分片上的用户占用；
+ * 与用户名目录一起只存放在默认分片上
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sys_user_contact_directory")
+public class UserContactDirectory {
+
+    /**
+     * 邮箱键前缀
+     */
+    public static final String EMAIL_PREFIX = "email:";
+
+    /**
+     * 手机号键前缀
+     */
+    public static final String PHONE_PREFIX = "phone:";
+
+    /**
+     * 联系方式，格式为类型前缀加值，邮箱统一为小写
+     */
+    @Id
+    @Column(length = 140)
+    private String contact;
+
+    /**
+     * 用户ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
@@ -0,0 +1,35 @@
+package com.fingalden.template.business.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户名目录实体类
+ * 分片模式下用户按ID分布在多个库中，按用户名查询时先通过目录找到用户ID，再到对应分片查询；
+ * 目录只存放在默认分片上，用户名主键同时保证了用户名在所有分片间唯一
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sys_user_directory")
+public class UserDirectory {
+
+    /**
+     * 用户名
+     */
+    @Id
+    @Column(length = 64)
+    private String username;
+
+    /**
+     * 用户ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
@@ -0,0 +1,61 @@
+package com.fingalden.template.business.entity;
+
+import com.fingalden.template.common.constant.UserChangeType;
+import com.fingalden.template.core.utils.SnowflakeId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+/**
+ * 用户变更事件发件箱实体类
+ * 与用户数据在同一事务中写入，提交后由UserOutboxRelay批量发布到Redis Stream并删除；
+ * 分片模式下事件写入用户所在的分片。ID按时间递增，中继按ID顺序读取
+ */
+@Data
+@Entity
+@Table(name = "sys_user_outbox")
+public class UserOutboxEvent {
+
+    /**
+     * 事件ID
+     */
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    /**
+     * 用户ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * 事件类型
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private UserChangeType eventType;
+
+    /**
+     * 变更后的用户数据（JSON，不含密码）
+     */
+    @Column(nullable = false, length = 2048)
+    private String payload;
+
+    /**
+     * 创建时间
+     */
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "create_time", nullable = false, updatable = false)
+    private Date createTime;
+}
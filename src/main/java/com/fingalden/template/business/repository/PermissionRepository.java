@@ -0,0 +1,12 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.business.entity.Permission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 权限数据访问接口
+ */
+@Repository
+public interface PermissionRepository extends JpaRepository<Permission, String> {
+}
@@ -0,0 +1,35 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.business.entity.RolePermission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 角色权限关系数据访问接口
+ */
+@Repository
+public interface RolePermissionRepository extends JpaRepository<RolePermission, Long> {
+
+    /**
+     * 查询角色的所有权限关系
+     *
+     * @param role 角色
+     * @return 权限关系列表
+     */
+    List<RolePermission> findByRole(String role);
+
+    /**
+     * 删除角色的所有权限关系
+     *
+     * @param role 角色
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("delete from RolePermission rp where rp.role = :role")
+    int deleteByRole(@Param("role") String role);
+}
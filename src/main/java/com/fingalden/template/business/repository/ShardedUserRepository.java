@@ -0,0 +1,635 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.dto.UserSummary;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.entity.UserContactDirectory;
+import com.fingalden.template.business.entity.UserDirectory;
+import com.fingalden.template.business.service.UserBloomFilters;
+import com.fingalden.template.business.service.UserOutbox;
+import com.fingalden.template.common.constant.UserChangeType;
+import com.fingalden.template.core.utils.KeyNamespace;
+import com.fingalden.template.core.utils.KeyspaceRegistry;
+import com.fingalden.template.core.utils.ShardContext;
+import com.fingalden.template.core.utils.SnowflakeIdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 分片用户数据访问组件
+ * 业务代码通过它访问用户数据，未配置分片时直接委托给UserRepository；配置分片后：
+ * 1. 按ID操作时根据ID计算分片，在该分片上开启新事务执行
+ * 2. 按用户名操作时先通过默认分片上的用户名目录（带Redis缓存）找到ID，再路由到对应分片
+ * 3. 用户名、邮箱和手机号在写入分片前先登记到默认分片上的目录表，保证它们在所有分片间唯一
+ * 4. 列表、计数等无法确定分片的查询并行发往所有分片，再归并结果；导出逐个分片流式读取
+ * 5. 批量导入绕过save直接写入各分片，通过addDirectories批量登记
+ * 写操作在同一事务中向发件箱追加用户变更事件，分片模式下事件写入用户所在的分片；
+ * 保存成功后把用户名、邮箱、手机号加入本节点的布隆过滤器。
+ * 标注为@Repository，持久化异常统一转换为Spring的DataAccessException
+ */
+@Repository
+public class ShardedUserRepository {
+
+    /**
+     * 用户名目录缓存键前缀
+     */
+    private static final String DIRECTORY_KEY_PREFIX = "user:dir:";
+
+    private final UserRepository userRepository;
+    private final UserDirectoryRepository userDirectoryRepository;
+    private final UserContactDirectoryRepository userContactDirectoryRepository;
+    private final UserOutbox userOutbox;
+    private final UserBloomFilters userBloomFilters;
+    private final Executor shardQueryExecutor;
+
+    /**
+     * 事务模板，加入调用方已有的事务，用于未分片时的写操作
+     */
+    private final TransactionTemplate requiredTemplate;
+
+    /**
+     * 只读事务模板，总是开启新事务，使连接从当前分片获取
+     */
+    private final TransactionTemplate readTemplate;
+
+    /**
+     * 读写事务模板，总是开启新事务，使连接从当前分片获取
+     */
+    private final TransactionTemplate writeTemplate;
+
+    /**
+     * 用户名到用户ID的缓存
+     */
+    private final KeyNamespace<Long> directoryCache;
+
+    /**
+     * 分片数，未配置分片时为1
+     */
+    private final int shardCount;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 构造函数注入依赖，并注册用户名目录缓存的键空间
+     *
+     * @param userRepository          用户数据访问接口
+     * @param userDirectoryRepository 用户名目录数据访问接口
+     * @param userContactDirectoryRepository 联系方式目录数据访问接口
+     * @param userOutbox              用户变更事件发件箱
+     * @param userBloomFilters        用户唯一字段布隆过滤器
+     * @param transactionManager      事务管理器
+     * @param shardQueryExecutor      分片查询线程池
+     * @param keyspaceRegistry        键空间注册表
+     * @param shardUrls               分片1及之后各分片的JDBC地址
+     * @param directoryTtl            用户名目录缓存过期时间（秒）
+     */
+    @Autowired
+    public ShardedUserRepository(UserRepository userRepository, UserDirectoryRepository userDirectoryRepository,
+                                 UserContactDirectoryRepository userContactDirectoryRepository,
+                                 UserOutbox userOutbox, UserBloomFilters userBloomFilters,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("shardQueryExecutor") Executor shardQueryExecutor,
+                                 KeyspaceRegistry keyspaceRegistry,
+                                 @Value("${sharding.urls:}") List<String> shardUrls,
+                                 @Value("${sharding.directory-ttl:86400}") long directoryTtl) {
+        this.userRepository = userRepository;
+        this.userDirectoryRepository = userDirectoryRepository;
+        this.userContactDirectoryRepository = userContactDirectoryRepository;
+        this.userOutbox = userOutbox;
+        this.userBloomFilters = userBloomFilters;
+        this.shardQueryExecutor = shardQueryExecutor;
+        this.shardCount = shardUrls.size() + 1;
+        this.requiredTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.directoryCache = keyspaceRegistry.register("user-directory", DIRECTORY_KEY_PREFIX, directoryTtl,
+                TimeUnit.SECONDS, 0.1, new GenericToStringSerializer<>(Long.class));
+    }
+
+    /**
+     * 是否启用了分片
+     *
+     * @return 是否启用了分片
+     */
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * 获取分片数
+     *
+     * @return 分片数，未配置分片时为1
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * 计算用户ID所在的分片
+     *
+     * @param id 用户ID
+     * @return 分片编号
+     */
+    public int shardOf(long id) {
+        return ShardContext.shardOf(id, shardCount);
+    }
+
+    // ============================== 按键路由 ==============================
+
+    /**
+     * 根据ID查询用户
+     *
+     * @param id 用户ID
+     * @return 用户对象，如果不存在则返回null
+     */
+    public User findById(Long id) {
+        if (!isSharded()) {
+            return userRepository.findById(id).orElse(null);
+        }
+        return onShard(shardOf(id), readTemplate, () -> userRepository.findById(id).orElse(null));
+    }
+
+    /**
+     * 根据用户名查询用户
+     *
+     * @param username 用户名
+     * @return 用户对象，如果不存在则返回null
+     */
+    public User findByUsername(String username) {
+        if (!isSharded()) {
+            return userRepository.findByUsername(username);
+        }
+        Long id = resolveId(username);
+        return id == null ? null : findById(id);
+    }
+
+    /**
+     * 根据用户名查询认证信息
+     *
+     * @param username 用户名
+     * @return 认证用户投影，如果不存在则返回null
+     */
+    public AuthUser findAuthByUsername(String username) {
+        if (!isSharded()) {
+            return userRepository.findAuthByUsername(username);
+        }
+        Long id = resolveId(username);
+        return id == null ? null
+                : onShard(shardOf(id), readTemplate, () -> userRepository.findAuthByUsername(username));
+    }
+
+    /**
+     * 保存用户
+     * 分片模式下新用户先在目录中登记用户名、邮箱和手机号（任一重复时在此失败），再写入ID所在的分片，
+     * 写入失败时撤销目录登记；修改这些字段时先登记新值，更新成功后再删除旧值，失败时撤销新值。
+     * 用户数据与变更事件在同一事务中写入
+     *
+     * @param user 用户对象
+     * @return 保存后的用户对象
+     */
+    public User save(User user) {
+        User saved = doSave(user);
+        userBloomFilters.add(saved.getUsername(), saved.getEmail(), saved.getPhone());
+        return saved;
+    }
+
+    /**
+     * 保存用户，按是否分片选择写入方式
+     *
+     * @param user 用户对象
+     * @return 保存后的用户对象
+     */
+    private User doSave(User user) {
+        if (!isSharded()) {
+            UserChangeType type = user.getId() == null ? UserChangeType.CREATED : UserChangeType.UPDATED;
+            return requiredTemplate.execute(status -> {
+                User saved = userRepository.save(user);
+                userOutbox.record(saved, type);
+                return saved;
+            });
+        }
+        if (user.getId() == null) {
+            long id = SnowflakeIdGenerator.getInstance().nextId();
+            List<String> contacts = contactsOf(user);
+            addDirectory(user.getUsername(), contacts, id);
+            try {
+                user.setId(id);
+                return onShard(shardOf(id), writeTemplate, () -> {
+                    entityManager.persist(user);
+                    userOutbox.record(user, UserChangeType.CREATED);
+                    return user;
+                });
+            } catch (RuntimeException e) {
+                user.setId(null);
+                removeDirectory(user.getUsername(), contacts);
+                throw e;
+            }
+        }
+
+        User existing = findById(user.getId());
+        String oldUsername = null;
+        String newUsername = null;
+        List<String> oldContacts = List.of();
+        List<String> newContacts = List.of();
+        if (existing != null) {
+            if (!existing.getUsername().equals(user.getUsername())) {
+                oldUsername = existing.getUsername();
+                newUsername = user.getUsername();
+            }
+            oldContacts = new ArrayList<>(contactsOf(existing));
+            newContacts = new ArrayList<>(contactsOf(user));
+            oldContacts.removeAll(contactsOf(user));
+            newContacts.removeAll(contactsOf(existing));
+        }
+        if (newUsername != null || !newContacts.isEmpty()) {
+            addDirectory(newUsername, newContacts, user.getId());
+        }
+        User saved;
+        try {
+            // 通过Spring Data保存，版本冲突会被转换为OptimisticLockingFailureException
+            saved = onShard(shardOf(user.getId()), writeTemplate, () -> {
+                User updated = userRepository.save(user);
+                userOutbox.record(updated, UserChangeType.UPDATED);
+                return updated;
+            });
+        } catch (RuntimeException e) {
+            if (newUsername != null || !newContacts.isEmpty()) {
+                removeDirectory(newUsername, newContacts);
+            }
+            throw e;
+        }
+        if (oldUsername != null || !oldContacts.isEmpty()) {
+            removeDirectory(oldUsername, oldContacts);
+        }
+        return saved;
+    }
+
+    /**
+     * 根据ID删除用户，同时删除其用户名和联系方式的目录登记
+     *
+     * @param id 用户ID
+     */
+    public void deleteById(Long id) {
+        if (!isSharded()) {
+            requiredTemplate.executeWithoutResult(status -> delete(id));
+            return;
+        }
+        User user = onShard(shardOf(id), writeTemplate, () -> delete(id));
+        if (user != null) {
+            removeDirectory(user.getUsername(), contactsOf(user));
+        }
+    }
+
+    /**
+     * 在当前事务中删除用户并追加删除事件
+     *
+     * @param id 用户ID
+     * @return 被删除的用户，不存在时返回null
+     */
+    private User delete(Long id) {
+        User user = userRepository.findById(id).orElse(null);
+        if (user != null) {
+            userRepository.delete(user);
+            userOutbox.record(user, UserChangeType.DELETED);
+        }
+        return user;
+    }
+
+    // ============================== 跨分片查询 ==============================
+
+    /**
+     * 查询用户名、邮箱或手机号与给定值相同的用户
+     * 分片模式下邮箱和手机号可能位于任一分片，各分片并行查询；
+     * 这只是提前给出友好的提示，并发注册时的唯一性由save中的目录登记保证
+     *
+     * @param username 用户名
+     * @param email    邮箱
+     * @param phone    手机号
+     * @return 冲突的用户
+     */
+    public List<UserSummary> findConflicts(String username, String email, String phone) {
+        if (!isSharded()) {
+            return userRepository.findConflicts(username, email, phone);
+        }
+        List<UserSummary> conflicts = new ArrayList<>();
+        for (List<UserSummary> part : gather(allShards(),
+                shard -> onShard(shard, readTemplate, () -> userRepository.findConflicts(username, email, phone)))) {
+            conflicts.addAll(part);
+        }
+        return conflicts;
+    }
+
+    /**
+     * 根据ID批量查询用户
+     * 分片模式下ID按分片分组，各分片并行查询
+     *
+     * @param ids       用户ID集合
+     * @param batchSize 每条IN查询包含的最大ID数
+     * @return 存在的用户，不保证顺序
+     */
+    public List<User> findAllByIds(Collection<Long> ids, int batchSize) {
+        if (!isSharded()) {
+            return userRepository.findAllByIds(ids, batchSize);
+        }
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(shardOf(id), key -> new ArrayList<>()).add(id);
+        }
+        List<Integer> shards = new ArrayList<>(idsByShard.keySet());
+        List<User> users = new ArrayList<>(ids.size());
+        for (List<User> part : gather(shards,
+                shard -> onShard(shard, readTemplate, () -> userRepository.findAllByIds(idsByShard.get(shard), batchSize)))) {
+            users.addAll(part);
+        }
+        return users;
+    }
+
+    /**
+     * 按ID键集分页查询用户列表
+     * 分片模式下每个分片各取limit条，归并后按ID排序取前limit条；
+     * 每个分片的查询仍然沿索引定位，深分页的代价与第一页相同
+     *
+     * @param role    角色，为空时不过滤
+     * @param status  状态，为空时不过滤
+     * @param afterId 上一页最后一条记录的ID，为空时从第一条开始
+     * @param limit   最多返回的条数
+     * @return 按ID升序排列的用户列表项
+     */
+    public List<UserSummary> findPageAfter(String role, Integer status, Long afterId, int limit) {
+        if (!isSharded()) {
+            return userRepository.findPageAfter(role, status, afterId, limit);
+        }
+        List<UserSummary> merged = new ArrayList<>();
+        for (List<UserSummary> part : gather(allShards(),
+                shard -> onShard(shard, readTemplate, () -> userRepository.findPageAfter(role, status, afterId, limit)))) {
+            merged.addAll(part);
+        }
+        merged.sort(Comparator.comparing(UserSummary::getId));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * 按条件统计用户数，分片模式下各分片并行统计后求和
+     *
+     * @param role   角色，为空时不过滤
+     * @param status 状态，为空时不过滤
+     * @return 用户数
+     */
+    public long countByFilter(String role, Integer status) {
+        if (!isSharded()) {
+            return userRepository.countByFilter(role, status);
+        }
+        long total = 0;
+        for (Long count : gather(allShards(),
+                shard -> onShard(shard, readTemplate, () -> userRepository.countByFilter(role, status)))) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * 在指定分片的只读事务中按ID顺序流式读取该分片的所有用户
+     * 用户流只在action执行期间有效；未配置分片时只有分片0，即全部用户
+     *
+     * @param shard  分片编号
+     * @param action 处理用户流的操作
+     * @param <T>    返回值类型
+     * @return 操作的返回值
+     */
+    public <T> T streamAll(int shard, Function<Stream<User>, T> action) {
+        return onShard(shard, readTemplate, () -> {
+            try (Stream<User> users = userRepository.streamAll()) {
+                return action.apply(users);
+            }
+        });
+    }
+
+    // ============================== 目录 ==============================
+
+    /**
+     * 批量登记用户名、邮箱和手机号，用于绕过save直接写入分片的批量导入
+     * 先在一个事务中批量写入，有冲突时退化为逐个用户登记
+     *
+     * @param users 待登记的用户，需已分配ID
+     * @return 因用户名、邮箱或手机号已被占用而未登记的用户ID
+     */
+    public Set<Long> addDirectories(Collection<User> users) {
+        try {
+            onShard(ShardContext.DEFAULT_SHARD, writeTemplate, () -> {
+                for (User user : users) {
+                    persistDirectory(user.getUsername(), contactsOf(user), user.getId());
+                }
+                return null;
+            });
+            return Set.of();
+        } catch (DataIntegrityViolationException e) {
+            Set<Long> rejected = new HashSet<>();
+            for (User user : users) {
+                try {
+                    addDirectory(user.getUsername(), contactsOf(user), user.getId());
+                } catch (DataIntegrityViolationException conflict) {
+                    rejected.add(user.getId());
+                }
+            }
+            return rejected;
+        }
+    }
+
+    /**
+     * 批量删除用户名、邮箱和手机号的登记及用户名缓存，用于撤销写入分片失败的用户
+     *
+     * @param users 已登记的用户
+     */
+    public void removeDirectories(Collection<User> users) {
+        List<String> usernames = new ArrayList<>(users.size());
+        List<String> contacts = new ArrayList<>();
+        for (User user : users) {
+            usernames.add(user.getUsername());
+            contacts.addAll(contactsOf(user));
+        }
+        onShard(ShardContext.DEFAULT_SHARD, writeTemplate, () -> {
+            userDirectoryRepository.deleteAllByIdInBatch(usernames);
+            if (!contacts.isEmpty()) {
+                userContactDirectoryRepository.deleteAllByIdInBatch(contacts);
+            }
+            return null;
+        });
+        for (String username : usernames) {
+            directoryCache.delete(username);
+        }
+    }
+
+    /**
+     * 根据用户名查找用户ID，先查Redis缓存，未命中时查目录表并回填缓存
+     *
+     * @param username 用户名
+     * @return 用户ID，用户名不存在时返回null
+     */
+    private Long resolveId(String username) {
+        Long cached = directoryCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserDirectory entry = onShard(ShardContext.DEFAULT_SHARD, readTemplate,
+                () -> userDirectoryRepository.findById(username).orElse(null));
+        if (entry == null) {
+            return null;
+        }
+        directoryCache.set(username, entry.getUserId());
+        return entry.getUserId();
+    }
+
+    /**
+     * 在一个事务中登记用户名和联系方式，任一已被占用时全部回滚并抛出数据完整性异常
+     *
+     * @param username 用户名，为空时不登记
+     * @param contacts 联系方式目录键
+     * @param id       用户ID
+     */
+    private void addDirectory(String username, Collection<String> contacts, Long id) {
+        onShard(ShardContext.DEFAULT_SHARD, writeTemplate, () -> {
+            persistDirectory(username, contacts, id);
+            return null;
+        });
+    }
+
+    /**
+     * 在当前事务中写入用户名和联系方式的目录记录
+     *
+     * @param username 用户名，为空时不登记
+     * @param contacts 联系方式目录键
+     * @param id       用户ID
+     */
+    private void persistDirectory(String username, Collection<String> contacts, Long id) {
+        if (username != null) {
+            entityManager.persist(new UserDirectory(username, id));
+        }
+        for (String contact : contacts) {
+            entityManager.persist(new UserContactDirectory(contact, id));
+        }
+    }
+
+    /**
+     * 删除用户名和联系方式的登记及用户名缓存
+     *
+     * @param username 用户名，为空时不删除
+     * @param contacts 联系方式目录键
+     */
+    private void removeDirectory(String username, Collection<String> contacts) {
+        onShard(ShardContext.DEFAULT_SHARD, writeTemplate, () -> {
+            if (username != null) {
+                userDirectoryRepository.deleteById(username);
+            }
+            if (!contacts.isEmpty()) {
+                userContactDirectoryRepository.deleteAllByIdInBatch(contacts);
+            }
+            return null;
+        });
+        if (username != null) {
+            directoryCache.delete(username);
+        }
+    }
+
+    /**
+     * 计算用户邮箱和手机号的目录键，邮箱按不区分大小写处理，与唯一索引的判断一致
+     *
+     * @param user 用户
+     * @return 目录键，未设置邮箱和手机号时为空列表
+     */
+    private List<String> contactsOf(User user) {
+        List<String> contacts = new ArrayList<>(2);
+        if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+            contacts.add(UserContactDirectory.EMAIL_PREFIX + user.getEmail().toLowerCase(Locale.ROOT));
+        }
+        if (user.getPhone() != null && !user.getPhone().isEmpty()) {
+            contacts.add(UserContactDirectory.PHONE_PREFIX + user.getPhone());
+        }
+        return contacts;
+    }
+
+    // ============================== 分片执行 ==============================
+
+    /**
+     * 在指定分片上开启新事务执行操作
+     *
+     * @param shard    分片编号
+     * @param template 事务模板
+     * @param action   操作
+     * @param <T>      返回值类型
+     * @return 操作的返回值
+     */
+    private <T> T onShard(int shard, TransactionTemplate template, Supplier<T> action) {
+        return ShardContext.call(shard, () -> template.execute(status -> action.get()));
+    }
+
+    /**
+     * 并行在多个分片上执行查询并收集结果
+     *
+     * @param shards 分片编号列表
+     * @param query  查询，参数为分片编号
+     * @param <T>    结果类型
+     * @return 各分片的结果，顺序与分片编号列表一致
+     */
+    private <T> List<T> gather(List<Integer> shards, IntFunction<T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (Integer shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), shardQueryExecutor));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * 获取所有分片编号
+     *
+     * @return 分片编号列表
+     */
+    private List<Integer> allShards() {
+        List<Integer> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(i);
+        }
+        return shards;
+    }
+}
@@ -0,0 +1,12 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.business.entity.UserContactDirectory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 联系方式目录数据访问接口
+ */
+@Repository
+public interface UserContactDirectoryRepository extends JpaRepository<UserContactDirectory, String> {
+}
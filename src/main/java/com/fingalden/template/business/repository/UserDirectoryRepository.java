@@ -0,0 +1,12 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.business.entity.UserDirectory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 用户名目录数据访问接口
+ */
+@Repository
+public interface UserDirectoryRepository extends JpaRepository<UserDirectory, String> {
+}
@@ -1,19 +1,31 @@
 package com.fingalden.template.business.repository;
 
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.dto.UserSummary;
 import com.fingalden.template.business.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 用户数据访问接口，用于数据库操作
  * 继承JpaRepository，提供基本的CRUD操作
+ * 继承UserRepositoryCustom，由UserRepositoryImpl提供需要直接使用Hibernate API的查询
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     /**
      * 根据用户名查询用户
-     * Spring Data JPA会根据方法名自动生成SQL查询
+     * 由UserRepositoryImpl通过自然ID加载实现，命中二级缓存时不执行SQL
      *
      * @param username 用户名
      * @return 用户对象，如果不存在则返回null
@@ -35,4 +47,49 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return 用户对象，如果不存在则返回null
      */
     User findByPhone(String phone);
+
+    /**
+     * 查询用户名、邮箱或手机号与给定值相同的用户，一条查询同时检查三个唯一字段
+     * 三个条件各自命中唯一索引，MySQL以索引合并方式执行；为空的参数不会匹配任何行
+     *
+     * @param username 用户名
+     * @param email    邮箱
+     * @param phone    手机号
+     * @return 冲突的用户，最多三个
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.fingalden.template.business.dto.UserSummary(u.id, u.username, u.email, u.phone, u.role, u.status, u.createTime) "
+            + "from User u where u.username = :username or u.email = :email or u.phone = :phone")
+    List<UserSummary> findConflicts(@Param("username") String username, @Param("email") String email,
+                                    @Param("phone") String phone);
+
+    /**
+     * 根据用户名查询认证信息
+     * 只查询认证所需的id、用户名、密码、角色和状态，
+     * 结果通过构造器表达式生成，不加载完整实体，也不注册到持久化上下文；
+     * 声明的查询方法默认不是只读事务，显式标注后配置了只读副本时从副本查询
+     *
+     * @param username 用户名
+     * @return 认证用户投影，如果不存在则返回null
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.fingalden.template.business.dto.AuthUser(u.id, u.username, u.password, u.role, u.status) "
+            + "from User u where u.username = :username")
+    AuthUser findAuthByUsername(@Param("username") String username);
+
+    /**
+     * 按ID顺序流式查询所有用户
+     * 使用只进游标并指定每次从服务器获取的行数（MySQL需开启useCursorFetch），结果集不会一次性加载到内存；
+     * 实体以只读方式加载且不写入二级缓存，避免导出时挤占热点用户的缓存。
+     * 必须在事务中调用并在使用后关闭Stream，调用方应定期清空持久化上下文
+     *
+     * @return 用户流
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAll();
 }
\ No newline at end of file
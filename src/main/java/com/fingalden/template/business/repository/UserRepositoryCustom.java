@@ -0,0 +1,51 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.business.dto.UserSummary;
+import com.fingalden.template.business.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户数据访问自定义接口
+ * 声明无法通过方法名派生、需要直接使用Hibernate API实现的查询
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * 根据用户名查询用户
+     *
+     * @param username 用户名
+     * @return 用户对象，如果不存在则返回null
+     */
+    User findByUsername(String username);
+
+    /**
+     * 按ID键集分页查询用户列表
+     *
+     * @param role    角色，为空时不过滤
+     * @param status  状态，为空时不过滤
+     * @param afterId 上一页最后一条记录的ID，为空时从第一条开始
+     * @param limit   最多返回的条数
+     * @return 按ID升序排列的用户列表项
+     */
+    List<UserSummary> findPageAfter(String role, Integer status, Long afterId, int limit);
+
+    /**
+     * 按条件统计用户数
+     *
+     * @param role   角色，为空时不过滤
+     * @param status 状态，为空时不过滤
+     * @return 用户数
+     */
+    long countByFilter(String role, Integer status);
+
+    /**
+     * 根据ID批量查询用户
+     *
+     * @param ids       用户ID集合
+     * @param batchSize 每条IN查询包含的最大ID数
+     * @return 存在的用户，不保证顺序
+     */
+    List<User> findAllByIds(Collection<Long> ids, int batchSize);
+}
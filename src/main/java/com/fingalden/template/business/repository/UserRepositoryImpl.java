@@ -0,0 +1,134 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.business.dto.UserSummary;
+import com.fingalden.template.business.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户数据访问自定义实现类
+ * 类名需为UserRepository加Impl后缀，Spring Data会自动将其组合到UserRepository中
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 根据用户名查询用户
+     * 使用自然ID加载代替派生查询：先查自然ID缓存得到主键，再查实体缓存，
+     * 两级缓存都命中时不执行SQL；派生查询生成的JPQL不会使用二级缓存
+     *
+     * @param username 用户名
+     * @return 用户对象，如果不存在则返回null
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public User findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .load(username);
+    }
+
+    /**
+     * 按ID键集分页查询用户列表
+     * 以"id > 上一页最后ID"代替OFFSET定位，配合role/status与id的组合索引，
+     * 数据库沿索引直接定位到起点并顺序读取limit条，不扫描也不丢弃前面的行；
+     * 只为实际传入的条件生成谓词，避免"参数为空或相等"的写法导致索引失效
+     *
+     * @param role    角色，为空时不过滤
+     * @param status  状态，为空时不过滤
+     * @param afterId 上一页最后一条记录的ID，为空时从第一条开始
+     * @param limit   最多返回的条数
+     * @return 按ID升序排列的用户列表项
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummary> findPageAfter(String role, Integer status, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        Root<User> user = query.from(User.class);
+        List<Predicate> predicates = buildPredicates(cb, user, role, status);
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(user.get("id"), afterId));
+        }
+        query.select(cb.construct(UserSummary.class,
+                        user.get("id"), user.get("username"), user.get("email"), user.get("phone"),
+                        user.get("role"), user.get("status"), user.get("createTime")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(user.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 按条件统计用户数
+     *
+     * @param role   角色，为空时不过滤
+     * @param status 状态，为空时不过滤
+     * @return 用户数
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long countByFilter(String role, Integer status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.count(user))
+                .where(buildPredicates(cb, user, role, status).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * 根据ID批量查询用户
+     * 使用Hibernate的多ID加载：先从持久化上下文和二级缓存中取出已缓存的用户，
+     * 只对未命中的ID按batchSize分块执行WHERE id IN (...)查询，查询结果同时写入二级缓存
+     *
+     * @param ids       用户ID集合
+     * @param batchSize 每条IN查询包含的最大ID数
+     * @return 存在的用户，不保证顺序
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAllByIds(Collection<Long> ids, int batchSize) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(User.class)
+                .withBatchSize(batchSize)
+                .enableOrderedReturn(false)
+                .multiLoad(new ArrayList<>(ids));
+    }
+
+    /**
+     * 构建角色、状态过滤条件
+     *
+     * @param cb     条件构建器
+     * @param user   查询根
+     * @param role   角色，为空时不过滤
+     * @param status 状态，为空时不过滤
+     * @return 过滤条件列表
+     */
+    private List<Predicate> buildPredicates(CriteriaBuilder cb, Root<User> user, String role, Integer status) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (role != null) {
+            predicates.add(cb.equal(user.get("role"), role));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(user.get("status"), status));
+        }
+        return predicates;
+    }
+}
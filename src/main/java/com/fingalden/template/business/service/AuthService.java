@@ -0,0 +1,28 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.dto.TokenPair;
+
+/**
+ * 认证服务接口
+ */
+public interface AuthService {
+
+    /**
+     * 用户名密码登录，成功后签发访问token和新令牌族的刷新token
+     *
+     * @param username 用户名
+     * @param password 明文密码
+     * @return 签发的令牌
+     * @throws org.springframework.security.core.AuthenticationException 用户名或密码错误、账户已禁用
+     */
+    TokenPair login(String username, String password);
+
+    /**
+     * 使用刷新token换发新的访问token和刷新token
+     *
+     * @param refreshToken 刷新token
+     * @return 签发的令牌
+     * @throws org.springframework.security.core.AuthenticationException 刷新token无效、已过期或已被撤销
+     */
+    TokenPair refresh(String refreshToken);
+}
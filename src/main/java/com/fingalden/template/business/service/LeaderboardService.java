@@ -0,0 +1,55 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.dto.LeaderboardEntry;
+import com.fingalden.template.common.constant.LeaderboardPeriod;
+
+import java.util.List;
+
+/**
+ * 排行榜服务接口
+ * 基于Redis有序集合实现，支持总榜、日榜和周榜
+ */
+public interface LeaderboardService {
+
+    /**
+     * 增加成员分数，同时累加到总榜、日榜和周榜
+     * 分数先在本地聚合，再由后台任务批量刷写到Redis
+     *
+     * @param board  榜单名称
+     * @param member 成员标识
+     * @param delta  分数增量
+     */
+    void incrementScore(String board, String member, double delta);
+
+    /**
+     * 获取成员排名
+     *
+     * @param board  榜单名称
+     * @param period 榜单周期
+     * @param member 成员标识
+     * @return 排行榜条目，成员不在榜单中时返回null
+     */
+    LeaderboardEntry getRank(String board, LeaderboardPeriod period, String member);
+
+    /**
+     * 获取成员附近的排名窗口
+     *
+     * @param board  榜单名称
+     * @param period 榜单周期
+     * @param member 成员标识
+     * @param radius 前后各取的条目数
+     * @return 排行榜条目列表，成员不在榜单中时返回空列表
+     */
+    List<LeaderboardEntry> getAroundMe(String board, LeaderboardPeriod period, String member, int radius);
+
+    /**
+     * 获取前N名及分数
+     * N不超过快照大小时直接读取本地快照，不访问Redis
+     *
+     * @param board  榜单名称
+     * @param period 榜单周期
+     * @param n      条目数
+     * @return 排行榜条目列表
+     */
+    List<LeaderboardEntry> getTopN(String board, LeaderboardPeriod period, int n);
+}
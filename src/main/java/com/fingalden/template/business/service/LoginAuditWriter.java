@@ -0,0 +1,335 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.dto.LoginAuditEvent;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.ShardContext;
+import com.fingalden.template.core.utils.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录审计异步写入器
+ * 认证线程只把事件放入有界环形队列，后台线程按批大小或时间间隔批量写入：
+ * 1. 审计记录以JDBC批量插入，用户的最后登录时间（User.updateTime）按用户合并后批量更新
+ * 2. 队列积压超过阈值时降级为抽样：登录失败事件按比例保留，登录成功事件不抽样；队列满时丢弃
+ * 3. 应用关闭时停止接收并写完队列中剩余的事件
+ * 4. 批量插入失败时逐条重试，只丢弃本身无法写入的事件
+ * 队列深度、丢弃数等通过Micrometer指标暴露
+ */
+@Component
+public class LoginAuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAuditWriter.class);
+
+    /**
+     * 审计记录插入语句
+     */
+    private static final String INSERT_SQL = "insert into " + UserConstant.LOGIN_AUDIT_TABLE_NAME
+            + " (id, user_id, username, success, reason, ip, user_agent, create_time) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 最后登录时间更新语句，只向后更新
+     */
+    private static final String UPDATE_LAST_LOGIN_SQL = "update " + UserConstant.TABLE_NAME
+            + " set update_time = ? where id = ? and update_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardedUserRepository shardedUserRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 事务模板，使批量插入整体成功或失败，逐条重试时不会重复写入
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 事件队列
+     */
+    private final BlockingQueue<LoginAuditEvent> queue;
+
+    /**
+     * 开始抽样的队列深度
+     */
+    private final int sampleThreshold;
+
+    /**
+     * 抽样时登录失败事件的保留比例
+     */
+    private final double sampleRate;
+
+    /**
+     * 每批写入的最大事件数，从配置文件读取
+     */
+    @Value("${login-audit.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 最长写入间隔（毫秒），从配置文件读取
+     */
+    @Value("${login-audit.flush-interval:1000}")
+    private long flushInterval;
+
+    private final Counter writtenCounter;
+    private final Counter sampledOutCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    /**
+     * 后台写入线程
+     */
+    private Thread worker;
+
+    /**
+     * 是否继续接收事件
+     */
+    private volatile boolean running;
+
+    /**
+     * 构造函数注入依赖，创建队列并注册指标
+     *
+     * @param jdbcTemplate          JDBC模板
+     * @param shardedUserRepository 分片用户数据访问组件
+     * @param entityManagerFactory  JPA实体管理器工厂，用于失效二级缓存
+     * @param transactionManager    事务管理器
+     * @param meterRegistry         指标注册表
+     * @param capacity              队列容量
+     * @param sampleThreshold       开始抽样的队列使用比例
+     * @param sampleRate            抽样时登录失败事件的保留比例
+     */
+    @Autowired
+    public LoginAuditWriter(JdbcTemplate jdbcTemplate, ShardedUserRepository shardedUserRepository,
+                            EntityManagerFactory entityManagerFactory,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${login-audit.capacity:10000}") int capacity,
+                            @Value("${login-audit.sample-threshold:0.8}") double sampleThreshold,
+                            @Value("${login-audit.sample-rate:0.1}") double sampleRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardedUserRepository = shardedUserRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sampleThreshold = (int) (capacity * sampleThreshold);
+        this.sampleRate = sampleRate;
+
+        Gauge.builder("login.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Login audit events waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("login.audit.events")
+                .tag("result", "written")
+                .description("Login audit events by outcome")
+                .register(meterRegistry);
+        this.sampledOutCounter = Counter.builder("login.audit.events")
+                .tag("result", "sampled_out")
+                .description("Login audit events by outcome")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("login.audit.events")
+                .tag("result", "dropped")
+                .description("Login audit events by outcome")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("login.audit.events")
+                .tag("result", "failed")
+                .description("Login audit events by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动后台写入线程
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "login-audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 应用关闭时停止接收事件，等待后台线程写完队列中剩余的事件
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            logger.warn("Login audit writer stopped with {} events unwritten", queue.size());
+        }
+    }
+
+    /**
+     * 记录一次登录尝试，不阻塞调用线程
+     *
+     * @param event 登录审计事件
+     */
+    public void record(LoginAuditEvent event) {
+        if (!running) {
+            droppedCounter.increment();
+            return;
+        }
+        if (!event.isSuccess() && queue.size() >= sampleThreshold
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOutCounter.increment();
+            return;
+        }
+        if (!queue.offer(event)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * 后台线程主循环，攒够一批或距本批第一个事件超过写入间隔时写入
+     * 停止接收后继续运行，直到队列为空
+     */
+    private void run() {
+        List<LoginAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LoginAuditEvent first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushInterval;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    LoginAuditEvent next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                write(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 写入一批事件，失败时记录日志，不影响后续写入
+     *
+     * @param batch 事件列表
+     */
+    private void write(List<LoginAuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> auditArgs = new ArrayList<>(batch.size());
+        Map<Long, Long> lastLogins = new HashMap<>();
+        try {
+            for (LoginAuditEvent event : batch) {
+                auditArgs.add(new Object[]{
+                        SnowflakeIdGenerator.getInstance().nextId(),
+                        event.getUserId(),
+                        event.getUsername(),
+                        event.isSuccess(),
+                        event.getReason(),
+                        event.getIp(),
+                        event.getUserAgent(),
+                        new Timestamp(event.getTime())
+                });
+                if (event.isSuccess() && event.getUserId() != null) {
+                    lastLogins.merge(event.getUserId(), event.getTime(), Math::max);
+                }
+            }
+        } catch (RuntimeException e) {
+            // 未获得节点ID时无法生成ID，整批丢弃
+            failedCounter.increment(batch.size());
+            logger.warn("Failed to write {} login audit events: {}", batch.size(), e.getMessage());
+            return;
+        }
+        insertAudits(auditArgs);
+        try {
+            updateLastLogins(lastLogins);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to update last login time of {} users: {}", lastLogins.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 批量插入审计记录，失败时逐条插入，只丢弃本身无法写入的记录
+     *
+     * @param auditArgs 插入参数
+     */
+    private void insertAudits(List<Object[]> auditArgs) {
+        try {
+            ShardContext.call(ShardContext.DEFAULT_SHARD,
+                    () -> transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_SQL, auditArgs)));
+            writtenCounter.increment(auditArgs.size());
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to batch insert {} login audit events, retrying one by one: {}",
+                    auditArgs.size(), e.getMessage());
+        }
+        int failed = 0;
+        for (Object[] args : auditArgs) {
+            try {
+                ShardContext.call(ShardContext.DEFAULT_SHARD, () -> jdbcTemplate.update(INSERT_SQL, args));
+                writtenCounter.increment();
+            } catch (RuntimeException e) {
+                failed++;
+                failedCounter.increment();
+            }
+        }
+        if (failed > 0) {
+            logger.warn("Dropped {} of {} login audit events", failed, auditArgs.size());
+        }
+    }
+
+    /**
+     * 按分片批量更新用户的最后登录时间，并失效这些用户的二级缓存
+     *
+     * @param lastLogins 用户ID到最后登录时间的映射
+     */
+    private void updateLastLogins(Map<Long, Long> lastLogins) {
+        if (lastLogins.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Object[]>> argsByShard = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : lastLogins.entrySet()) {
+            Timestamp time = new Timestamp(entry.getValue());
+            argsByShard.computeIfAbsent(shardedUserRepository.shardOf(entry.getKey()), key -> new ArrayList<>())
+                    .add(new Object[]{time, entry.getKey(), time});
+        }
+        for (Map.Entry<Integer, List<Object[]>> entry : argsByShard.entrySet()) {
+            ShardContext.call(entry.getKey(), () -> jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, entry.getValue()));
+        }
+        for (Long userId : lastLogins.keySet()) {
+            entityManagerFactory.getCache().evict(User.class, userId);
+        }
+    }
+}
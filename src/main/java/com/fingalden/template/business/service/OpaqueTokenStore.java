@@ -0,0 +1,295 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.common.exception.MyException;
+import com.fingalden.template.core.utils.KeyspaceRegistry;
+import com.fingalden.template.core.utils.RedisUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不透明访问令牌存储
+ * 令牌是128位随机数（22个字符），Redis中只保存精简的会话记录"用户ID:角色:用户名"：
+ * 1. 查询先读本地近端缓存，未命中才读Redis；认证时不查询数据库，也不做签名计算
+ * 2. 会话按空闲时间滑动过期；使用时不逐次续期，距上次续期超过续期间隔才记入待续期集合，由定时任务以管道方式批量续期
+ * 3. 撤销会话或修改用户角色、状态时删除Redis中的会话；其他节点的近端缓存最多在缓存有效期内继续认可该令牌
+ * 4. 创建会话时从用户会话索引中移除已过期的令牌，撤销单个会话时同时移除其索引，索引不会随登录次数无限增长
+ * 会话与索引的维护由Lua脚本原子完成，脚本内拼接会话键，要求Redis为单机或主从部署
+ * <p>
+ * 与JWT模式相比：请求头中的令牌从约200字节降到22字节；近端缓存命中时认证只是一次本地哈希查找，
+ * 未命中时为一次Redis GET，而JWT模式每次请求都要做HMAC校验并按用户名查询认证信息
+ */
+@Component
+public class OpaqueTokenStore {
+
+    /**
+     * 会话键前缀
+     */
+    private static final String SESSION_KEY_PREFIX = "auth:session:";
+
+    /**
+     * 用户会话索引键前缀，用于撤销某个用户的所有会话
+     */
+    private static final String USER_SESSIONS_KEY_PREFIX = "auth:user-sessions:";
+
+    /**
+     * 索引脚本：移除索引中会话已过期的令牌，加入新令牌并续期索引
+     * 集合元素经JSON序列化带有引号，拼接会话键时去掉首尾引号
+     */
+    private static final RedisScript<Long> INDEX_SCRIPT = new DefaultRedisScript<>(
+            "for _, t in ipairs(redis.call('smembers', KEYS[1])) do "
+                    + "if redis.call('exists', '" + SESSION_KEY_PREFIX + "' .. string.sub(t, 2, -2)) == 0 then "
+                    + "redis.call('srem', KEYS[1], t) end end "
+                    + "redis.call('sadd', KEYS[1], ARGV[1]) "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2])", Long.class);
+
+    /**
+     * 撤销脚本：删除会话，并从会话记录"用户ID:角色:用户名"中取出用户ID，移除该用户索引中的令牌
+     */
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>(
+            "local record = redis.call('get', KEYS[1]) "
+                    + "if not record then return 0 end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "local uid = string.match(record, '^\"?(%d+):') "
+                    + "if uid then redis.call('srem', '" + USER_SESSIONS_KEY_PREFIX + "' .. uid, ARGV[1]) end "
+                    + "return 1", Long.class);
+
+    /**
+     * 撤销用户脚本：删除索引中所有令牌的会话和索引本身，返回被撤销的令牌
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REVOKE_USER_SCRIPT = new DefaultRedisScript<>(
+            "local tokens = redis.call('smembers', KEYS[1]) "
+                    + "for _, t in ipairs(tokens) do "
+                    + "redis.call('del', '" + SESSION_KEY_PREFIX + "' .. string.sub(t, 2, -2)) end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "return tokens", List.class);
+
+    private final RedisUtils redisUtils;
+
+    /**
+     * 本地近端缓存，键为令牌
+     */
+    private final Cache<String, Session> nearCache;
+
+    /**
+     * 待续期的令牌及其用户ID
+     */
+    private final Map<String, Long> pendingTouches = new ConcurrentHashMap<>();
+
+    /**
+     * 会话空闲过期时间（毫秒）
+     */
+    private final long idleTimeout;
+
+    /**
+     * 是否使用不透明令牌，使用JWT时不存在会话，撤销用户时无需访问Redis
+     */
+    private final boolean enabled;
+
+    /**
+     * 续期间隔（毫秒），从配置文件读取
+     */
+    @Value("${auth.opaque.touch-interval:60000}")
+    private long touchInterval;
+
+    /**
+     * 构造函数注入依赖，创建近端缓存并注册缓存指标和键空间
+     *
+     * @param redisUtils       Redis工具类
+     * @param keyspaceRegistry 键空间注册表
+     * @param meterRegistry    指标注册表
+     * @param idleTimeout      会话空闲过期时间（毫秒）
+     * @param nearCacheTtl     近端缓存有效期（毫秒）
+     * @param nearCacheSize    近端缓存最大条目数
+     * @param tokenMode        访问令牌类型
+     */
+    @Autowired
+    public OpaqueTokenStore(RedisUtils redisUtils, KeyspaceRegistry keyspaceRegistry, MeterRegistry meterRegistry,
+                            @Value("${auth.opaque.idle-timeout:1800000}") long idleTimeout,
+                            @Value("${auth.opaque.near-cache-ttl:5000}") long nearCacheTtl,
+                            @Value("${auth.opaque.near-cache-size:100000}") long nearCacheSize,
+                            @Value("${auth.token-mode:jwt}") String tokenMode) {
+        this.redisUtils = redisUtils;
+        this.idleTimeout = idleTimeout;
+        this.enabled = "opaque".equalsIgnoreCase(tokenMode);
+        this.nearCache = Caffeine.newBuilder()
+                .expireAfterWrite(nearCacheTtl, TimeUnit.MILLISECONDS)
+                .maximumSize(nearCacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "auth.session.near-cache");
+        keyspaceRegistry.register("session", SESSION_KEY_PREFIX, idleTimeout, TimeUnit.MILLISECONDS, 0);
+        keyspaceRegistry.register("user-sessions", USER_SESSIONS_KEY_PREFIX, idleTimeout, TimeUnit.MILLISECONDS, 0);
+    }
+
+    /**
+     * 获取会话空闲过期时间
+     *
+     * @return 过期时间（毫秒）
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * 为用户创建会话
+     *
+     * @param user 认证用户
+     * @return 不透明令牌，Redis不可用时返回null
+     */
+    public String create(AuthUser user) {
+        String token = RefreshTokenStore.newId();
+        String record = user.getId() + ":" + user.getRole() + ":" + user.getUsername();
+        if (!redisUtils.set(SESSION_KEY_PREFIX + token, record, idleTimeout, TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        redisUtils.execute(INDEX_SCRIPT, List.of(USER_SESSIONS_KEY_PREFIX + user.getId()), token, idleTimeout);
+        nearCache.put(token, new Session(Session.of(user.getId(), user.getUsername(), user.getRole()),
+                System.currentTimeMillis()));
+        return token;
+    }
+
+    /**
+     * 根据令牌查询会话，并在需要时记入待续期集合
+     *
+     * @param token 不透明令牌
+     * @return 认证用户，令牌无效或已过期时返回null
+     */
+    public AuthUser lookup(String token) {
+        Session session = nearCache.getIfPresent(token);
+        if (session == null) {
+            Object record = redisUtils.get(SESSION_KEY_PREFIX + token);
+            if (record == null) {
+                return null;
+            }
+            session = Session.parse(record.toString());
+            if (session == null) {
+                return null;
+            }
+            // 从Redis读到的会话无法得知上次续期时间，按需要续期处理
+            pendingTouches.put(token, session.user().getId());
+            nearCache.put(token, session);
+        } else if (System.currentTimeMillis() - session.touchedAt() >= touchInterval) {
+            pendingTouches.put(token, session.user().getId());
+            nearCache.put(token, session.touched());
+        }
+        return session.user();
+    }
+
+    /**
+     * 撤销会话
+     *
+     * @param token 不透明令牌
+     */
+    public void revoke(String token) {
+        nearCache.invalidate(token);
+        redisUtils.execute(REVOKE_SCRIPT, List.of(SESSION_KEY_PREFIX + token), token);
+    }
+
+    /**
+     * 撤销用户的所有会话，用户角色、状态变化时调用
+     *
+     * @param userId 用户ID
+     * @throws MyException Redis不可用，会话未能撤销
+     */
+    public void revokeUser(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        List<?> tokens = redisUtils.execute(REVOKE_USER_SCRIPT, List.of(USER_SESSIONS_KEY_PREFIX + userId));
+        if (tokens == null) {
+            // 会话仍然有效，不能静默忽略；用户修改是幂等的，调用方重试即可再次撤销
+            throw new MyException("用户会话撤销失败，请稍后重试");
+        }
+        for (Object token : tokens) {
+            nearCache.invalidate(token.toString());
+        }
+    }
+
+    /**
+     * 定时以管道方式批量续期会话
+     */
+    @Scheduled(fixedDelayString = "${auth.opaque.touch-flush-interval:1000}")
+    public void flushTouches() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        Map<String, Long> touches = new HashMap<>();
+        for (String token : pendingTouches.keySet()) {
+            Long userId = pendingTouches.remove(token);
+            if (userId != null) {
+                touches.put(token, userId);
+            }
+        }
+        redisUtils.executePipelined(operations -> {
+            for (Map.Entry<String, Long> entry : touches.entrySet()) {
+                operations.expire(SESSION_KEY_PREFIX + entry.getKey(), idleTimeout, TimeUnit.MILLISECONDS);
+            }
+            for (Long userId : new HashSet<>(touches.values())) {
+                operations.expire(USER_SESSIONS_KEY_PREFIX + userId, idleTimeout, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * 近端缓存中的会话
+     *
+     * @param user      认证用户
+     * @param touchedAt 上次续期时间
+     */
+    private record Session(AuthUser user, long touchedAt) {
+
+        /**
+         * 解析Redis中的会话记录
+         *
+         * @param record 会话记录"用户ID:角色:用户名"
+         * @return 会话，格式错误时返回null
+         */
+        static Session parse(String record) {
+            int first = record.indexOf(':');
+            int second = first < 0 ? -1 : record.indexOf(':', first + 1);
+            if (second < 0) {
+                return null;
+            }
+            try {
+                return new Session(of(Long.parseLong(record.substring(0, first)), record.substring(second + 1),
+                        record.substring(first + 1, second)), System.currentTimeMillis());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * 由会话信息创建认证用户，会话存在即表示用户处于启用状态
+         *
+         * @param userId   用户ID
+         * @param username 用户名
+         * @param role     角色
+         * @return 认证用户
+         */
+        static AuthUser of(Long userId, String username, String role) {
+            return new AuthUser(userId, username, null, role, UserConstant.STATUS_ENABLED);
+        }
+
+        Session touched() {
+            return new Session(user, System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.entity.Permission;
+
+import java.util.List;
+
+/**
+ * 权限管理服务接口
+ * 修改后本节点立即重新编译权限模型，其他节点在下次定时检查时生效
+ */
+public interface PermissionService {
+
+    /**
+     * 查询所有权限
+     *
+     * @return 权限列表，按编码排序
+     */
+    List<Permission> listPermissions();
+
+    /**
+     * 新增或修改权限
+     *
+     * @param code 权限编码
+     * @param name 权限名称
+     * @return 保存后的权限
+     */
+    Permission savePermission(String code, String name);
+
+    /**
+     * 查询角色拥有的权限编码
+     *
+     * @param role 角色
+     * @return 权限编码列表，按编码排序
+     */
+    List<String> getRolePermissions(String role);
+
+    /**
+     * 替换角色拥有的全部权限
+     *
+     * @param role  角色
+     * @param codes 权限编码列表，为空表示清空
+     * @throws IllegalArgumentException 有权限编码不存在
+     */
+    void replaceRolePermissions(String role, List<String> codes);
+}
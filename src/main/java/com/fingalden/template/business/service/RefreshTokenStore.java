@@ -0,0 +1,145 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.core.utils.KeyspaceRegistry;
+import com.fingalden.template.core.utils.RedisUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 刷新令牌存储
+ * 每次登录创建一个令牌族，Redis中以哈希保存该族当前有效的tokenId（cur）、上一个tokenId（prev）和轮换时间（at）。
+ * 刷新时由一个Lua脚本在一次往返中完成校验和轮换：
+ * 1. 提交的是当前tokenId：换成新tokenId，旧的记为prev，并延长有效期
+ * 2. 提交的是刚被轮换掉的prev且在宽限期内：视为客户端并发刷新，返回当前tokenId，不再轮换
+ * 3. 其他情况视为旧token被重复使用（可能已泄露），删除整个令牌族，该次登录的所有刷新token失效
+ */
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    /**
+     * 令牌族键前缀
+     */
+    private static final String KEY_PREFIX = "auth:refresh:";
+
+    /**
+     * 创建脚本：写入当前tokenId和创建时间并设置过期时间
+     */
+    private static final RedisScript<Long> CREATE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('hset', KEYS[1], 'cur', ARGV[1], 'at', ARGV[2]) "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[3])", Long.class);
+
+    /**
+     * 轮换脚本，返回 {状态, 当前tokenId}，状态：1-已轮换，2-宽限期内的并发刷新，0-令牌族不存在，-1-重复使用已撤销
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local cur = redis.call('hget', KEYS[1], 'cur') "
+                    + "if not cur then return {0} end "
+                    + "if cur == ARGV[1] then "
+                    + "redis.call('hset', KEYS[1], 'cur', ARGV[2], 'prev', ARGV[1], 'at', ARGV[3]) "
+                    + "redis.call('pexpire', KEYS[1], ARGV[5]) "
+                    + "return {1, ARGV[2]} end "
+                    + "if redis.call('hget', KEYS[1], 'prev') == ARGV[1] "
+                    + "and tonumber(ARGV[3]) - tonumber(redis.call('hget', KEYS[1], 'at')) <= tonumber(ARGV[4]) then "
+                    + "return {2, cur} end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "return {-1}", List.class);
+
+    /**
+     * 生成随机ID的随机数源
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RedisUtils redisUtils;
+
+    /**
+     * 令牌族有效期（毫秒），与刷新token有效期一致
+     */
+    private final long ttl;
+
+    /**
+     * 并发刷新的宽限期（毫秒），从配置文件读取
+     */
+    @Value("${jwt.refresh-grace:10000}")
+    private long grace;
+
+    /**
+     * 构造函数注入依赖，并注册令牌族的键空间用于内存统计
+     *
+     * @param redisUtils       Redis工具类
+     * @param keyspaceRegistry 键空间注册表
+     * @param ttl              令牌族有效期（毫秒）
+     */
+    @Autowired
+    public RefreshTokenStore(RedisUtils redisUtils, KeyspaceRegistry keyspaceRegistry,
+                             @Value("${jwt.refresh-expire:2592000000}") long ttl) {
+        this.redisUtils = redisUtils;
+        this.ttl = ttl;
+        keyspaceRegistry.register("refresh-token", KEY_PREFIX, ttl, TimeUnit.MILLISECONDS, 0);
+    }
+
+    /**
+     * 生成128位随机ID
+     *
+     * @return URL安全的Base64字符串
+     */
+    public static String newId() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 创建令牌族
+     *
+     * @param familyId 令牌族ID
+     * @param tokenId  第一个tokenId
+     * @return 是否创建成功，Redis不可用时返回false
+     */
+    public boolean create(String familyId, String tokenId) {
+        Long result = redisUtils.execute(CREATE_SCRIPT, List.of(KEY_PREFIX + familyId), tokenId,
+                System.currentTimeMillis(), ttl);
+        return result != null && result > 0;
+    }
+
+    /**
+     * 校验并轮换刷新token
+     *
+     * @param familyId 令牌族ID
+     * @param tokenId  提交的tokenId
+     * @return 新的刷新token应携带的tokenId；令牌族不存在、token已被重复使用或Redis不可用时返回null
+     */
+    public String rotate(String familyId, String tokenId) {
+        List<?> result = redisUtils.execute(ROTATE_SCRIPT, List.of(KEY_PREFIX + familyId), tokenId, newId(),
+                System.currentTimeMillis(), grace, ttl);
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        long status = ((Number) result.get(0)).longValue();
+        if (status == -1) {
+            logger.warn("Refresh token reuse detected, revoked token family {}", familyId);
+        }
+        return status > 0 ? String.valueOf(result.get(1)) : null;
+    }
+
+    /**
+     * 撤销令牌族
+     *
+     * @param familyId 令牌族ID
+     */
+    public void revoke(String familyId) {
+        redisUtils.delete(KEY_PREFIX + familyId);
+    }
+}
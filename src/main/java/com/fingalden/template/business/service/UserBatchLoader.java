@@ -0,0 +1,141 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 请求级用户批量加载器
+ * 代替在循环中逐个调用findById：loadMany把传入的ID登记后立即合并为分块的IN查询一次性解析。
+ * 同一请求内重复的ID只查询一次，结果在请求结束前复用；只能在Web请求线程中使用。
+ * load和dispatch只在包内使用，避免调用方登记ID后忘记dispatch导致Future永远不完成
+ */
+@Component
+@RequestScope
+public class UserBatchLoader {
+
+    private final ShardedUserRepository userRepository;
+
+    /**
+     * 每条IN查询包含的最大ID数，从配置文件读取
+     */
+    @Value("${user.batch.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 本次请求中已登记的ID及其结果，用户不存在时结果为null
+     */
+    private final Map<Long, CompletableFuture<User>> futures = new HashMap<>();
+
+    /**
+     * 已登记但尚未查询的ID
+     */
+    private final Set<Long> pending = new LinkedHashSet<>();
+
+    /**
+     * 构造函数注入ShardedUserRepository
+     *
+     * @param userRepository 分片用户数据访问组件
+     */
+    @Autowired
+    public UserBatchLoader(ShardedUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * 登记一个用户ID，返回的Future在下一次dispatch后完成，调用方必须随后调用dispatch
+     *
+     * @param id 用户ID
+     * @return 用户Future，用户不存在时结果为null
+     */
+    synchronized CompletableFuture<User> load(Long id) {
+        return futures.computeIfAbsent(id, key -> {
+            pending.add(key);
+            return new CompletableFuture<>();
+        });
+    }
+
+    /**
+     * 批量查询用户，登记后立即dispatch
+     *
+     * @param ids 用户ID集合
+     * @return 用户ID到用户的映射，按传入顺序排列，不包含不存在的用户
+     */
+    public Map<Long, User> loadMany(Collection<Long> ids) {
+        List<CompletableFuture<User>> loaded = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            loaded.add(load(id));
+        }
+        dispatch();
+        Map<Long, User> result = new LinkedHashMap<>();
+        for (CompletableFuture<User> future : loaded) {
+            User user = future.join();
+            if (user != null) {
+                result.putIfAbsent(user.getId(), user);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 解析所有已登记但尚未查询的ID
+     * 查询失败时对应的Future以异常完成
+     */
+    void dispatch() {
+        List<Long> ids;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ids = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        Map<Long, User> users = new HashMap<>();
+        try {
+            for (User user : userRepository.findAllByIds(ids, chunkSize)) {
+                users.put(user.getId(), user);
+            }
+        } catch (RuntimeException e) {
+            complete(ids, null, e);
+            throw e;
+        }
+        complete(ids, users, null);
+    }
+
+    /**
+     * 完成一批ID对应的Future
+     *
+     * @param ids   用户ID列表
+     * @param users 查询结果，失败时为null
+     * @param error 查询异常，成功时为null
+     */
+    private void complete(List<Long> ids, Map<Long, User> users, Throwable error) {
+        List<CompletableFuture<User>> targets = new ArrayList<>(ids.size());
+        synchronized (this) {
+            for (Long id : ids) {
+                targets.add(futures.get(id));
+            }
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (error != null) {
+                targets.get(i).completeExceptionally(error);
+            } else {
+                targets.get(i).complete(users.get(ids.get(i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.BloomFilter;
+import com.fingalden.template.core.utils.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户名、邮箱、手机号的布隆过滤器（每个节点各自一份）
+ * 注册时三个值都判断为一定不存在就跳过存在性查询，直接插入，由唯一索引做最终保证：
+ * 1. 启动后从各分片加载已有的值，之后本节点写入的用户在保存成功后加入
+ * 2. 其他节点新写入的值在下次定时重建前不在本节点的过滤器中，这期间的重复注册由唯一索引拦截
+ * 3. 过滤器不支持删除，删除或修改后的旧值会继续判断为可能存在，只多一次查询；定时重建时清除
+ * 值统一转为小写，与唯一索引不区分大小写的比较一致
+ */
+@Component
+public class UserBloomFilters {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBloomFilters.class);
+
+    /**
+     * 加载已有值的查询语句
+     */
+    private static final String LOAD_SQL = "select username, email, phone from " + UserConstant.TABLE_NAME;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor userIndexExecutor;
+
+    /**
+     * 只读事务模板，总是开启新事务，使加载查询路由到当前分片的从库
+     */
+    private final TransactionTemplate readTemplate;
+
+    /**
+     * 分片数，未配置分片时为1
+     */
+    private final int shardCount;
+
+    /**
+     * 是否启用布隆过滤器，从配置文件读取
+     */
+    @Value("${user.bloom.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 每个过滤器的预期元素数，从配置文件读取
+     */
+    @Value("${user.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    /**
+     * 期望的误判率，从配置文件读取
+     */
+    @Value("${user.bloom.fpp:0.01}")
+    private double fpp;
+
+    /**
+     * 当前使用的过滤器，加载完成前为null，此时所有值都视为可能存在
+     */
+    private volatile Filters filters;
+
+    /**
+     * 正在重建的过滤器，重建期间新写入的值同时加入
+     */
+    private volatile Filters building;
+
+    /**
+     * 是否正在重建
+     */
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    private final Counter negativeCounter;
+    private final Counter positiveCounter;
+
+    /**
+     * 构造函数注入依赖，并注册指标
+     *
+     * @param jdbcTemplate       JDBC模板
+     * @param transactionManager 事务管理器
+     * @param userIndexExecutor  内存索引加载线程池
+     * @param meterRegistry      指标注册表
+     * @param shardUrls          分片1及之后各分片的JDBC地址
+     * @param fetchSize          加载时每次从数据库获取的行数
+     */
+    @Autowired
+    public UserBloomFilters(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            @Qualifier("userIndexExecutor") Executor userIndexExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${sharding.urls:}") List<String> shardUrls,
+                            @Value("${user.bloom.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.userIndexExecutor = userIndexExecutor;
+        this.shardCount = shardUrls.size() + 1;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+
+        Gauge.builder("user.bloom.bytes", this, bloom -> {
+                    Filters current = bloom.filters;
+                    return current == null ? 0 : current.sizeInBytes();
+                })
+                .description("Heap used by the user uniqueness Bloom filters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.negativeCounter = Counter.builder("user.bloom.checks")
+                .tag("result", "negative")
+                .description("Registration pre-checks by Bloom filter outcome")
+                .register(meterRegistry);
+        this.positiveCounter = Counter.builder("user.bloom.checks")
+                .tag("result", "positive")
+                .description("Registration pre-checks by Bloom filter outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 判断用户名、邮箱、手机号中是否有值可能已存在
+     *
+     * @param username 用户名
+     * @param email    邮箱，可为空
+     * @param phone    手机号，可为空
+     * @return false表示三个值一定都不存在；过滤器未加载完成时总是返回true
+     */
+    public boolean mightExist(String username, String email, String phone) {
+        Filters current = filters;
+        boolean result = current == null
+                || current.usernames.mightContain(normalize(username))
+                || current.emails.mightContain(normalize(email))
+                || current.phones.mightContain(normalize(phone));
+        (result ? positiveCounter : negativeCounter).increment();
+        return result;
+    }
+
+    /**
+     * 加入新写入用户的用户名、邮箱、手机号
+     *
+     * @param username 用户名
+     * @param email    邮箱，可为空
+     * @param phone    手机号，可为空
+     */
+    public void add(String username, String email, String phone) {
+        Filters current = filters;
+        if (current != null) {
+            current.put(username, email, phone);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.put(username, email, phone);
+        }
+    }
+
+    /**
+     * 应用启动完成后在后台加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            userIndexExecutor.execute(this::reload);
+        }
+    }
+
+    /**
+     * 定时重建，清除已删除或已修改的旧值，并加入其他节点写入的值
+     */
+    @Scheduled(cron = "${user.bloom.rebuild-cron:0 30 4 * * *}")
+    public void scheduledReload() {
+        if (enabled && filters != null) {
+            userIndexExecutor.execute(this::reload);
+        }
+    }
+
+    /**
+     * 从所有分片加载已有的值，重建过滤器
+     */
+    public void reload() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Filters next = new Filters(expectedInsertions, fpp);
+            building = next;
+            for (int shard = 0; shard < shardCount; shard++) {
+                ShardContext.call(shard, () -> readTemplate.execute(status -> {
+                    jdbcTemplate.query(LOAD_SQL, rs -> {
+                        next.put(rs.getString("username"), rs.getString("email"), rs.getString("phone"));
+                    });
+                    return null;
+                }));
+            }
+            filters = next;
+            logger.info("User Bloom filters loaded: {} bytes in {} ms",
+                    next.sizeInBytes(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load user Bloom filters: {}", e.getMessage());
+        } finally {
+            building = null;
+            loading.set(false);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 一组过滤器
+     *
+     * @param usernames 用户名
+     * @param emails    邮箱
+     * @param phones    手机号
+     */
+    private record Filters(BloomFilter usernames, BloomFilter emails, BloomFilter phones) {
+
+        Filters(long expectedInsertions, double fpp) {
+            this(new BloomFilter(expectedInsertions, fpp), new BloomFilter(expectedInsertions, fpp),
+                    new BloomFilter(expectedInsertions, fpp));
+        }
+
+        void put(String username, String email, String phone) {
+            usernames.put(normalize(username));
+            emails.put(normalize(email));
+            phones.put(normalize(phone));
+        }
+
+        long sizeInBytes() {
+            return usernames.sizeInBytes() + emails.sizeInBytes() + phones.sizeInBytes();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.common.constant.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 用户导出服务接口
+ */
+public interface UserExportService {
+
+    /**
+     * 将所有用户流式写入输出流，不包含密码
+     * 内存占用与用户总数无关
+     *
+     * @param out    输出流，方法返回时已刷新但不关闭
+     * @param format 数据格式
+     * @return 导出的用户数
+     * @throws IOException 写入失败
+     */
+    long export(OutputStream out, DataFormat format) throws IOException;
+}
@@ -0,0 +1,30 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.dto.UserImportJob;
+import com.fingalden.template.common.constant.DataFormat;
+
+import java.nio.file.Path;
+
+/**
+ * 用户批量导入服务接口
+ */
+public interface UserImportService {
+
+    /**
+     * 提交导入任务，在后台线程中流式读取文件并分块写入数据库
+     * 任务结束后删除文件
+     *
+     * @param file   待导入的文件
+     * @param format 文件格式
+     * @return 导入任务，可通过getJob查询进度
+     */
+    UserImportJob submit(Path file, DataFormat format);
+
+    /**
+     * 查询导入任务
+     *
+     * @param jobId 任务ID
+     * @return 导入任务，不存在时返回null
+     */
+    UserImportJob getJob(String jobId);
+}
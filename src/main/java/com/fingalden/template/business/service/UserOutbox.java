@@ -0,0 +1,109 @@
+package com.fingalden.template.business.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.entity.UserOutboxEvent;
+import com.fingalden.template.common.constant.UserChangeType;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.common.exception.MyException;
+import com.fingalden.template.core.utils.SnowflakeIdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 用户变更事件发件箱
+ * 在写用户数据的同一事务中追加一条事件，事务提交则事件必然存在，回滚则一起撤销；
+ * 请求线程只多一条INSERT，发布到Redis由UserOutboxRelay异步完成
+ */
+@Component
+public class UserOutbox {
+
+    /**
+     * 事件插入语句，供绕过JPA批量写入用户的场景使用
+     */
+    public static final String INSERT_SQL = "insert into " + UserConstant.OUTBOX_TABLE_NAME
+            + " (id, user_id, event_type, payload, create_time) values (?, ?, ?, ?, ?)";
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 构造函数注入ObjectMapper
+     *
+     * @param objectMapper JSON序列化工具
+     */
+    @Autowired
+    public UserOutbox(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 追加用户变更事件，必须在写用户数据的事务中调用
+     *
+     * @param user 变更后的用户，删除时为删除前的用户
+     * @param type 事件类型
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(User user, UserChangeType type) {
+        // 先刷写用户的变更，使事件中的版本号与提交后的一致
+        entityManager.flush();
+        UserOutboxEvent event = new UserOutboxEvent();
+        event.setUserId(user.getId());
+        event.setEventType(type);
+        event.setPayload(toPayload(user));
+        entityManager.persist(event);
+    }
+
+    /**
+     * 生成一条事件的插入参数，对应INSERT_SQL
+     * 用于通过JDBC批量写入用户的场景，必须与用户在同一事务中插入
+     *
+     * @param user       变更后的用户
+     * @param type       事件类型
+     * @param createTime 创建时间
+     * @return 插入参数
+     */
+    public Object[] insertArgs(User user, UserChangeType type, Timestamp createTime) {
+        return new Object[]{
+                SnowflakeIdGenerator.getInstance().nextId(),
+                user.getId(),
+                type.name(),
+                toPayload(user),
+                createTime
+        };
+    }
+
+    /**
+     * 将用户序列化为事件内容，不包含密码
+     * 包含版本号，消费者可据此丢弃乱序到达的旧事件
+     *
+     * @param user 用户
+     * @return JSON字符串
+     */
+    private String toPayload(User user) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", String.valueOf(user.getId()));
+        payload.put("username", user.getUsername());
+        payload.put("email", user.getEmail());
+        payload.put("phone", user.getPhone());
+        payload.put("role", user.getRole());
+        payload.put("status", user.getStatus());
+        payload.put("version", user.getVersion());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new MyException("用户变更事件序列化失败", e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.KeyspaceRegistry;
+import com.fingalden.template.core.utils.RedisUtils;
+import com.fingalden.template.core.utils.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户变更事件中继
+ * 定时从发件箱按ID顺序批量读取事件，以管道方式发布到Redis Stream，发布成功后批量删除，三步在同一事务中完成：
+ * 1. 读取时使用FOR UPDATE SKIP LOCKED，多个节点同时运行时各自领取不同的事件，可水平扩展
+ * 2. 发布失败时事务回滚，事件留在发件箱中等待下次发布，保证至少一次投递
+ * 3. 多节点并行发布时同一用户的事件可能乱序到达，消费者应按事件中的版本号去重
+ */
+@Component
+public class UserOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserOutboxRelay.class);
+
+    /**
+     * 领取事件的查询语句
+     */
+    private static final String SELECT_SQL = "select id, user_id, event_type, payload from "
+            + UserConstant.OUTBOX_TABLE_NAME + " order by id limit ? for update skip locked";
+
+    /**
+     * 删除已发布事件的语句
+     */
+    private static final String DELETE_SQL = "delete from " + UserConstant.OUTBOX_TABLE_NAME + " where id in (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final RedisUtils redisUtils;
+    private final ShardedUserRepository shardedUserRepository;
+
+    /**
+     * 事务模板，总是开启新事务，使连接从当前分片获取
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 是否启用中继，从配置文件读取
+     */
+    @Value("${outbox.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 每批领取的事件数，从配置文件读取
+     */
+    @Value("${outbox.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 每次调度每个分片最多处理的批数，从配置文件读取
+     */
+    @Value("${outbox.max-batches:20}")
+    private int maxBatches;
+
+    /**
+     * 事件发布的Stream键
+     */
+    private final String streamKey;
+
+    /**
+     * Stream保留的最大事件数（近似），从配置文件读取
+     */
+    @Value("${outbox.stream-max-len:100000}")
+    private long streamMaxLen;
+
+    /**
+     * 构造函数注入依赖，并注册事件Stream的键空间用于内存统计
+     *
+     * @param jdbcTemplate               JDBC模板
+     * @param namedParameterJdbcTemplate 具名参数JDBC模板
+     * @param transactionManager         事务管理器
+     * @param redisUtils                 Redis工具类
+     * @param shardedUserRepository      分片用户数据访问组件
+     * @param keyspaceRegistry           键空间注册表
+     * @param streamKey                  事件发布的Stream键
+     */
+    @Autowired
+    public UserOutboxRelay(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                           PlatformTransactionManager transactionManager, RedisUtils redisUtils,
+                           ShardedUserRepository shardedUserRepository, KeyspaceRegistry keyspaceRegistry,
+                           @Value("${outbox.stream-key:user:events}") String streamKey) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.redisUtils = redisUtils;
+        this.shardedUserRepository = shardedUserRepository;
+        this.streamKey = streamKey;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        keyspaceRegistry.register("user-events", streamKey, 0, TimeUnit.SECONDS, 0);
+    }
+
+    /**
+     * 定时发布各分片发件箱中的事件
+     * 一批取满时说明还有积压，继续处理下一批，直到取不满或达到单次上限
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:500}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        for (int shard = 0; shard < shardedUserRepository.getShardCount(); shard++) {
+            try {
+                for (int batch = 0; batch < maxBatches; batch++) {
+                    int published = ShardContext.call(shard, () -> transactionTemplate.execute(status -> relayBatch()));
+                    if (published < batchSize) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to relay user events from shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 在当前事务中领取、发布并删除一批事件
+     *
+     * @return 发布的事件数
+     * @throws IllegalStateException 发布到Redis失败，事务回滚
+     */
+    private int relayBatch() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_SQL, batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> ids = new ArrayList<>(rows.size());
+        List<Map<String, Object>> records = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            ids.add(row.get("id"));
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("eventId", String.valueOf(row.get("id")));
+            record.put("userId", String.valueOf(row.get("user_id")));
+            record.put("type", row.get("event_type"));
+            record.put("payload", row.get("payload"));
+            records.add(record);
+        }
+
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.maxlen(streamMaxLen)
+                .approximateTrimming(true);
+        List<Object> results = redisUtils.executePipelined(operations -> {
+            for (Map<String, Object> record : records) {
+                operations.opsForStream().add(StreamRecords.newRecord().in(streamKey).ofMap(record), options);
+            }
+        });
+        if (results == null || results.size() != records.size()) {
+            throw new IllegalStateException("Failed to publish user events to " + streamKey);
+        }
+
+        namedParameterJdbcTemplate.update(DELETE_SQL, Map.of("ids", ids));
+        return rows.size();
+    }
+}
@@ -0,0 +1,577 @@
+package com.fingalden.template.business.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.common.constant.UserChangeType;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.RedisUtils;
+import com.fingalden.template.core.utils.ShardContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户前缀搜索索引
+ * 将所有用户的用户名、邮箱、手机号规范化后（小写，手机号只保留数字）放入内存中的有序数组，按前缀二分查找：
+ * 1. 基础索引为不可变快照，所有词项的UTF-8字节连续存放在一个byte数组中，另有偏移数组和用户ID数组，
+ *    每个词项约占 UTF-8长度 + 12 字节，没有逐个对象的开销
+ * 2. 启动后从各分片加载快照，之后从用户变更事件Stream（见UserOutboxRelay）增量读取，
+ *    变更过的用户记入增量索引，基础快照中该用户的词项在查询时跳过
+ * 3. 增量索引超过阈值或到达定时重建时间时从数据库重新加载快照；Stream被裁剪导致漏掉的事件也在重建后修正
+ * 4. 快照和增量索引都按UTF-8无符号字节序（即码点顺序）排列，查询结果按同一顺序合并
+ * <p>
+ * 内存占用：快照每个词项占 UTF-8长度 + 12 字节，实际值由 user.search.index.bytes 指标给出。
+ * 重建时先把所有词项读入List&lt;Entry&gt;再排序压缩，每个词项另有Entry对象、byte数组和列表槽位，
+ * 加上JDBC读取的行和字符串，重建期间的临时分配远大于快照本身，且旧快照在新快照就绪前仍在服务。
+ * UserSearchIndexBenchmark在H2上的一次测量（用户名13字节、邮箱25字节、手机号11字节）：
+ * 每百万用户快照84.8MB，GC后常驻约113MB；一次重建分配约1.6GB，期间堆峰值比重建前高约800MB
+ * （含尚未回收的垃圾）。堆大小应按重建峰值而不是快照大小规划
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    /**
+     * 加载快照的查询语句
+     */
+    private static final String LOAD_SQL = "select id, username, email, phone from " + UserConstant.TABLE_NAME;
+
+    /**
+     * 增量索引键中词项与用户ID的分隔符，小于任何可见字符，使同一词项的键排在一起
+     */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /**
+     * 按码点比较字符串，与UTF-8无符号字节序一致；String.compareTo按UTF-16比较，
+     * 代理对（补充平面字符）会排在U+E000~U+FFFF之前，与快照的顺序不同
+     */
+    private static final Comparator<String> CODE_POINT_ORDER = (a, b) -> {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int x = a.codePointAt(i);
+            int y = b.codePointAt(j);
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    };
+
+    /**
+     * 查询结果的排序：词项按UTF-8无符号字节序，相同时按用户ID
+     */
+    private static final Comparator<Hit> HIT_ORDER = (a, b) -> {
+        int result = Arrays.compareUnsigned(a.term(), b.term());
+        return result != 0 ? result : Long.compare(a.id(), b.id());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisUtils redisUtils;
+    private final ObjectMapper objectMapper;
+    private final ShardedUserRepository shardedUserRepository;
+    private final Executor userIndexExecutor;
+
+    /**
+     * 只读事务模板，总是开启新事务，使加载查询路由到当前分片的从库
+     */
+    private final TransactionTemplate readTemplate;
+
+    /**
+     * 用户变更事件的Stream键
+     */
+    private final String streamKey;
+
+    /**
+     * 是否启用搜索索引，从配置文件读取
+     */
+    @Value("${user.search.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 每次读取的事件数，从配置文件读取
+     */
+    @Value("${user.search.poll-batch:1000}")
+    private int pollBatch;
+
+    /**
+     * 触发重建的增量用户数，从配置文件读取
+     */
+    @Value("${user.search.compact-threshold:50000}")
+    private int compactThreshold;
+
+    /**
+     * 当前索引，加载完成前为null
+     */
+    private volatile State state;
+
+    /**
+     * 已处理的最后一条事件ID
+     */
+    private String lastEventId = "0-0";
+
+    /**
+     * 是否正在加载快照
+     */
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    /**
+     * 构造函数注入依赖，并注册索引大小指标
+     *
+     * @param jdbcTemplate          JDBC模板
+     * @param transactionManager    事务管理器
+     * @param redisUtils            Redis工具类
+     * @param objectMapper          JSON解析工具
+     * @param shardedUserRepository 分片用户数据访问组件
+     * @param userIndexExecutor     内存索引加载线程池
+     * @param meterRegistry         指标注册表
+     * @param streamKey             用户变更事件的Stream键
+     * @param fetchSize             加载快照时每次从数据库获取的行数
+     */
+    @Autowired
+    public UserSearchIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           RedisUtils redisUtils, ObjectMapper objectMapper,
+                           ShardedUserRepository shardedUserRepository,
+                           @Qualifier("userIndexExecutor") Executor userIndexExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${outbox.stream-key:user:events}") String streamKey,
+                           @Value("${user.search.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.redisUtils = redisUtils;
+        this.objectMapper = objectMapper;
+        this.shardedUserRepository = shardedUserRepository;
+        this.userIndexExecutor = userIndexExecutor;
+        this.streamKey = streamKey;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+
+        Gauge.builder("user.search.index.bytes", this, index -> {
+                    State current = index.state;
+                    return current == null ? 0 : current.snapshot.sizeInBytes();
+                })
+                .description("Estimated heap used by the user search snapshot")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.search.index.terms", this, index -> {
+                    State current = index.state;
+                    return current == null ? 0 : current.snapshot.size();
+                })
+                .description("Terms in the user search snapshot")
+                .register(meterRegistry);
+        Gauge.builder("user.search.index.delta", this, index -> {
+                    State current = index.state;
+                    return current == null ? 0 : current.changed.size();
+                })
+                .description("Users changed since the user search snapshot was built")
+                .register(meterRegistry);
+    }
+
+    // ============================== 查询 ==============================
+
+    /**
+     * 索引是否已加载完成
+     *
+     * @return 已加载返回true
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    /**
+     * 按前缀搜索用户，用户名、邮箱、手机号任一匹配即命中
+     * 结果按匹配的词项排序，同一用户只出现一次
+     *
+     * @param query 查询前缀，不区分大小写；只包含数字和+、-、空格时按手机号数字匹配
+     * @param limit 最多返回的用户数
+     * @return 用户ID列表，索引未加载完成时返回null
+     */
+    public List<Long> search(String query, int limit) {
+        State current = state;
+        if (current == null) {
+            return null;
+        }
+        String prefix = normalizeQuery(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // 分别取基础快照和增量索引中前limit个不同的用户，合并后再取前limit个
+        List<Hit> hits = new ArrayList<>();
+        Set<Long> seen = new LinkedHashSet<>();
+        Snapshot snapshot = current.snapshot;
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        for (int i = snapshot.lowerBound(prefixBytes); i < snapshot.size() && seen.size() < limit; i++) {
+            if (!snapshot.startsWith(i, prefixBytes)) {
+                break;
+            }
+            long id = snapshot.ids[i];
+            if (!current.changed.containsKey(id) && seen.add(id)) {
+                hits.add(new Hit(snapshot.termBytes(i), id));
+            }
+        }
+        seen.clear();
+        for (Map.Entry<String, Long> entry : current.terms.tailMap(prefix).entrySet()) {
+            if (seen.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (seen.add(entry.getValue())) {
+                String key = entry.getKey();
+                hits.add(new Hit(key.substring(0, key.lastIndexOf(KEY_SEPARATOR)).getBytes(StandardCharsets.UTF_8),
+                        entry.getValue()));
+            }
+        }
+
+        hits.sort(HIT_ORDER);
+        seen.clear();
+        for (Hit hit : hits) {
+            if (seen.size() >= limit) {
+                break;
+            }
+            seen.add(hit.id());
+        }
+        return new ArrayList<>(seen);
+    }
+
+    // ============================== 加载与增量更新 ==============================
+
+    /**
+     * 应用启动完成后在后台加载快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            userIndexExecutor.execute(this::reload);
+        }
+    }
+
+    /**
+     * 定时重建快照，修正可能漏掉的事件
+     */
+    @Scheduled(cron = "${user.search.rebuild-cron:0 0 4 * * *}")
+    public void scheduledReload() {
+        if (enabled && state != null) {
+            userIndexExecutor.execute(this::reload);
+        }
+    }
+
+    /**
+     * 从数据库重新加载快照
+     * 加载前记下Stream的最后一条事件ID，加载完成后从该位置继续读取，加载期间的变更会重放一次
+     */
+    public void reload() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            String fromId = redisUtils.xLastId(streamKey);
+            Snapshot snapshot = loadSnapshot();
+            synchronized (this) {
+                state = new State(snapshot);
+                lastEventId = fromId == null ? "0-0" : fromId;
+            }
+            logger.info("User search index loaded: {} terms, {} bytes in {} ms",
+                    snapshot.size(), snapshot.sizeInBytes(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load user search index: {}", e.getMessage());
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    /**
+     * 定时读取用户变更事件并更新增量索引，增量用户数超过阈值时触发重建
+     */
+    @Scheduled(fixedDelayString = "${user.search.poll-interval:1000}")
+    public void poll() {
+        if (!enabled || state == null || loading.get()) {
+            return;
+        }
+        synchronized (this) {
+            List<MapRecord<String, Object, Object>> records = redisUtils.xRead(streamKey, lastEventId, pollBatch);
+            for (MapRecord<String, Object, Object> record : records) {
+                try {
+                    apply(record.getValue());
+                } catch (RuntimeException e) {
+                    logger.warn("Skipping malformed user event {}: {}", record.getId(), e.getMessage());
+                }
+                lastEventId = record.getId().getValue();
+            }
+        }
+        if (state.changed.size() >= compactThreshold) {
+            userIndexExecutor.execute(this::reload);
+        }
+    }
+
+    /**
+     * 将一条用户变更事件应用到增量索引
+     * 事件可能乱序或重复到达，版本号不大于已记录版本的事件忽略。
+     * 删除事件携带用户最后的版本号，与此前的更新事件相同，因此版本号相同时仍然应用；
+     * 用户ID不会复用，删除后记为最大版本号，之后迟到的事件都被忽略
+     *
+     * @param fields 事件字段
+     */
+    private void apply(Map<Object, Object> fields) {
+        long userId = Long.parseLong(String.valueOf(fields.get("userId")));
+        UserChangeType type = UserChangeType.valueOf(String.valueOf(fields.get("type")));
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(String.valueOf(fields.get("payload")));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("invalid payload", e);
+        }
+        long version = payload.path("version").asLong(-1);
+        boolean deleted = type == UserChangeType.DELETED;
+
+        State current = state;
+        Delta previous = current.changed.get(userId);
+        if (previous != null && (previous.version > version || previous.version == version && !deleted)) {
+            return;
+        }
+        if (previous != null) {
+            for (String term : previous.terms) {
+                current.terms.remove(term + KEY_SEPARATOR + userId);
+            }
+        }
+        String[] terms = deleted ? new String[0]
+                : termsOf(payload.path("username").asText(null), payload.path("email").asText(null),
+                payload.path("phone").asText(null));
+        for (String term : terms) {
+            current.terms.put(term + KEY_SEPARATOR + userId, userId);
+        }
+        current.changed.put(userId, new Delta(deleted ? Long.MAX_VALUE : version, terms));
+    }
+
+    /**
+     * 从所有分片加载用户并构建快照
+     *
+     * @return 快照
+     */
+    private Snapshot loadSnapshot() {
+        List<Entry> entries = new ArrayList<>();
+        for (int shard = 0; shard < shardedUserRepository.getShardCount(); shard++) {
+            ShardContext.call(shard, () -> readTemplate.execute(status -> {
+                jdbcTemplate.query(LOAD_SQL, rs -> {
+                    long id = rs.getLong("id");
+                    for (String term : termsOf(rs.getString("username"), rs.getString("email"), rs.getString("phone"))) {
+                        entries.add(new Entry(term.getBytes(StandardCharsets.UTF_8), id));
+                    }
+                });
+                return null;
+            }));
+        }
+        return Snapshot.of(entries);
+    }
+
+    // ============================== 规范化 ==============================
+
+    /**
+     * 生成用户的索引词项
+     *
+     * @param username 用户名
+     * @param email    邮箱
+     * @param phone    手机号
+     * @return 去重后的词项
+     */
+    private static String[] termsOf(String username, String email, String phone) {
+        Set<String> terms = new LinkedHashSet<>(3);
+        addTerm(terms, normalizeText(username));
+        addTerm(terms, normalizeText(email));
+        addTerm(terms, normalizeDigits(phone));
+        return terms.toArray(new String[0]);
+    }
+
+    private static void addTerm(Set<String> terms, String term) {
+        if (term != null && !term.isEmpty()) {
+            terms.add(term);
+        }
+    }
+
+    /**
+     * 规范化查询前缀
+     *
+     * @param query 查询前缀
+     * @return 规范化后的前缀
+     */
+    private static String normalizeQuery(String query) {
+        String text = normalizeText(query);
+        if (text == null) {
+            return "";
+        }
+        if (text.matches("[0-9+\\- ]+")) {
+            return normalizeDigits(text);
+        }
+        return text;
+    }
+
+    private static String normalizeText(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeDigits(String value) {
+        return value == null ? null : value.replaceAll("[^0-9]", "");
+    }
+
+    // ============================== 内部结构 ==============================
+
+    /**
+     * 当前索引：基础快照和快照之后的增量
+     *
+     * @param snapshot 基础快照
+     * @param changed  快照之后变更过的用户及其当前词项
+     * @param terms    增量词项，键为 词项 + 分隔符 + 用户ID，按码点顺序排列
+     */
+    private record State(Snapshot snapshot, Map<Long, Delta> changed, ConcurrentSkipListMap<String, Long> terms) {
+
+        State(Snapshot snapshot) {
+            this(snapshot, new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>(CODE_POINT_ORDER));
+        }
+    }
+
+    /**
+     * 增量中一个用户的当前状态
+     *
+     * @param version 版本号
+     * @param terms   当前词项，已删除时为空
+     */
+    private record Delta(long version, String[] terms) {
+    }
+
+    /**
+     * 查询命中的词项
+     *
+     * @param term 词项的UTF-8字节
+     * @param id   用户ID
+     */
+    private record Hit(byte[] term, long id) {
+    }
+
+    /**
+     * 构建快照时的临时词项
+     *
+     * @param term 词项的UTF-8字节
+     * @param id   用户ID
+     */
+    private record Entry(byte[] term, long id) {
+    }
+
+    /**
+     * 不可变的有序词项数组，第i个词项为 data[offsets[i], offsets[i + 1])，按无符号字节序排列
+     */
+    private static final class Snapshot {
+
+        private final byte[] data;
+        private final int[] offsets;
+        private final long[] ids;
+
+        private Snapshot(byte[] data, int[] offsets, long[] ids) {
+            this.data = data;
+            this.offsets = offsets;
+            this.ids = ids;
+        }
+
+        /**
+         * 排序并压缩词项
+         *
+         * @param entries 词项列表
+         * @return 快照
+         */
+        static Snapshot of(List<Entry> entries) {
+            entries.sort((a, b) -> {
+                int result = Arrays.compareUnsigned(a.term(), b.term());
+                return result != 0 ? result : Long.compare(a.id(), b.id());
+            });
+            long length = 0;
+            for (Entry entry : entries) {
+                length += entry.term().length;
+            }
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("User search index exceeds 2GB");
+            }
+            byte[] data = new byte[(int) length];
+            int[] offsets = new int[entries.size() + 1];
+            long[] ids = new long[entries.size()];
+            int position = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                offsets[i] = position;
+                System.arraycopy(entry.term(), 0, data, position, entry.term().length);
+                position += entry.term().length;
+                ids[i] = entry.id();
+            }
+            offsets[entries.size()] = position;
+            return new Snapshot(data, offsets, ids);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        long sizeInBytes() {
+            return data.length + offsets.length * 4L + ids.length * 8L;
+        }
+
+        byte[] termBytes(int index) {
+            return Arrays.copyOfRange(data, offsets[index], offsets[index + 1]);
+        }
+
+        /**
+         * 第一个不小于前缀的词项位置
+         *
+         * @param prefix 前缀
+         * @return 位置，所有词项都小于前缀时为size()
+         */
+        int lowerBound(byte[] prefix) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (Arrays.compareUnsigned(data, offsets[mid], offsets[mid + 1], prefix, 0, prefix.length) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        boolean startsWith(int index, byte[] prefix) {
+            int from = offsets[index];
+            return offsets[index + 1] - from >= prefix.length
+                    && Arrays.equals(data, from, from + prefix.length, prefix, 0, prefix.length);
+        }
+    }
+}
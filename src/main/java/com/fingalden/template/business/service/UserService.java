@@ -0,0 +1,74 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.business.dto.CursorPage;
+import com.fingalden.template.business.dto.UserSummary;
+
+import java.util.List;
+
+/**
+ * 用户查询服务接口
+ */
+public interface UserService {
+
+    /**
+     * 键集分页查询用户列表，按ID升序
+     *
+     * @param role      角色，为空时不过滤
+     * @param status    状态，为空时不过滤
+     * @param afterId   上一页最后一条记录的ID，为空时返回第一页
+     * @param size      每页条数
+     * @param withTotal 是否返回总数，总数会被短时间缓存
+     * @return 分页结果
+     */
+    CursorPage<UserSummary> listUsers(String role, Integer status, Long afterId, int size, boolean withTotal);
+
+    /**
+     * 按用户名、邮箱或手机号前缀搜索用户
+     *
+     * @param query 查询前缀，不区分大小写
+     * @param limit 最多返回的用户数
+     * @return 匹配的用户，按匹配的词项排序；搜索索引未加载完成时返回null
+     */
+    List<UserSummary> searchUsers(String query, int limit);
+
+    /**
+     * 注册用户
+     * 布隆过滤器判断用户名、邮箱、手机号都不存在时直接插入，否则先用一条查询检查冲突
+     *
+     * @param username 用户名
+     * @param password 明文密码
+     * @param email    邮箱，可为空
+     * @param phone    手机号，可为空
+     * @return 注册后的用户
+     * @throws org.springframework.dao.DuplicateKeyException 用户名、邮箱或手机号已被使用
+     */
+    UserSummary register(String username, String password, String email, String phone);
+
+    /**
+     * 修改用户资料，版本冲突时自动重试
+     *
+     * @param id    用户ID
+     * @param email 邮箱，为空时不修改
+     * @param phone 手机号，为空时不修改
+     * @return 修改后的用户，用户不存在时返回null
+     */
+    UserSummary updateProfile(Long id, String email, String phone);
+
+    /**
+     * 修改用户角色，版本冲突时自动重试
+     *
+     * @param id   用户ID
+     * @param role 角色
+     * @return 修改后的用户，用户不存在时返回null
+     */
+    UserSummary updateRole(Long id, String role);
+
+    /**
+     * 修改用户状态，版本冲突时自动重试
+     *
+     * @param id     用户ID
+     * @param status 状态：0-禁用，1-启用
+     * @return 修改后的用户，用户不存在时返回null
+     */
+    UserSummary updateStatus(Long id, Integer status);
+}
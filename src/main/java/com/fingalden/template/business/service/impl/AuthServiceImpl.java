@@ -0,0 +1,133 @@
+package com.fingalden.template.business.service.impl;
+
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.dto.TokenPair;
+import com.fingalden.template.business.service.AuthService;
+import com.fingalden.template.business.service.OpaqueTokenStore;
+import com.fingalden.template.business.service.RefreshTokenStore;
+import com.fingalden.template.common.exception.MyException;
+import com.fingalden.template.core.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * 认证服务实现类
+ * 登录经由AuthenticationManager校验密码，认证成功、失败事件由LoginAuditListener异步记录；
+ * 刷新时只做一次Redis脚本调用和一次认证信息查询，不校验密码；
+ * 访问token的类型由auth.token-mode决定：jwt为自包含的JWT，opaque为服务端会话的不透明令牌，刷新token始终为JWT
+ */
+@Service
+public class AuthServiceImpl implements AuthService {
+
+    private final AuthenticationManager authenticationManager;
+    private final UserDetailsService userDetailsService;
+    private final JwtUtils jwtUtils;
+    private final RefreshTokenStore refreshTokenStore;
+    private final OpaqueTokenStore opaqueTokenStore;
+
+    /**
+     * 是否签发不透明访问令牌，从配置文件读取
+     */
+    private final boolean opaque;
+
+    /**
+     * 构造函数注入依赖
+     *
+     * @param authenticationManager 认证管理器
+     * @param userDetailsService    用户详情服务
+     * @param jwtUtils              JWT工具类
+     * @param refreshTokenStore     刷新令牌存储
+     * @param opaqueTokenStore      不透明访问令牌存储
+     * @param tokenMode             访问令牌类型：jwt或opaque
+     */
+    @Autowired
+    public AuthServiceImpl(AuthenticationManager authenticationManager, UserDetailsService userDetailsService,
+                           JwtUtils jwtUtils, RefreshTokenStore refreshTokenStore,
+                           OpaqueTokenStore opaqueTokenStore, @Value("${auth.token-mode:jwt}") String tokenMode) {
+        this.authenticationManager = authenticationManager;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtils = jwtUtils;
+        this.refreshTokenStore = refreshTokenStore;
+        this.opaqueTokenStore = opaqueTokenStore;
+        this.opaque = "opaque".equalsIgnoreCase(tokenMode);
+    }
+
+    @Override
+    public TokenPair login(String username, String password) {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password));
+        AuthUser user = (AuthUser) authentication.getPrincipal();
+
+        String familyId = RefreshTokenStore.newId();
+        String tokenId = RefreshTokenStore.newId();
+        if (!refreshTokenStore.create(familyId, tokenId)) {
+            throw new MyException("登录服务暂不可用，请稍后重试");
+        }
+        return issue(user, familyId, tokenId);
+    }
+
+    @Override
+    public TokenPair refresh(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtils.parseToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("刷新token无效或已过期");
+        }
+        String familyId = claims.get("fid", String.class);
+        if (familyId == null || claims.getId() == null) {
+            // 访问token或旧格式的刷新token不能用于刷新
+            throw new BadCredentialsException("刷新token无效");
+        }
+
+        String tokenId = refreshTokenStore.rotate(familyId, claims.getId());
+        if (tokenId == null) {
+            throw new BadCredentialsException("刷新token已失效，请重新登录");
+        }
+
+        // 重新读取认证信息，使角色变更、禁用在刷新时生效
+        AuthUser user;
+        try {
+            user = (AuthUser) userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenStore.revoke(familyId);
+            throw new BadCredentialsException("用户不存在");
+        }
+        if (!user.isEnabled()) {
+            refreshTokenStore.revoke(familyId);
+            throw new DisabledException("账户已禁用");
+        }
+        return issue(user, familyId, tokenId);
+    }
+
+    /**
+     * 签发访问token和刷新token
+     *
+     * @param user     认证用户
+     * @param familyId 令牌族ID
+     * @param tokenId  刷新token的ID
+     * @return 签发的令牌
+     */
+    private TokenPair issue(AuthUser user, String familyId, String tokenId) {
+        String refreshToken = jwtUtils.generateRefreshToken(user.getId(), user.getUsername(), familyId, tokenId);
+        if (opaque) {
+            String accessToken = opaqueTokenStore.create(user);
+            if (accessToken == null) {
+                throw new MyException("登录服务暂不可用，请稍后重试");
+            }
+            return new TokenPair(accessToken, refreshToken, opaqueTokenStore.getIdleTimeout());
+        }
+        String accessToken = jwtUtils.generateToken(user.getId(), user.getUsername(), user.getRole());
+        return new TokenPair(accessToken, refreshToken, jwtUtils.getExpire());
+    }
+}
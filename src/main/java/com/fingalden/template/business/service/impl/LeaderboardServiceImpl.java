@@ -0,0 +1,224 @@
+package com.fingalden.template.business.service.impl;
+
+import com.fingalden.template.business.dto.LeaderboardEntry;
+import com.fingalden.template.business.service.LeaderboardService;
+import com.fingalden.template.common.constant.LeaderboardPeriod;
+import com.fingalden.template.core.utils.KeyspaceRegistry;
+import com.fingalden.template.core.utils.RedisUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排行榜服务实现类
+ * 1. 分数增量先在本地按(榜单键, 成员)聚合，定时以管道方式批量刷写到Redis
+ * 2. 每个被读取过的榜单维护一份前N名快照，定时刷新，读请求不再逐次执行ZREVRANGE
+ * 3. 日榜、周榜按时间分桶，写入时设置过期时间，过期后由Redis自动清理
+ */
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardServiceImpl.class);
+
+    /**
+     * 排行榜键前缀
+     */
+    private static final String KEY_PREFIX = "leaderboard:";
+
+    /**
+     * Redis工具类
+     */
+    private final RedisUtils redisUtils;
+
+    /**
+     * 快照保留的条目数，从配置文件读取
+     */
+    @Value("${leaderboard.snapshot-size:100}")
+    private int snapshotSize;
+
+    /**
+     * 本地待刷写的分数增量，键为(榜单键, 成员)
+     * 使用merge/remove保证单个条目的累加与取出是原子的，刷写过程中不会丢失增量
+     */
+    private final ConcurrentHashMap<PendingKey, Double> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 前N名快照，键为榜单键
+     */
+    private final ConcurrentHashMap<String, List<LeaderboardEntry>> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数注入RedisUtils，并注册排行榜键空间用于内存统计
+     * 榜单的过期时间按周期在刷写时设置，命名空间不设默认过期时间
+     *
+     * @param redisUtils       Redis工具类
+     * @param keyspaceRegistry 键空间注册表
+     */
+    @Autowired
+    public LeaderboardServiceImpl(RedisUtils redisUtils, KeyspaceRegistry keyspaceRegistry) {
+        this.redisUtils = redisUtils;
+        keyspaceRegistry.register("leaderboard", KEY_PREFIX, 0, TimeUnit.SECONDS, 0);
+    }
+
+    @Override
+    public void incrementScore(String board, String member, double delta) {
+        LocalDate today = LocalDate.now();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            pending.merge(new PendingKey(buildKey(board, period, today), period, member), delta, Double::sum);
+        }
+    }
+
+    @Override
+    public LeaderboardEntry getRank(String board, LeaderboardPeriod period, String member) {
+        String key = buildKey(board, period, LocalDate.now());
+        Long rank = redisUtils.zReverseRank(key, member);
+        if (rank == null) {
+            return null;
+        }
+        return new LeaderboardEntry(member, redisUtils.zScore(key, member), rank + 1);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getAroundMe(String board, LeaderboardPeriod period, String member, int radius) {
+        String key = buildKey(board, period, LocalDate.now());
+        Long rank = redisUtils.zReverseRank(key, member);
+        if (rank == null) {
+            return new ArrayList<>();
+        }
+        long start = Math.max(0, rank - radius);
+        return toEntries(redisUtils.zReverseRangeWithScores(key, start, rank + radius), start);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getTopN(String board, LeaderboardPeriod period, int n) {
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+        String key = buildKey(board, period, LocalDate.now());
+        if (n > snapshotSize) {
+            return toEntries(redisUtils.zReverseRangeWithScores(key, 0, n - 1), 0);
+        }
+        // 首次读取时同步加载快照，之后由定时任务刷新
+        List<LeaderboardEntry> snapshot = snapshots.computeIfAbsent(key, this::loadSnapshot);
+        return snapshot.size() <= n ? snapshot : snapshot.subList(0, n);
+    }
+
+    /**
+     * 定时将本地聚合的分数增量批量刷写到Redis
+     * 每个条目从缓冲区原子取出，取出后的新增量会进入下一轮刷写
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.flush-interval:200}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Double>> batch = new HashMap<>();
+        Map<String, LeaderboardPeriod> periods = new HashMap<>();
+        for (PendingKey pendingKey : pending.keySet()) {
+            Double delta = pending.remove(pendingKey);
+            if (delta != null) {
+                batch.computeIfAbsent(pendingKey.key(), k -> new HashMap<>()).put(pendingKey.member(), delta);
+                periods.put(pendingKey.key(), pendingKey.period());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object> results = redisUtils.executePipelined(operations -> batch.forEach((key, increments) -> {
+            increments.forEach((member, delta) -> operations.opsForZSet().incrementScore(key, member, delta));
+            long expireSeconds = periods.get(key).getExpireSeconds();
+            if (expireSeconds > 0) {
+                operations.expire(key, expireSeconds, TimeUnit.SECONDS);
+            }
+        }));
+        if (results == null) {
+            // 刷写失败，将增量放回缓冲区等待下一轮重试
+            batch.forEach((key, increments) -> increments.forEach((member, delta) ->
+                    pending.merge(new PendingKey(key, periods.get(key), member), delta, Double::sum)));
+            logger.warn("Failed to flush leaderboard increments for {} keys, will retry", batch.size());
+            return;
+        }
+        logger.debug("Flushed leaderboard increments for {} keys", batch.size());
+    }
+
+    /**
+     * 定时刷新所有已缓存的前N名快照
+     * 已过期的时间桶（如昨天的日榜）不再被读取，刷新时一并移除
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot-interval:300}")
+    public void refreshSnapshots() {
+        for (String key : snapshots.keySet()) {
+            if (redisUtils.getExpire(key, TimeUnit.SECONDS) == -2) {
+                snapshots.remove(key);
+                continue;
+            }
+            snapshots.put(key, loadSnapshot(key));
+        }
+    }
+
+    /**
+     * 应用关闭前刷写剩余的分数增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 从Redis加载前N名快照
+     *
+     * @param key 榜单键
+     * @return 不可变的排行榜条目列表
+     */
+    private List<LeaderboardEntry> loadSnapshot(String key) {
+        return Collections.unmodifiableList(toEntries(redisUtils.zReverseRangeWithScores(key, 0, snapshotSize - 1), 0));
+    }
+
+    /**
+     * 将有序集合元组转换为排行榜条目
+     *
+     * @param tuples 按分数从大到小排列的元组
+     * @param offset 第一个元组的排名偏移（从0开始）
+     * @return 排行榜条目列表
+     */
+    private List<LeaderboardEntry> toEntries(Set<ZSetOperations.TypedTuple<Object>> tuples, long offset) {
+        List<LeaderboardEntry> entries = new ArrayList<>(tuples.size());
+        long rank = offset;
+        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
+            entries.add(new LeaderboardEntry(String.valueOf(tuple.getValue()), tuple.getScore(), ++rank));
+        }
+        return entries;
+    }
+
+    /**
+     * 构建榜单键，如leaderboard:game:daily:20240101
+     *
+     * @param board  榜单名称
+     * @param period 榜单周期
+     * @param date   日期
+     * @return 榜单键
+     */
+    private String buildKey(String board, LeaderboardPeriod period, LocalDate date) {
+        return KEY_PREFIX + board + ":" + period.bucket(date);
+    }
+
+    /**
+     * 待刷写增量的键
+     *
+     * @param key    榜单键
+     * @param period 榜单周期，刷写时据此设置过期时间
+     * @param member 成员标识
+     */
+    private record PendingKey(String key, LeaderboardPeriod period, String member) {
+    }
+}
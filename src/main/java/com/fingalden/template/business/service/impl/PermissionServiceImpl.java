@@ -0,0 +1,91 @@
+package com.fingalden.template.business.service.impl;
+
+import com.fingalden.template.auth.PermissionModel;
+import com.fingalden.template.business.entity.Permission;
+import com.fingalden.template.business.entity.RolePermission;
+import com.fingalden.template.business.repository.PermissionRepository;
+import com.fingalden.template.business.repository.RolePermissionRepository;
+import com.fingalden.template.business.service.PermissionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 权限管理服务实现类
+ * 修改在事务提交后才重新编译权限模型，保证编译时读到的是已提交的数据
+ */
+@Service
+public class PermissionServiceImpl implements PermissionService {
+
+    private final PermissionRepository permissionRepository;
+    private final RolePermissionRepository rolePermissionRepository;
+    private final PermissionModel permissionModel;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 构造函数注入依赖
+     */
+    @Autowired
+    public PermissionServiceImpl(PermissionRepository permissionRepository,
+                                 RolePermissionRepository rolePermissionRepository,
+                                 PermissionModel permissionModel,
+                                 TransactionTemplate transactionTemplate) {
+        this.permissionRepository = permissionRepository;
+        this.rolePermissionRepository = rolePermissionRepository;
+        this.permissionModel = permissionModel;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public List<Permission> listPermissions() {
+        return permissionRepository.findAll(Sort.by("code"));
+    }
+
+    @Override
+    public Permission savePermission(String code, String name) {
+        Permission permission = permissionRepository.findById(code).orElseGet(Permission::new);
+        boolean created = permission.getCode() == null;
+        permission.setCode(code);
+        permission.setName(name);
+        Permission saved = permissionRepository.save(permission);
+        // 只改名称不影响权限判断
+        if (created) {
+            permissionModel.reload();
+        }
+        return saved;
+    }
+
+    @Override
+    public List<String> getRolePermissions(String role) {
+        return rolePermissionRepository.findByRole(role).stream()
+                .map(RolePermission::getPermissionCode)
+                .sorted()
+                .toList();
+    }
+
+    @Override
+    public void replaceRolePermissions(String role, List<String> codes) {
+        Set<String> distinct = new LinkedHashSet<>(codes);
+        if (permissionRepository.findAllById(distinct).size() != distinct.size()) {
+            throw new IllegalArgumentException("权限不存在");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            rolePermissionRepository.deleteByRole(role);
+            List<RolePermission> relations = new ArrayList<>(distinct.size());
+            for (String code : distinct) {
+                RolePermission relation = new RolePermission();
+                relation.setRole(role);
+                relation.setPermissionCode(code);
+                relations.add(relation);
+            }
+            rolePermissionRepository.saveAll(relations);
+        });
+        permissionModel.reload();
+    }
+}
@@ -1,7 +1,7 @@
 package com.fingalden.template.business.service.impl;
 
-import com.fingalden.template.business.entity.User;
-import com.fingalden.template.business.repository.UserRepository;
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.repository.ShardedUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,23 +16,24 @@ import org.springframework.stereotype.Service;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     /**
-     * 用户数据访问接口
+     * 分片用户数据访问组件
      */
-    private final UserRepository userRepository;
+    private final ShardedUserRepository userRepository;
 
     /**
-     * 构造函数注入UserRepository
+     * 构造函数注入ShardedUserRepository
      *
-     * @param userRepository 用户数据访问接口
+     * @param userRepository 分片用户数据访问组件
      */
     @Autowired
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(ShardedUserRepository userRepository) {
         this.userRepository = userRepository;
     }
 
     /**
      * 根据用户名加载用户详情
      * Spring Security会调用此方法来获取用户信息进行认证
+     * 查询在只读事务中执行，配置了只读副本时从副本查询，配置了分片时路由到用户所在分片
      *
      * @param username 用户名
      * @return UserDetails对象，包含用户的用户名、密码、权限等信息
@@ -40,15 +41,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // 从数据库中查询用户
-        User user = userRepository.findByUsername(username);
+        // 从数据库中查询认证所需的字段，不加载完整的User实体
+        AuthUser user = userRepository.findAuthByUsername(username);
         
         // 如果用户不存在，抛出UsernameNotFoundException异常
         if (user == null) {
             throw new UsernameNotFoundException("User not found with username: " + username);
         }
         
-        // 返回User对象，它实现了UserDetails接口
+        // 返回AuthUser对象，它实现了UserDetails接口
         return user;
     }
 }
\ No newline at end of file
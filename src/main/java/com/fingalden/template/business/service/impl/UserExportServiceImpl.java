@@ -0,0 +1,205 @@
+package com.fingalden.template.business.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.business.service.UserExportService;
+import com.fingalden.template.common.constant.DataFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 用户导出服务实现类
+ * 通过只进游标逐行读取用户并立即写出，每写出CLEAR_INTERVAL行清空一次持久化上下文，
+ * 已写出的实体可被回收，内存占用保持平稳。
+ * 分片模式下逐个分片导出，每个分片内按ID排序，分片之间不保证顺序
+ */
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportServiceImpl.class);
+
+    /**
+     * 清空持久化上下文的间隔行数，与查询的fetch size保持一致
+     */
+    private static final int CLEAR_INTERVAL = 1000;
+
+    /**
+     * CSV表头
+     */
+    private static final String CSV_HEADER = "id,username,email,phone,role,status,createTime,updateTime\n";
+
+    private final ShardedUserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 构造函数注入依赖
+     *
+     * @param userRepository 分片用户数据访问组件
+     * @param objectMapper   JSON序列化工具
+     */
+    @Autowired
+    public UserExportServiceImpl(ShardedUserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public long export(OutputStream out, DataFormat format) throws IOException {
+        Writer writer = null;
+        JsonGenerator generator = null;
+        if (format == DataFormat.CSV) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+        } else {
+            generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        long count = 0;
+        try {
+            for (int shard = 0; shard < userRepository.getShardCount(); shard++) {
+                Writer csvWriter = writer;
+                JsonGenerator jsonGenerator = generator;
+                count += userRepository.streamAll(shard, users -> writeAll(users, csvWriter, jsonGenerator));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (writer != null) {
+            writer.flush();
+        } else {
+            generator.flush();
+        }
+        logger.info("Exported {} users as {}", count, format);
+        return count;
+    }
+
+    /**
+     * 写出一个分片的用户，在该分片的只读事务中调用
+     *
+     * @param users     用户流
+     * @param writer    CSV输出，导出JSON时为null
+     * @param generator JSON生成器，导出CSV时为null
+     * @return 写出的行数
+     * @throws UncheckedIOException 写入失败
+     */
+    private long writeAll(Stream<User> users, Writer writer, JsonGenerator generator) {
+        long count = 0;
+        Iterator<User> iterator = users.iterator();
+        try {
+            while (iterator.hasNext()) {
+                if (writer != null) {
+                    writeCsv(writer, iterator.next());
+                } else {
+                    writeJson(generator, iterator.next());
+                }
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    /**
+     * 写出一行CSV
+     *
+     * @param writer 输出
+     * @param user   用户
+     * @throws IOException 写入失败
+     */
+    private void writeCsv(Writer writer, User user) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writer.write(',');
+        writeCsvField(writer, user.getUsername());
+        writer.write(',');
+        writeCsvField(writer, user.getEmail());
+        writer.write(',');
+        writeCsvField(writer, user.getPhone());
+        writer.write(',');
+        writeCsvField(writer, user.getRole());
+        writer.write(',');
+        writer.write(user.getStatus() == null ? "" : user.getStatus().toString());
+        writer.write(',');
+        writer.write(formatDate(user.getCreateTime()));
+        writer.write(',');
+        writer.write(formatDate(user.getUpdateTime()));
+        writer.write('\n');
+    }
+
+    /**
+     * 写出一个CSV字段，包含逗号、引号或换行时用双引号包裹
+     *
+     * @param writer 输出
+     * @param value  字段值
+     * @throws IOException 写入失败
+     */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * 写出一行JSON
+     *
+     * @param generator JSON生成器
+     * @param user      用户
+     * @throws IOException 写入失败
+     */
+    private void writeJson(JsonGenerator generator, User user) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", String.valueOf(user.getId()));
+        generator.writeStringField("username", user.getUsername());
+        generator.writeStringField("email", user.getEmail());
+        generator.writeStringField("phone", user.getPhone());
+        generator.writeStringField("role", user.getRole());
+        if (user.getStatus() != null) {
+            generator.writeNumberField("status", user.getStatus());
+        }
+        generator.writeStringField("createTime", formatDate(user.getCreateTime()));
+        generator.writeStringField("updateTime", formatDate(user.getUpdateTime()));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * 格式化时间为ISO-8601格式
+     *
+     * @param date 时间
+     * @return ISO-8601字符串，为空时返回空字符串
+     */
+    private String formatDate(Date date) {
+        return date == null ? "" : date.toInstant().toString();
+    }
+}
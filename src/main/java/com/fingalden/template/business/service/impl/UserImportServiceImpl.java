@@ -0,0 +1,593 @@
+package com.fingalden.template.business.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fingalden.template.business.dto.UserImportJob;
+import com.fingalden.template.business.dto.UserImportRow;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.business.service.UserBloomFilters;
+import com.fingalden.template.business.service.UserImportService;
+import com.fingalden.template.business.service.UserOutbox;
+import com.fingalden.template.common.constant.UserChangeType;
+import com.fingalden.template.common.constant.DataFormat;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.common.exception.MyException;
+import com.fingalden.template.core.utils.ShardContext;
+import com.fingalden.template.core.utils.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户批量导入服务实现类
+ * 1. 逐行流式读取CSV或NDJSON文件，内存中只保留当前块
+ * 2. 每块先在块内去重，再用一条查询批量检查用户名、邮箱、手机号是否已存在
+ * 3. 密码在有界线程池中并行哈希，已是BCrypt格式的密码直接入库
+ * 4. 每块在独立事务中通过JDBC批量插入，配合rewriteBatchedStatements合并为多值INSERT；
+ *    同一事务中再批量插入每个用户的创建事件，与注册一样经发件箱发布
+ * 5. 并发注册导致唯一索引冲突时，该块退化为逐行插入，只跳过冲突的行；
+ *    其他约束错误（如字段过长）的行记为失败并写入错误信息
+ * 分片模式下重复检查查询所有分片，插入前先批量登记用户名目录，再按ID分组写入各自的分片，
+ * 未能写入分片的行撤销目录登记
+ * BCrypt哈希每条耗时数十毫秒，导入明文密码时吞吐量受CPU核数限制；
+ * 迁移已哈希的密码时主要耗时在数据库写入
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    /**
+     * 插入语句
+     */
+    private static final String INSERT_SQL = "insert into " + UserConstant.TABLE_NAME
+            + " (id, username, password, email, phone, role, status, create_time, update_time, version)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    /**
+     * 已结束任务的保留时间
+     */
+    private static final long JOB_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final UserBloomFilters userBloomFilters;
+    private final ShardedUserRepository userRepository;
+    private final UserOutbox userOutbox;
+    private final Executor userImportExecutor;
+    private final Executor passwordHashExecutor;
+
+    /**
+     * 每块的行数，从配置文件读取
+     */
+    @Value("${user.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * 导入任务，键为任务ID
+     */
+    private final Map<String, UserImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数注入依赖
+     */
+    @Autowired
+    public UserImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 PasswordEncoder passwordEncoder,
+                                 ObjectMapper objectMapper,
+                                 UserBloomFilters userBloomFilters,
+                                 ShardedUserRepository userRepository,
+                                 UserOutbox userOutbox,
+                                 @Qualifier("userImportExecutor") Executor userImportExecutor,
+                                 @Qualifier("passwordHashExecutor") Executor passwordHashExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.userBloomFilters = userBloomFilters;
+        this.userRepository = userRepository;
+        this.userOutbox = userOutbox;
+        this.userImportExecutor = userImportExecutor;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    @Override
+    public UserImportJob submit(Path file, DataFormat format) {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.getEndTime() > 0 && now - job.getEndTime() > JOB_RETENTION_MILLIS);
+
+        UserImportJob job = new UserImportJob(UUID.randomUUID().toString());
+        jobs.put(job.getJobId(), job);
+        try {
+            userImportExecutor.execute(() -> run(job, file, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            deleteQuietly(file);
+            throw new MyException("导入任务过多，请稍后再试");
+        }
+        return job;
+    }
+
+    @Override
+    public UserImportJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 执行导入任务
+     *
+     * @param job    导入任务
+     * @param file   待导入的文件
+     * @param format 文件格式
+     */
+    private void run(UserImportJob job, Path file, DataFormat format) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String[] header = null;
+            List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == DataFormat.CSV && header == null) {
+                    header = parseCsvLine(line).toArray(new String[0]);
+                    continue;
+                }
+                job.getProcessed().incrementAndGet();
+                try {
+                    UserImportRow row = format == DataFormat.CSV
+                            ? toRow(header, parseCsvLine(line))
+                            : objectMapper.readValue(line, UserImportRow.class);
+                    chunk.add(new NumberedRow(lineNumber, row));
+                } catch (Exception e) {
+                    job.addError(lineNumber, "格式错误: " + e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    importChunk(job, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+            job.setStatus(UserImportJob.Status.COMPLETED);
+        } catch (Exception e) {
+            logger.error("User import {} failed: {}", job.getJobId(), e.getMessage(), e);
+            job.addError(job.getProcessed().get(), "导入中止: " + e.getMessage());
+            job.setStatus(UserImportJob.Status.FAILED);
+        } finally {
+            job.setEndTime(System.currentTimeMillis());
+            deleteQuietly(file);
+            logger.info("User import {} finished: status={}, processed={}, imported={}, duplicates={}, failed={}, rows/s={}",
+                    job.getJobId(), job.getStatus(), job.getProcessed(), job.getImported(),
+                    job.getDuplicates(), job.getFailed(), job.getRowsPerSecond());
+        }
+    }
+
+    /**
+     * 导入一块数据
+     *
+     * @param job   导入任务
+     * @param chunk 当前块
+     */
+    private void importChunk(UserImportJob job, List<NumberedRow> chunk) {
+        List<NumberedRow> rows = filterDuplicates(job, validate(job, chunk));
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        // 并行哈希密码
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+        for (NumberedRow row : rows) {
+            String password = row.row().getPassword();
+            hashes.add(isBcrypt(password)
+                    ? CompletableFuture.completedFuture(password)
+                    : CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), passwordHashExecutor));
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batchArgs = new ArrayList<>(rows.size());
+        Map<Long, Long> lines = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportRow row = rows.get(i).row();
+            long id = SnowflakeIdGenerator.getInstance().nextId();
+            lines.put(id, rows.get(i).line());
+            batchArgs.add(new Object[]{
+                    id,
+                    row.getUsername(),
+                    hashes.get(i).join(),
+                    emptyToNull(row.getEmail()),
+                    emptyToNull(row.getPhone()),
+                    StringUtils.hasText(row.getRole()) ? row.getRole() : UserConstant.DEFAULT_ROLE,
+                    row.getStatus() != null ? row.getStatus() : UserConstant.STATUS_ENABLED,
+                    now,
+                    now
+            });
+        }
+
+        List<Object[]> registered = userRepository.isSharded() ? addDirectories(job, batchArgs) : batchArgs;
+        Map<Integer, List<Object[]>> argsByShard = new TreeMap<>();
+        for (Object[] args : registered) {
+            argsByShard.computeIfAbsent(userRepository.shardOf((Long) args[0]), key -> new ArrayList<>()).add(args);
+        }
+        Iterator<Map.Entry<Integer, List<Object[]>>> iterator = argsByShard.entrySet().iterator();
+        try {
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, List<Object[]>> entry = iterator.next();
+                List<Object[]> rejected = insert(job, entry.getKey(), entry.getValue(), lines);
+                // 本分片的行已处理完毕，之后即使失败也不再撤销它们的目录登记
+                iterator.remove();
+                if (userRepository.isSharded() && !rejected.isEmpty()) {
+                    userRepository.removeDirectories(toUsers(rejected));
+                }
+            }
+        } catch (RuntimeException e) {
+            // 写入中断时撤销尚未写入的行的目录登记，避免用户名、邮箱和手机号被不存在的用户占用
+            if (userRepository.isSharded() && !argsByShard.isEmpty()) {
+                List<Object[]> pending = new ArrayList<>();
+                for (List<Object[]> shardRows : argsByShard.values()) {
+                    pending.addAll(shardRows);
+                }
+                userRepository.removeDirectories(toUsers(pending));
+            }
+            throw e;
+        }
+        // 冲突未写入的行也加入布隆过滤器，只会多出误判，不影响正确性
+        for (Object[] args : batchArgs) {
+            userBloomFilters.add((String) args[1], (String) args[3], (String) args[4]);
+        }
+    }
+
+    /**
+     * 分片模式下批量登记用户名、邮箱和手机号目录，任一已被占用的行计为重复
+     *
+     * @param job       导入任务
+     * @param batchArgs 待插入的行
+     * @return 登记成功的行
+     */
+    private List<Object[]> addDirectories(UserImportJob job, List<Object[]> batchArgs) {
+        Set<Long> rejected = userRepository.addDirectories(toUsers(batchArgs));
+        if (rejected.isEmpty()) {
+            return batchArgs;
+        }
+        List<Object[]> registered = new ArrayList<>(batchArgs.size());
+        for (Object[] args : batchArgs) {
+            if (rejected.contains((Long) args[0])) {
+                job.getDuplicates().incrementAndGet();
+            } else {
+                registered.add(args);
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * 在一个分片上批量插入用户及其创建事件
+     * 批量插入失败时退化为逐行插入：唯一索引冲突的行计为重复，其他约束错误的行计为失败
+     *
+     * @param job   导入任务
+     * @param shard 分片编号
+     * @param rows  该分片上待插入的行
+     * @param lines 各行的行号，键为用户ID
+     * @return 未插入的行
+     */
+    private List<Object[]> insert(UserImportJob job, int shard, List<Object[]> rows, Map<Long, Long> lines) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> eventArgs = new ArrayList<>(rows.size());
+        for (Object[] args : rows) {
+            eventArgs.add(userOutbox.insertArgs(toUser(args), UserChangeType.CREATED, now));
+        }
+        try {
+            ShardContext.call(shard, () -> transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                return jdbcTemplate.batchUpdate(UserOutbox.INSERT_SQL, eventArgs);
+            }));
+            job.getImported().addAndGet(rows.size());
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            // 检查之后有并发写入的重复数据，或个别行违反约束，逐行插入以跳过这些行
+            logger.warn("Batch insert failed on shard {} in import {}, falling back to row-by-row: {}",
+                    shard, job.getJobId(), e.getMessage());
+            List<Object[]> rejected = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] args = rows.get(i);
+                Object[] event = eventArgs.get(i);
+                try {
+                    ShardContext.call(shard, () -> transactionTemplate.execute(status -> {
+                        jdbcTemplate.update(INSERT_SQL, args);
+                        return jdbcTemplate.update(UserOutbox.INSERT_SQL, event);
+                    }));
+                    job.getImported().incrementAndGet();
+                } catch (DuplicateKeyException rowException) {
+                    job.getDuplicates().incrementAndGet();
+                    rejected.add(args);
+                } catch (DataIntegrityViolationException rowException) {
+                    job.addError(lines.get((Long) args[0]), "写入失败: " + rowException.getMostSpecificCause().getMessage());
+                    rejected.add(args);
+                }
+            }
+            return rejected;
+        }
+    }
+
+    /**
+     * 由插入参数批量构造用户
+     *
+     * @param rows 插入参数
+     * @return 用户
+     */
+    private List<User> toUsers(List<Object[]> rows) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (Object[] args : rows) {
+            users.add(toUser(args));
+        }
+        return users;
+    }
+
+    /**
+     * 由插入参数构造用户，用于生成创建事件和目录登记
+     *
+     * @param args 插入参数，顺序与INSERT_SQL一致
+     * @return 用户
+     */
+    private User toUser(Object[] args) {
+        User user = new User();
+        user.setId((Long) args[0]);
+        user.setUsername((String) args[1]);
+        user.setEmail((String) args[3]);
+        user.setPhone((String) args[4]);
+        user.setRole((String) args[5]);
+        user.setStatus((Integer) args[6]);
+        user.setVersion(0L);
+        return user;
+    }
+
+    /**
+     * 校验必填字段和字段长度，长度限制与注册接口一致
+     *
+     * @param job   导入任务
+     * @param chunk 当前块
+     * @return 校验通过的行
+     */
+    private List<NumberedRow> validate(UserImportJob job, List<NumberedRow> chunk) {
+        List<NumberedRow> valid = new ArrayList<>(chunk.size());
+        for (NumberedRow row : chunk) {
+            String error = validate(row.row());
+            if (error != null) {
+                job.addError(row.line(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * 校验一行数据
+     *
+     * @param row 数据行
+     * @return 错误信息，校验通过时返回null
+     */
+    private String validate(UserImportRow row) {
+        if (!StringUtils.hasText(row.getUsername()) || !StringUtils.hasText(row.getPassword())) {
+            return "用户名和密码不能为空";
+        }
+        if (row.getUsername().length() > UserConstant.MAX_USERNAME_LENGTH) {
+            return "用户名不能超过" + UserConstant.MAX_USERNAME_LENGTH + "个字符";
+        }
+        if (!isBcrypt(row.getPassword())
+                && row.getPassword().getBytes(StandardCharsets.UTF_8).length > UserConstant.MAX_PASSWORD_BYTES) {
+            return "密码不能超过" + UserConstant.MAX_PASSWORD_BYTES + "个字节";
+        }
+        if (row.getEmail() != null && row.getEmail().length() > UserConstant.MAX_EMAIL_LENGTH) {
+            return "邮箱不能超过" + UserConstant.MAX_EMAIL_LENGTH + "个字符";
+        }
+        if (row.getPhone() != null && row.getPhone().length() > UserConstant.MAX_PHONE_LENGTH) {
+            return "手机号不能超过" + UserConstant.MAX_PHONE_LENGTH + "个字符";
+        }
+        return null;
+    }
+
+    /**
+     * 过滤重复数据：先在块内去重，再用一条查询检查数据库中已存在的用户名、邮箱和手机号
+     * 用户名和邮箱按不区分大小写比较，与数据库默认排序规则下唯一索引的判断一致；
+     * 分片模式下查询依次发往所有分片，提前过滤已存在的数据，
+     * 跨分片的唯一性由之后在默认分片上的目录登记保证
+     *
+     * @param job  导入任务
+     * @param rows 当前块中校验通过的行
+     * @return 不重复的行
+     */
+    private List<NumberedRow> filterDuplicates(UserImportJob job, List<NumberedRow> rows) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        List<NumberedRow> unique = new ArrayList<>(rows.size());
+        for (NumberedRow row : rows) {
+            String email = lowerCase(emptyToNull(row.row().getEmail()));
+            String phone = emptyToNull(row.row().getPhone());
+            if (!usernames.add(lowerCase(row.row().getUsername()))
+                    || (email != null && !emails.add(email))
+                    || (phone != null && !phones.add(phone))) {
+                job.getDuplicates().incrementAndGet();
+            } else {
+                unique.add(row);
+            }
+        }
+        if (unique.isEmpty()) {
+            return unique;
+        }
+
+        StringBuilder sql = new StringBuilder("select username, email, phone from ")
+                .append(UserConstant.TABLE_NAME).append(" where username in (:usernames)");
+        MapSqlParameterSource params = new MapSqlParameterSource("usernames", usernames);
+        if (!emails.isEmpty()) {
+            sql.append(" or email in (:emails)");
+            params.addValue("emails", emails);
+        }
+        if (!phones.isEmpty()) {
+            sql.append(" or phone in (:phones)");
+            params.addValue("phones", phones);
+        }
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingPhones = new HashSet<>();
+        for (int shard = 0; shard < userRepository.getShardCount(); shard++) {
+            ShardContext.call(shard, () -> {
+                namedParameterJdbcTemplate.query(sql.toString(), params, rs -> {
+                    existingUsernames.add(lowerCase(rs.getString(1)));
+                    addIfPresent(existingEmails, lowerCase(rs.getString(2)));
+                    addIfPresent(existingPhones, rs.getString(3));
+                });
+                return null;
+            });
+        }
+        if (existingUsernames.isEmpty()) {
+            return unique;
+        }
+
+        List<NumberedRow> result = new ArrayList<>(unique.size());
+        for (NumberedRow row : unique) {
+            if (existingUsernames.contains(lowerCase(row.row().getUsername()))
+                    || existingEmails.contains(lowerCase(emptyToNull(row.row().getEmail())))
+                    || existingPhones.contains(emptyToNull(row.row().getPhone()))) {
+                job.getDuplicates().incrementAndGet();
+            } else {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按表头将CSV字段转换为导入行
+     *
+     * @param header 表头
+     * @param fields 字段
+     * @return 导入行
+     */
+    private UserImportRow toRow(String[] header, List<String> fields) {
+        UserImportRow row = new UserImportRow();
+        for (int i = 0; i < header.length && i < fields.size(); i++) {
+            String value = fields.get(i);
+            switch (header[i].trim()) {
+                case "username" -> row.setUsername(value);
+                case "password" -> row.setPassword(value);
+                case "email" -> row.setEmail(value);
+                case "phone" -> row.setPhone(value);
+                case "role" -> row.setRole(value);
+                case "status" -> row.setStatus(StringUtils.hasText(value) ? Integer.valueOf(value.trim()) : null);
+                default -> {
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 解析一行CSV，支持双引号包裹的字段和""转义
+     *
+     * @param line CSV行
+     * @return 字段列表
+     */
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 判断密码是否已是BCrypt哈希
+     *
+     * @param password 密码
+     * @return boolean 是否为BCrypt哈希
+     */
+    private boolean isBcrypt(String password) {
+        return password.length() == 60
+                && (password.startsWith("$2a$") || password.startsWith("$2b$") || password.startsWith("$2y$"));
+    }
+
+    private void addIfPresent(Set<String> values, String value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+
+    private String lowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete import file {}", file);
+        }
+    }
+
+    /**
+     * 带行号的导入行，用于错误报告
+     *
+     * @param line 行号，从1开始
+     * @param row  导入行
+     */
+    private record NumberedRow(long line, UserImportRow row) {
+    }
+}
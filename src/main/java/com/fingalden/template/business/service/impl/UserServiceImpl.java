@@ -0,0 +1,213 @@
+package com.fingalden.template.business.service.impl;
+
+import com.fingalden.template.business.dto.CursorPage;
+import com.fingalden.template.business.dto.UserSummary;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.business.service.OpaqueTokenStore;
+import com.fingalden.template.business.service.UserBloomFilters;
+import com.fingalden.template.business.service.UserSearchIndex;
+import com.fingalden.template.business.service.UserService;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.KeyNamespace;
+import com.fingalden.template.core.utils.KeyspaceRegistry;
+import com.fingalden.template.core.utils.OptimisticRetryUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户查询服务实现类
+ * 列表使用键集分页，每页多查一条判断是否有下一页，不执行COUNT；
+ * 需要总数时从Redis读取按过滤条件缓存的计数，未命中才统计一次；
+ * 修改操作基于版本号乐观锁，冲突时重新读取最新数据再应用修改
+ */
+@Service
+public class UserServiceImpl implements UserService {
+
+    /**
+     * 用户计数缓存键前缀
+     */
+    private static final String COUNT_KEY_PREFIX = "user:count:";
+
+    private final ShardedUserRepository userRepository;
+    private final OptimisticRetryUtils optimisticRetryUtils;
+    private final UserSearchIndex userSearchIndex;
+    private final UserBloomFilters userBloomFilters;
+    private final PasswordEncoder passwordEncoder;
+    private final OpaqueTokenStore opaqueTokenStore;
+
+    /**
+     * 用户计数缓存，键为过滤条件
+     */
+    private final KeyNamespace<Long> countCache;
+
+    /**
+     * 构造函数注入依赖，并注册用户计数缓存的键空间
+     *
+     * @param userRepository       分片用户数据访问组件
+     * @param optimisticRetryUtils 乐观锁重试工具
+     * @param userSearchIndex      用户前缀搜索索引
+     * @param userBloomFilters     用户唯一字段布隆过滤器
+     * @param passwordEncoder      密码编码器
+     * @param opaqueTokenStore     不透明访问令牌存储
+     * @param keyspaceRegistry     键空间注册表
+     * @param countTtl             计数缓存过期时间（秒）
+     */
+    @Autowired
+    public UserServiceImpl(ShardedUserRepository userRepository, OptimisticRetryUtils optimisticRetryUtils,
+                           UserSearchIndex userSearchIndex, UserBloomFilters userBloomFilters,
+                           PasswordEncoder passwordEncoder, OpaqueTokenStore opaqueTokenStore,
+                           KeyspaceRegistry keyspaceRegistry,
+                           @Value("${user.page.count-ttl:60}") long countTtl) {
+        this.userRepository = userRepository;
+        this.optimisticRetryUtils = optimisticRetryUtils;
+        this.userSearchIndex = userSearchIndex;
+        this.userBloomFilters = userBloomFilters;
+        this.passwordEncoder = passwordEncoder;
+        this.opaqueTokenStore = opaqueTokenStore;
+        this.countCache = keyspaceRegistry.register("user-count", COUNT_KEY_PREFIX, countTtl, TimeUnit.SECONDS,
+                0.1, new GenericToStringSerializer<>(Long.class));
+    }
+
+    @Override
+    public CursorPage<UserSummary> listUsers(String role, Integer status, Long afterId, int size, boolean withTotal) {
+        List<UserSummary> items = userRepository.findPageAfter(role, status, afterId, size + 1);
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = CursorPage.encodeCursor(items.get(size - 1).getId());
+        }
+        Long total = withTotal ? countUsers(role, status) : null;
+        return new CursorPage<>(items, nextCursor, total);
+    }
+
+    @Override
+    public List<UserSummary> searchUsers(String query, int limit) {
+        List<Long> ids = userSearchIndex.search(query, limit);
+        if (ids == null || ids.isEmpty()) {
+            return ids == null ? null : new ArrayList<>();
+        }
+        // 索引只保存ID，用户数据从二级缓存或数据库读取，并按索引给出的顺序排列
+        Map<Long, User> users = userRepository.findAllByIds(ids, ids.size()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<UserSummary> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                result.add(UserSummary.of(user));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public UserSummary register(String username, String password, String email, String phone) {
+        // 大多数注册的值是新的，布隆过滤器判断一定不存在时省去查询，只执行插入；
+        // 分片模式下邮箱和手机号的唯一索引只在各分片内生效，不能由索引兜底，总是查询所有分片
+        if (userRepository.isSharded() || userBloomFilters.mightExist(username, email, phone)) {
+            for (UserSummary conflict : userRepository.findConflicts(username, email, phone)) {
+                if (username.equalsIgnoreCase(conflict.getUsername())) {
+                    throw new DuplicateKeyException("用户名已存在");
+                }
+                if (email != null && email.equalsIgnoreCase(conflict.getEmail())) {
+                    throw new DuplicateKeyException("邮箱已被使用");
+                }
+                if (phone != null && phone.equals(conflict.getPhone())) {
+                    throw new DuplicateKeyException("手机号已被使用");
+                }
+            }
+        }
+
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setRole(UserConstant.DEFAULT_ROLE);
+        user.setStatus(UserConstant.STATUS_ENABLED);
+        try {
+            return UserSummary.of(userRepository.save(user));
+        } catch (DuplicateKeyException e) {
+            // 检查之后有并发注册，或其他节点新写入的值尚未进入本节点的过滤器，由唯一索引拦截；
+            // 字段超长等其他完整性错误不是重复，原样抛出
+            throw new DuplicateKeyException("用户名、邮箱或手机号已被使用", e);
+        }
+    }
+
+    @Override
+    public UserSummary updateProfile(Long id, String email, String phone) {
+        return update(id, user -> {
+            if (email != null) {
+                user.setEmail(email);
+            }
+            if (phone != null) {
+                user.setPhone(phone);
+            }
+        });
+    }
+
+    @Override
+    public UserSummary updateRole(Long id, String role) {
+        UserSummary user = update(id, changed -> changed.setRole(role));
+        // 不透明令牌的会话中保存了角色，角色变化后撤销该用户的所有会话
+        opaqueTokenStore.revokeUser(id);
+        return user;
+    }
+
+    @Override
+    public UserSummary updateStatus(Long id, Integer status) {
+        UserSummary user = update(id, changed -> changed.setStatus(status));
+        opaqueTokenStore.revokeUser(id);
+        return user;
+    }
+
+    /**
+     * 读取用户、应用修改并保存，版本冲突时整体重试
+     * 修改只设置目标值，重复应用的结果相同；未变化的字段不会出现在更新语句中
+     *
+     * @param id     用户ID
+     * @param change 修改操作
+     * @return 修改后的用户，用户不存在时返回null
+     */
+    private UserSummary update(Long id, Consumer<User> change) {
+        return optimisticRetryUtils.execute(() -> {
+            User user = userRepository.findById(id);
+            if (user == null) {
+                return null;
+            }
+            change.accept(user);
+            return UserSummary.of(userRepository.save(user));
+        });
+    }
+
+    /**
+     * 统计用户数，结果按过滤条件缓存，过期前返回的是近似值
+     * Redis不可用时直接查询数据库
+     *
+     * @param role   角色，为空时不过滤
+     * @param status 状态，为空时不过滤
+     * @return 用户数
+     */
+    private long countUsers(String role, Integer status) {
+        String id = (role == null ? "*" : role) + ":" + (status == null ? "*" : status);
+        Long cached = countCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long count = userRepository.countByFilter(role, status);
+        countCache.set(id, count);
+        return count;
+    }
+}
@@ -0,0 +1,45 @@
+package com.fingalden.template.common.constant;
+
+/**
+ * 批量导入导出的数据格式
+ */
+public enum DataFormat {
+
+    /**
+     * 逗号分隔，首行为表头
+     */
+    CSV("text/csv"),
+
+    /**
+     * 每行一个JSON对象
+     */
+    NDJSON("application/x-ndjson");
+
+    /**
+     * 对应的Content-Type
+     */
+    private final String contentType;
+
+    DataFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * 根据名称解析格式，忽略大小写
+     *
+     * @param name 格式名称，如csv、ndjson
+     * @return 数据格式，不支持时返回null
+     */
+    public static DataFormat of(String name) {
+        for (DataFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -77,4 +77,10 @@ public class HttpStatus {
      */
     public static final int BUSINESS_ERROR = 400;
     public static final String BUSINESS_ERROR_MSG = "业务逻辑错误";
-}
\ No newline at end of file
+
+    /**
+     * 数据冲突
+     */
+    public static final int DATA_CONFLICT = 409;
+    public static final String DATA_CONFLICT_MSG = "数据已被修改，请稍后重试";
+}
@@ -0,0 +1,58 @@
+package com.fingalden.template.common.constant;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排行榜周期枚举
+ * 每个周期对应一个独立的有序集合，按时间分桶的榜单在周期结束后自动过期
+ */
+public enum LeaderboardPeriod {
+
+    /**
+     * 总榜，永不过期
+     */
+    ALL(0),
+
+    /**
+     * 日榜，保留2天
+     */
+    DAILY(TimeUnit.DAYS.toSeconds(2)),
+
+    /**
+     * 周榜，保留8天
+     */
+    WEEKLY(TimeUnit.DAYS.toSeconds(8));
+
+    /**
+     * 榜单过期时间（秒），0表示永不过期
+     */
+    private final long expireSeconds;
+
+    LeaderboardPeriod(long expireSeconds) {
+        this.expireSeconds = expireSeconds;
+    }
+
+    public long getExpireSeconds() {
+        return expireSeconds;
+    }
+
+    /**
+     * 获取指定日期所在的时间桶后缀
+     *
+     * @param date 日期
+     * @return 时间桶后缀，如daily:20240101、weekly:2024W01，总榜返回all
+     */
+    public String bucket(LocalDate date) {
+        switch (this) {
+            case DAILY:
+                return "daily:" + date.getYear() + String.format("%02d%02d", date.getMonthValue(), date.getDayOfMonth());
+            case WEEKLY:
+                return "weekly:" + date.get(IsoFields.WEEK_BASED_YEAR) + "W"
+                        + String.format("%02d", date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            default:
+                return "all";
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.fingalden.template.common.constant;
+
+/**
+ * 用户变更事件类型
+ */
+public enum UserChangeType {
+
+    /**
+     * 新建用户
+     */
+    CREATED,
+
+    /**
+     * 修改用户
+     */
+    UPDATED,
+
+    /**
+     * 删除用户
+     */
+    DELETED
+}
@@ -0,0 +1,67 @@
+package com.fingalden.template.common.constant;
+
+/**
+ * 用户相关常量类
+ */
+public class UserConstant {
+
+    /**
+     * 用户表名
+     */
+    public static final String TABLE_NAME = "sys_user";
+
+    /**
+     * 用户变更事件发件箱表名
+     */
+    public static final String OUTBOX_TABLE_NAME = "sys_user_outbox";
+
+    /**
+     * 登录审计表名
+     */
+    public static final String LOGIN_AUDIT_TABLE_NAME = "sys_login_audit";
+
+    /**
+     * 权限表名
+     */
+    public static final String PERMISSION_TABLE_NAME = "sys_permission";
+
+    /**
+     * 角色权限关系表名
+     */
+    public static final String ROLE_PERMISSION_TABLE_NAME = "sys_role_permission";
+
+    /**
+     * 用户名最大长度，与表结构一致
+     */
+    public static final int MAX_USERNAME_LENGTH = 64;
+
+    /**
+     * 密码最大字节数，BCrypt只处理前72个字节，更长的密码会被拒绝
+     */
+    public static final int MAX_PASSWORD_BYTES = 72;
+
+    /**
+     * 邮箱最大长度，与表结构一致
+     */
+    public static final int MAX_EMAIL_LENGTH = 128;
+
+    /**
+     * 手机号最大长度，与表结构一致
+     */
+    public static final int MAX_PHONE_LENGTH = 20;
+
+    /**
+     * 默认角色
+     */
+    public static final String DEFAULT_ROLE = "ROLE_USER";
+
+    /**
+     * 用户状态：禁用
+     */
+    public static final int STATUS_DISABLED = 0;
+
+    /**
+     * 用户状态：启用
+     */
+    public static final int STATUS_ENABLED = 1;
+}
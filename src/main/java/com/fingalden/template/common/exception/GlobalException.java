@@ -3,9 +3,10 @@ package com.fingalden.template.common.exception;
 import com.fingalden.template.core.utils.RespBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.authentication.AuthenticationException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -169,6 +170,21 @@ public class GlobalException {
         return RespBean.error().code(500).message("系统内部错误: 算术异常");
     }
 
+    /**
+     * 处理乐观锁冲突异常
+     * 并发修改同一数据且重试次数用尽时会抛出此类异常
+     *
+     * @param e 乐观锁冲突异常对象
+     * @return 统一响应格式的RespBean对象
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public RespBean handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        logger.warn("乐观锁冲突: {}", e.getMessage());
+        return RespBean.error().code(com.fingalden.template.common.constant.HttpStatus.DATA_CONFLICT)
+                .message(com.fingalden.template.common.constant.HttpStatus.DATA_CONFLICT_MSG);
+    }
+
     /**
      * 处理运行时异常
      * 作为兜底异常处理，处理所有未被其他异常处理器处理的运行时异常
@@ -0,0 +1,196 @@
+package com.fingalden.template.core.config;
+
+import com.fingalden.template.core.utils.ReplicaRoutingDataSource;
+import com.fingalden.template.core.utils.ShardContext;
+import com.fingalden.template.core.utils.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据源配置类，按配置在三种模式中选择一种：
+ * 1. 默认：不做任何配置，使用Spring Boot自动配置的单数据源
+ * 2. 读写分离：配置datasource.replica.urls，只读事务路由到副本，其余操作路由到主库
+ * 3. 分片：配置sharding.urls，按ShardContext中的分片编号路由，优先于读写分离
+ * 主库、副本和分片的连接池均使用spring.datasource.hikari中的配置
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    /**
+     * 读写分离配置
+     * 连接在执行第一条语句时才真正获取，此时事务的只读标记已经设置
+     */
+    @Configuration
+    @ConditionalOnExpression("'${datasource.replica.urls:}' != '' && '${sharding.urls:}' == ''")
+    static class ReplicaConfiguration {
+
+        /**
+         * 配置读写分离数据源
+         *
+         * @param replicaRoutingDataSource 只读副本路由数据源
+         * @return 数据源实例
+         */
+        @Bean
+        @Primary
+        public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.getPrimary());
+            dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+            return dataSource;
+        }
+
+        /**
+         * 配置只读副本路由数据源
+         *
+         * @param properties    主库配置
+         * @param environment   环境配置
+         * @param replicaUrls   副本JDBC地址
+         * @param username      副本用户名，为空时与主库相同
+         * @param password      副本密码，为空时与主库相同
+         * @param lagQuery      复制延迟查询语句
+         * @param lagColumn     延迟秒数的列名
+         * @param maxLagSeconds 允许的最大复制延迟（秒）
+         * @return 只读副本路由数据源实例
+         */
+        @Bean(destroyMethod = "close")
+        public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                                 @Value("${datasource.replica.urls}") List<String> replicaUrls,
+                                                                 @Value("${datasource.replica.username:}") String username,
+                                                                 @Value("${datasource.replica.password:}") String password,
+                                                                 @Value("${datasource.replica.lag-query:}") String lagQuery,
+                                                                 @Value("${datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn,
+                                                                 @Value("${datasource.replica.max-lag:5}") long maxLagSeconds) {
+            HikariDataSource primary = createPool(environment, "primary", properties.determineUrl(),
+                    properties.determineUsername(), properties.determinePassword(), properties.determineDriverClassName());
+            List<HikariDataSource> replicas = new ArrayList<>();
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                replicas.add(createPool(environment, "replica-" + i, replicaUrls.get(i),
+                        username.isEmpty() ? properties.determineUsername() : username,
+                        password.isEmpty() ? properties.determinePassword() : password,
+                        properties.determineDriverClassName()));
+            }
+            return new ReplicaRoutingDataSource(primary, replicas, lagQuery, lagColumn, maxLagSeconds);
+        }
+
+        /**
+         * 配置写事务监听器
+         * 写事务提交后标记当前请求的读操作走主库；Spring Boot会将其注册到自动配置的事务管理器
+         *
+         * @return 事务监听器实例
+         */
+        @Bean
+        public TransactionExecutionListener primaryStickyListener() {
+            return new TransactionExecutionListener() {
+                @Override
+                public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                    if (commitFailure == null && !transaction.isReadOnly()) {
+                        ReplicaRoutingDataSource.markPrimarySticky();
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * 分片配置
+     * 分片0即spring.datasource.url对应的库，同时存放用户名和联系方式目录表；sharding.urls为其余分片的地址
+     */
+    @Configuration
+    @ConditionalOnExpression("'${sharding.urls:}' != ''")
+    static class ShardingConfiguration {
+
+        /**
+         * 配置分片路由数据源
+         *
+         * @param properties  分片0的配置
+         * @param environment 环境配置
+         * @param shardUrls   分片1及之后各分片的JDBC地址
+         * @return 分片路由数据源实例
+         */
+        @Bean(destroyMethod = "close")
+        public ShardRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                                 @Value("${sharding.urls}") List<String> shardUrls) {
+            List<HikariDataSource> shards = new ArrayList<>();
+            shards.add(createPool(environment, "shard-0", properties.determineUrl(),
+                    properties.determineUsername(), properties.determinePassword(), properties.determineDriverClassName()));
+            for (int i = 0; i < shardUrls.size(); i++) {
+                shards.add(createPool(environment, "shard-" + (i + 1), shardUrls.get(i),
+                        properties.determineUsername(), properties.determinePassword(), properties.determineDriverClassName()));
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        /**
+         * 配置分片表结构初始化
+         * Hibernate的ddl-auto只作用于分片0，开启sharding.init-schema后在其余分片上创建缺失的表，
+         * 用于本地嵌入式数据库测试；生产环境应通过数据库迁移脚本建表
+         *
+         * @param entityManagerFactory JPA实体管理器工厂
+         * @param dataSource           分片路由数据源
+         * @param initSchema           是否初始化表结构
+         * @return 初始化器实例
+         */
+        @Bean
+        public SmartInitializingSingleton shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                                 ShardRoutingDataSource dataSource,
+                                                                 @Value("${sharding.init-schema:false}") boolean initSchema) {
+            return () -> {
+                if (!initSchema) {
+                    return;
+                }
+                SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+                for (int shard = 1; shard < dataSource.getShardCount(); shard++) {
+                    ShardContext.call(shard, () -> {
+                        sessionFactory.getSchemaManager().exportMappedObjects(true);
+                        return null;
+                    });
+                    logger.info("Initialized schema on shard {}", shard);
+                }
+            };
+        }
+    }
+
+    /**
+     * 创建连接池
+     *
+     * @param environment 环境配置
+     * @param name        连接池名称
+     * @param url         JDBC地址
+     * @param username    用户名
+     * @param password    密码
+     * @param driver      驱动类名
+     * @return 连接池
+     */
+    private static HikariDataSource createPool(Environment environment, String name, String url,
+                                               String username, String password, String driver) {
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setDriverClassName(driver);
+        return dataSource;
+    }
+}
@@ -0,0 +1,92 @@
+package com.fingalden.template.core.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 业务线程池配置类
+ * 各类后台任务使用独立的有界线程池，互不影响，也不占用Web请求线程
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 配置用户导入任务线程池
+     * 同时运行的导入任务数有限，超出时拒绝提交
+     *
+     * @param poolSize 同时运行的导入任务数
+     * @return 线程池实例
+     */
+    @Bean
+    public Executor userImportExecutor(@Value("${user.import.max-jobs:2}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("user-import-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 配置密码哈希线程池
+     * BCrypt是CPU密集型计算，线程数默认等于CPU核数；队列满时由提交线程自行计算，形成背压
+     *
+     * @param poolSize 线程数，0表示使用CPU核数
+     * @return 线程池实例
+     */
+    @Bean
+    public Executor passwordHashExecutor(@Value("${user.import.hash-threads:0}") int poolSize) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 64);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 配置分片查询线程池
+     * 跨分片查询时各分片的查询并行执行；队列满时由提交线程自行查询
+     *
+     * @param poolSize 线程数
+     * @return 线程池实例
+     */
+    @Bean
+    public Executor shardQueryExecutor(@Value("${sharding.query-threads:8}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 16);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("shard-query-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 配置用户内存索引加载线程池
+     * 搜索索引、布隆过滤器等各自同一时间只加载一次；排队已满时再次提交的任务直接丢弃
+     *
+     * @return 线程池实例
+     */
+    @Bean
+    public Executor userIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(2);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setThreadNamePrefix("user-index-");
+        executor.initialize();
+        return executor;
+    }
+}
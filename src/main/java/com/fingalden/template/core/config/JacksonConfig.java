@@ -0,0 +1,79 @@
+package com.fingalden.template.core.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.fingalden.template.core.utils.JsonResponses;
+import com.fingalden.template.core.utils.RespBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson配置类
+ * 全局只使用Spring Boot自动配置的一个ObjectMapper（Web接口、服务层注入的ObjectMapper都是它）：
+ * 1. 注册Blackbird模块，属性读写由LambdaMetafactory生成的访问器完成，代替反射调用
+ * 2. Web接口的JSON转换器使用该ObjectMapper，内容固定的RespBean直接写出预先序列化的字节
+ * Redis的值序列化器需要保存类型信息，仍使用独立的ObjectMapper
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * 注册Blackbird模块，Spring Boot自动将Module类型的Bean加入ObjectMapper
+     *
+     * @return BlackbirdModule实例
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * 配置Web接口的JSON转换器，替换Spring Boot默认的转换器
+     *
+     * @param objectMapper  共享的ObjectMapper
+     * @param jsonResponses 预先序列化的常用响应
+     * @return JSON转换器
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   JsonResponses jsonResponses) {
+        return new PreparedResponseConverter(objectMapper, jsonResponses);
+    }
+
+    /**
+     * 内容固定的RespBean直接写出预先序列化的字节，其他对象按默认方式序列化
+     */
+    static class PreparedResponseConverter extends MappingJackson2HttpMessageConverter {
+
+        private final JsonResponses jsonResponses;
+
+        PreparedResponseConverter(ObjectMapper objectMapper, JsonResponses jsonResponses) {
+            super(objectMapper);
+            this.jsonResponses = jsonResponses;
+        }
+
+        @Override
+        protected Long getContentLength(Object object, MediaType contentType) throws IOException {
+            byte[] prepared = object instanceof RespBean<?> bean ? jsonResponses.lookup(bean) : null;
+            return prepared != null ? Long.valueOf(prepared.length) : super.getContentLength(object, contentType);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            byte[] prepared = object instanceof RespBean<?> bean ? jsonResponses.lookup(bean) : null;
+            if (prepared != null) {
+                outputMessage.getBody().write(prepared);
+                return;
+            }
+            super.writeInternal(object, type, outputMessage);
+        }
+    }
+}
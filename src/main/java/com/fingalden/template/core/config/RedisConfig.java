@@ -1,19 +1,38 @@
 package com.fingalden.template.core.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
 
 /**
  * Redis配置类，用于配置RedisTemplate的序列化方式
+ * 配置spring.data.redis.cluster.nodes后自动切换为集群模式，
+ * 拓扑刷新由spring.data.redis.lettuce.cluster.refresh配置
  */
 @Configuration
 public class RedisConfig {
 
+    /**
+     * JSON序列化器，用于序列化值，同步和响应式模板共用
+     */
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    /**
+     * 字符串序列化器，用于序列化键，同步和响应式模板共用
+     */
+    private final StringRedisSerializer stringSerializer = new StringRedisSerializer();
+
     /**
      * 配置RedisTemplate，设置键和值的序列化方式
      *
@@ -25,12 +44,6 @@ public class RedisConfig {
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(redisConnectionFactory);
         
-        // 创建Jackson2JsonRedisSerializer序列化器
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
-        
-        // 设置字符串序列化器，用于序列化键
-        StringRedisSerializer stringSerializer = new StringRedisSerializer();
-        
         // 设置键的序列化方式为字符串
         redisTemplate.setKeySerializer(stringSerializer);
         redisTemplate.setHashKeySerializer(stringSerializer);
@@ -44,4 +57,40 @@ public class RedisConfig {
         
         return redisTemplate;
     }
+
+    /**
+     * 配置ReactiveRedisTemplate，与RedisTemplate共用连接工厂和序列化方式
+     * 两者写入的数据可以互相读取
+     *
+     * @param reactiveRedisConnectionFactory 响应式Redis连接工厂
+     * @return 配置好的ReactiveRedisTemplate实例
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory reactiveRedisConnectionFactory) {
+        RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                .<String, Object>newSerializationContext(stringSerializer)
+                .value(jsonSerializer)
+                .hashKey(stringSerializer)
+                .hashValue(jsonSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, serializationContext);
+    }
+
+    /**
+     * 配置Redis批量操作线程池
+     * 集群模式下批量操作按节点分组后在此线程池中并行执行
+     *
+     * @param poolSize 线程数，不应小于集群主节点数
+     * @return 线程池实例
+     */
+    @Bean
+    public Executor redisBatchExecutor(@Value("${redis.batch.pool-size:8}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("redis-batch-");
+        executor.initialize();
+        return executor;
+    }
 }
\ No newline at end of file
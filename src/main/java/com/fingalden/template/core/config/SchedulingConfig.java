@@ -0,0 +1,13 @@
+package com.fingalden.template.core.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类，启用@Scheduled注解
+ * 用于缓冲数据的定时刷写、快照的定时刷新等后台任务
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
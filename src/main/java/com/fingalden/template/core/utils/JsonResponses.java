@@ -0,0 +1,141 @@
+package com.fingalden.template.core.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fingalden.template.common.constant.HttpStatus;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 预先序列化的常用响应
+ * 内容固定的响应（无数据的成功响应，认证过滤器的401和访问拒绝的403）在启动时用共享的ObjectMapper
+ * 序列化一次，之后每次直接写出同一个字节数组，不再创建RespBean，也不经过Jackson
+ */
+@Component
+public class JsonResponses {
+
+    /**
+     * 内容固定的响应
+     */
+    public enum Prepared {
+
+        /**
+         * 无数据的成功响应
+         */
+        SUCCESS(true, HttpStatus.SUCCESS, HttpStatus.SUCCESS_MSG),
+
+        /**
+         * 令牌已过期
+         */
+        TOKEN_EXPIRED(false, HttpStatus.UNAUTHORIZED, "Token expired"),
+
+        /**
+         * 令牌格式错误
+         */
+        INVALID_TOKEN_FORMAT(false, HttpStatus.UNAUTHORIZED, "Invalid token format"),
+
+        /**
+         * 不支持的令牌
+         */
+        UNSUPPORTED_TOKEN(false, HttpStatus.UNAUTHORIZED, "Unsupported token"),
+
+        /**
+         * 其他认证失败
+         */
+        AUTHENTICATION_FAILED(false, HttpStatus.UNAUTHORIZED, "Authentication failed"),
+
+        /**
+         * 访问被拒绝
+         */
+        ACCESS_DENIED(false, HttpStatus.FORBIDDEN, "Access Denied");
+
+        private final boolean success;
+        private final int code;
+        private final String message;
+
+        Prepared(boolean success, int code, String message) {
+            this.success = success;
+            this.code = code;
+            this.message = message;
+        }
+
+        /**
+         * 创建对应的RespBean，用于序列化
+         *
+         * @return RespBean对象
+         */
+        RespBean<Void> toRespBean() {
+            RespBean<Void> r = success ? RespBean.success(message) : RespBean.error(code, message);
+            return r.code(code);
+        }
+    }
+
+    /**
+     * 各响应序列化后的字节
+     */
+    private final Map<Prepared, byte[]> bodies = new EnumMap<>(Prepared.class);
+
+    /**
+     * 构造函数注入共享的ObjectMapper，序列化所有固定响应
+     *
+     * @param objectMapper ObjectMapper实例
+     * @throws JsonProcessingException 序列化失败
+     */
+    @Autowired
+    public JsonResponses(ObjectMapper objectMapper) throws JsonProcessingException {
+        for (Prepared prepared : Prepared.values()) {
+            bodies.put(prepared, objectMapper.writeValueAsBytes(prepared.toRespBean()));
+        }
+    }
+
+    /**
+     * 获取固定响应序列化后的字节
+     *
+     * @param prepared 固定响应
+     * @return 字节数组，调用方不得修改
+     */
+    public byte[] bytes(Prepared prepared) {
+        return bodies.get(prepared);
+    }
+
+    /**
+     * 查找与RespBean内容相同的固定响应
+     *
+     * @param bean 响应对象
+     * @return 序列化后的字节，没有数据且状态、状态码、消息与某个固定响应一致时返回，否则返回null
+     */
+    public byte[] lookup(RespBean<?> bean) {
+        if (bean.getData() != null || bean.getSuccess() == null || bean.getCode() == null) {
+            return null;
+        }
+        for (Prepared prepared : Prepared.values()) {
+            if (prepared.code == bean.getCode() && prepared.success == bean.getSuccess()
+                    && Objects.equals(prepared.message, bean.getMessage())) {
+                return bodies.get(prepared);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将固定响应写入HttpServletResponse，HTTP状态码与响应状态码一致
+     *
+     * @param response HttpServletResponse对象
+     * @param prepared 固定响应
+     * @throws IOException 写出失败
+     */
+    public void write(HttpServletResponse response, Prepared prepared) throws IOException {
+        byte[] body = bodies.get(prepared);
+        response.setStatus(prepared.code);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -2,6 +2,7 @@ package com.fingalden.template.core.utils;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -43,15 +44,48 @@ public class JwtUtils {
     @Value("${jwt.refresh-expire:2592000000}")
     private long refreshExpire;
 
+    /**
+     * 签名密钥，首次使用时创建后复用
+     */
+    private volatile Key signingKey;
+
+    /**
+     * token解析器，首次使用时创建后复用
+     */
+    private volatile JwtParser parser;
+
     /**
      * 获取JWT签名密钥
-     * 将字符串密钥转换为Key对象，用于JWT的签名和验证
+     * 将字符串密钥转换为Key对象，用于JWT的签名和验证；密钥只创建一次，不在每次签名、验证时重复创建
      *
      * @return Key对象
      */
     private Key getSigningKey() {
-        // 使用Keys.hmacShaKeyFor方法创建密钥，该方法会根据密钥长度自动选择合适的算法
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        Key key = signingKey;
+        if (key == null) {
+            // 使用Keys.hmacShaKeyFor方法创建密钥，该方法会根据密钥长度自动选择合适的算法
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * 获取访问token的有效期
+     *
+     * @return 有效期（毫秒）
+     */
+    public long getExpire() {
+        return expire;
+    }
+
+    /**
+     * 获取刷新token的有效期
+     *
+     * @return 有效期（毫秒）
+     */
+    public long getRefreshExpire() {
+        return refreshExpire;
     }
 
     /**
@@ -98,6 +132,29 @@ public class JwtUtils {
                 .compact();
     }
 
+    /**
+     * 生成可轮换的刷新token
+     * 同一次登录产生的刷新token属于同一个令牌族（familyId），每次刷新换发新的tokenId，
+     * 服务端只记录令牌族当前有效的tokenId，旧token被重复使用时可以识别出来
+     *
+     * @param userId   用户ID
+     * @param username 用户名
+     * @param familyId 令牌族ID
+     * @param tokenId  token ID
+     * @return 刷新token字符串
+     */
+    public String generateRefreshToken(Long userId, String username, String familyId, String tokenId) {
+        return Jwts.builder()
+                .subject(username)
+                .id(tokenId)
+                .claim("userId", userId)
+                .claim("fid", familyId)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + refreshExpire))
+                .signWith(getSigningKey()) // 按密钥长度选择HMAC算法
+                .compact();
+    }
+
     /**
      * 解析JWT token，获取Claims对象
      * Claims包含了token中的所有声明信息
@@ -110,9 +167,15 @@ public class JwtUtils {
      * @throws IllegalArgumentException token参数为空
      */
     public Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey()) // 设置签名密钥
-                .build()
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            // 解析器是线程安全的，创建一次后复用
+            jwtParser = Jwts.parser()
+                    .setSigningKey(getSigningKey()) // 设置签名密钥
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser
                 .parseClaimsJws(token) // 解析token
                 .getBody(); // 获取Claims对象
     }
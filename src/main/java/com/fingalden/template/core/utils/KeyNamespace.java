@@ -0,0 +1,139 @@
+package com.fingalden.template.core.utils;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis键命名空间，由KeyspaceRegistry统一注册和创建
+ * 每个命名空间包含固定的键前缀、带随机抖动的默认过期时间以及独立的值序列化器，
+ * 通过命名空间读写的键可以被内存采样器按功能归类统计
+ *
+ * @param <T> 值类型
+ */
+public class KeyNamespace<T> {
+
+    /**
+     * 命名空间名称，用于指标标签和管理接口展示
+     */
+    private final String name;
+
+    /**
+     * 键前缀，如user:session:
+     */
+    private final String prefix;
+
+    /**
+     * 默认过期时间（毫秒），0表示永不过期
+     */
+    private final long ttlMillis;
+
+    /**
+     * 过期时间抖动比例，如0.1表示在默认过期时间基础上随机增加0~10%
+     * 避免同一批写入的键在同一时刻集中过期
+     */
+    private final double jitterRatio;
+
+    /**
+     * 使用本命名空间序列化器的RedisTemplate
+     */
+    private final RedisTemplate<String, T> redisTemplate;
+
+    KeyNamespace(String name, String prefix, long ttlMillis, double jitterRatio, RedisTemplate<String, T> redisTemplate) {
+        this.name = name;
+        this.prefix = prefix;
+        this.ttlMillis = ttlMillis;
+        this.jitterRatio = jitterRatio;
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * 拼接完整的Redis键
+     *
+     * @param id 业务标识
+     * @return 完整键，如user:session:1001
+     */
+    public String key(String id) {
+        return prefix + id;
+    }
+
+    /**
+     * 计算一次写入使用的过期时间，在默认过期时间基础上加入随机抖动
+     *
+     * @return 过期时间（毫秒），0表示永不过期
+     */
+    public long nextTtlMillis() {
+        if (ttlMillis <= 0 || jitterRatio <= 0) {
+            return ttlMillis;
+        }
+        return ttlMillis + (long) (ttlMillis * jitterRatio * ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 设置值，使用命名空间的默认过期时间
+     *
+     * @param id    业务标识
+     * @param value 值
+     * @return boolean 操作是否成功
+     */
+    public boolean set(String id, T value) {
+        try {
+            long ttl = nextTtlMillis();
+            if (ttl > 0) {
+                redisTemplate.opsForValue().set(key(id), value, ttl, TimeUnit.MILLISECONDS);
+            } else {
+                redisTemplate.opsForValue().set(key(id), value);
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 获取值
+     *
+     * @param id 业务标识
+     * @return 值，不存在或读取失败时返回null
+     */
+    public T get(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return redisTemplate.opsForValue().get(key(id));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 删除值
+     *
+     * @param id 业务标识
+     * @return boolean 是否删除了键
+     */
+    public boolean delete(String id) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.delete(key(id)));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.fingalden.template.core.utils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis键空间内存采样器
+ * 定时使用SCAN遍历全部键，按KeyspaceRegistry中注册的前缀归类计数，
+ * 每个命名空间以蓄水池抽样选取部分键执行MEMORY USAGE，用平均值估算总内存，
+ * 结果导出为redis.keyspace.keys和redis.keyspace.bytes指标，并可通过管理接口查询；
+ * SCAN或MEMORY USAGE中途失败时结果标记为不完整，只供管理接口查看，不更新指标
+ */
+@Component
+public class KeyspaceMemorySampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyspaceMemorySampler.class);
+
+    /**
+     * 未匹配任何已注册前缀的键归入的命名空间名称
+     */
+    public static final String UNREGISTERED = "unregistered";
+
+    private final RedisUtils redisUtils;
+    private final KeyspaceRegistry keyspaceRegistry;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 每个命名空间参与MEMORY USAGE采样的键数量上限，从配置文件读取
+     */
+    @Value("${redis.keyspace.sample-size:200}")
+    private int sampleSize;
+
+    /**
+     * 每次SCAN的建议返回数量，从配置文件读取
+     */
+    @Value("${redis.keyspace.scan-count:1000}")
+    private long scanCount;
+
+    /**
+     * 最近一次采样结果，键为命名空间名称
+     */
+    private volatile Map<String, KeyspaceStats> latest = Collections.emptyMap();
+
+    /**
+     * 指标值，键为命名空间名称，值为[键数量, 估算字节数]
+     */
+    private final Map<String, AtomicLong[]> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数注入依赖
+     *
+     * @param redisUtils       Redis工具类
+     * @param keyspaceRegistry 键空间注册表
+     * @param meterRegistry    指标注册表
+     */
+    @Autowired
+    public KeyspaceMemorySampler(RedisUtils redisUtils, KeyspaceRegistry keyspaceRegistry, MeterRegistry meterRegistry) {
+        this.redisUtils = redisUtils;
+        this.keyspaceRegistry = keyspaceRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 获取最近一次采样结果
+     *
+     * @return 各命名空间的统计结果，按估算内存从大到小排列
+     */
+    public List<KeyspaceStats> getLatest() {
+        List<KeyspaceStats> stats = new ArrayList<>(latest.values());
+        stats.sort(Comparator.comparingLong(KeyspaceStats::getEstimatedBytes).reversed());
+        return stats;
+    }
+
+    /**
+     * 定时执行一次完整采样
+     * 同一时刻只允许一次采样运行，管理接口手动触发时与定时任务互斥
+     */
+    @Scheduled(initialDelayString = "${redis.keyspace.sample-interval:300000}",
+            fixedDelayString = "${redis.keyspace.sample-interval:300000}")
+    public synchronized void sample() {
+        long start = System.currentTimeMillis();
+        Map<String, long[]> counts = new HashMap<>();
+        Map<String, List<String>> reservoirs = new HashMap<>();
+        long scanned = redisUtils.scan("*", scanCount, key -> {
+            KeyNamespace<?> namespace = keyspaceRegistry.match(key);
+            String name = namespace == null ? UNREGISTERED : namespace.getName();
+            long seen = ++counts.computeIfAbsent(name, n -> new long[1])[0];
+            List<String> reservoir = reservoirs.computeIfAbsent(name, n -> new ArrayList<>(sampleSize));
+            // 蓄水池抽样：第seen个键以sampleSize/seen的概率替换已有样本
+            if (reservoir.size() < sampleSize) {
+                reservoir.add(key);
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(seen);
+                if (slot < sampleSize) {
+                    reservoir.set((int) slot, key);
+                }
+            }
+        });
+
+        boolean scanComplete = scanned >= 0;
+        Map<String, KeyspaceStats> result = new HashMap<>();
+        for (KeyNamespace<?> namespace : keyspaceRegistry.all()) {
+            result.put(namespace.getName(), new KeyspaceStats(namespace.getName(), 0, 0, 0, start, scanComplete));
+        }
+        counts.forEach((name, count) -> {
+            List<String> reservoir = reservoirs.get(name);
+            List<Long> usages = redisUtils.memoryUsage(reservoir);
+            // 管道执行失败时返回空列表
+            boolean complete = scanComplete && usages.size() == reservoir.size();
+            long total = 0;
+            long sampled = 0;
+            for (Long usage : usages) {
+                if (usage != null) {
+                    total += usage;
+                    sampled++;
+                }
+            }
+            long estimated = sampled == 0 ? 0 : total * count[0] / sampled;
+            result.put(name, new KeyspaceStats(name, count[0], sampled, estimated, start, complete));
+        });
+        latest = result;
+        if (result.values().stream().allMatch(KeyspaceStats::isComplete)) {
+            result.values().forEach(this::export);
+            logger.debug("Sampled Redis keyspace in {} ms: {}", System.currentTimeMillis() - start, result.values());
+        } else {
+            logger.warn("Redis keyspace sample failed partway, metrics not updated: {}", result.values());
+        }
+    }
+
+    /**
+     * 更新指标值，命名空间首次出现时注册指标
+     *
+     * @param stats 统计结果
+     */
+    private void export(KeyspaceStats stats) {
+        AtomicLong[] values = gauges.computeIfAbsent(stats.getNamespace(), name -> {
+            AtomicLong[] holders = {new AtomicLong(), new AtomicLong()};
+            Gauge.builder("redis.keyspace.keys", holders[0], AtomicLong::get)
+                    .tag("namespace", name)
+                    .description("Number of Redis keys in the namespace")
+                    .register(meterRegistry);
+            Gauge.builder("redis.keyspace.bytes", holders[1], AtomicLong::get)
+                    .tag("namespace", name)
+                    .baseUnit("bytes")
+                    .description("Estimated Redis memory used by the namespace")
+                    .register(meterRegistry);
+            return holders;
+        });
+        values[0].set(stats.getKeyCount());
+        values[1].set(stats.getEstimatedBytes());
+    }
+}
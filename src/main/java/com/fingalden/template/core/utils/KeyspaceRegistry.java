@@ -0,0 +1,124 @@
+package com.fingalden.template.core.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis键空间注册表
+ * 各功能模块在此注册自己的键命名空间（前缀、默认过期时间、序列化器），
+ * 内存采样器据此将Redis中的键按命名空间归类，统计各功能占用的键数量和内存
+ */
+@Component
+public class KeyspaceRegistry {
+
+    /**
+     * Redis连接工厂，所有命名空间共享
+     */
+    private final RedisConnectionFactory redisConnectionFactory;
+
+    /**
+     * 已注册的命名空间，键为命名空间名称
+     */
+    private final Map<String, KeyNamespace<?>> namespaces = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数注入RedisConnectionFactory
+     *
+     * @param redisConnectionFactory Redis连接工厂
+     */
+    @Autowired
+    public KeyspaceRegistry(RedisConnectionFactory redisConnectionFactory) {
+        this.redisConnectionFactory = redisConnectionFactory;
+    }
+
+    /**
+     * 注册命名空间，值使用JSON序列化
+     *
+     * @param name        命名空间名称
+     * @param prefix      键前缀
+     * @param ttl         默认过期时间，0表示永不过期
+     * @param timeUnit    时间单位
+     * @param jitterRatio 过期时间抖动比例
+     * @return 命名空间
+     */
+    public KeyNamespace<Object> register(String name, String prefix, long ttl, TimeUnit timeUnit, double jitterRatio) {
+        return register(name, prefix, ttl, timeUnit, jitterRatio, new GenericJackson2JsonRedisSerializer());
+    }
+
+    /**
+     * 注册命名空间
+     * 同名命名空间重复注册时返回已有实例
+     *
+     * @param name        命名空间名称
+     * @param prefix      键前缀
+     * @param ttl         默认过期时间，0表示永不过期
+     * @param timeUnit    时间单位
+     * @param jitterRatio 过期时间抖动比例
+     * @param serializer  值序列化器
+     * @param <T>         值类型
+     * @return 命名空间
+     */
+    @SuppressWarnings("unchecked")
+    public <T> KeyNamespace<T> register(String name, String prefix, long ttl, TimeUnit timeUnit,
+                                        double jitterRatio, RedisSerializer<T> serializer) {
+        for (KeyNamespace<?> existing : namespaces.values()) {
+            if (!existing.getName().equals(name)
+                    && (existing.getPrefix().startsWith(prefix) || prefix.startsWith(existing.getPrefix()))) {
+                throw new IllegalArgumentException("Key prefix '" + prefix + "' overlaps namespace " + existing.getName());
+            }
+        }
+        return (KeyNamespace<T>) namespaces.computeIfAbsent(name, n -> {
+            RedisTemplate<String, T> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(redisConnectionFactory);
+            redisTemplate.setKeySerializer(new StringRedisSerializer());
+            redisTemplate.setValueSerializer(serializer);
+            redisTemplate.afterPropertiesSet();
+            return new KeyNamespace<>(n, prefix, timeUnit.toMillis(ttl), jitterRatio, redisTemplate);
+        });
+    }
+
+    /**
+     * 根据名称获取命名空间
+     *
+     * @param name 命名空间名称
+     * @return 命名空间，未注册时返回null
+     */
+    public KeyNamespace<?> get(String name) {
+        return namespaces.get(name);
+    }
+
+    /**
+     * 获取所有已注册的命名空间
+     *
+     * @return 命名空间列表
+     */
+    public List<KeyNamespace<?>> all() {
+        return new ArrayList<>(namespaces.values());
+    }
+
+    /**
+     * 根据键查找所属命名空间
+     *
+     * @param key Redis键
+     * @return 命名空间，未匹配任何前缀时返回null
+     */
+    public KeyNamespace<?> match(String key) {
+        for (KeyNamespace<?> namespace : namespaces.values()) {
+            if (key.startsWith(namespace.getPrefix())) {
+                return namespace;
+            }
+        }
+        return null;
+    }
+}
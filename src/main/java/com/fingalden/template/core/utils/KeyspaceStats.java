@@ -0,0 +1,44 @@
+package com.fingalden.template.core.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 命名空间内存统计结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyspaceStats {
+
+    /**
+     * 命名空间名称，未注册前缀的键归入unregistered
+     */
+    private String namespace;
+
+    /**
+     * 键数量
+     */
+    private long keyCount;
+
+    /**
+     * 参与MEMORY USAGE采样的键数量
+     */
+    private long sampledKeys;
+
+    /**
+     * 按采样平均值估算的总内存（字节）
+     */
+    private long estimatedBytes;
+
+    /**
+     * 采样完成时间（毫秒时间戳）
+     */
+    private long sampledAt;
+
+    /**
+     * 采样是否完整；SCAN或MEMORY USAGE中途失败时为false，此时键数量和内存只是部分结果
+     */
+    private boolean complete;
+}
@@ -0,0 +1,76 @@
+package com.fingalden.template.core.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 乐观锁重试工具类
+ * 操作因版本冲突失败时，按指数退避加随机抖动等待后重新执行，超过最大次数后抛出最后一次的冲突异常。
+ * 每次重试都会重新执行整个操作，操作内必须重新读取数据，且重复执行的结果与执行一次相同
+ */
+@Component
+public class OptimisticRetryUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryUtils.class);
+
+    /**
+     * 最大执行次数，包含第一次
+     */
+    @Value("${retry.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * 第一次重试前的等待时间（毫秒）
+     */
+    @Value("${retry.optimistic.initial-backoff:10}")
+    private long initialBackoff;
+
+    /**
+     * 单次等待时间上限（毫秒）
+     */
+    @Value("${retry.optimistic.max-backoff:200}")
+    private long maxBackoff;
+
+    /**
+     * 执行操作，版本冲突时重试
+     *
+     * @param action 操作，必须可以安全地重复执行
+     * @param <T>    返回值类型
+     * @return 操作的返回值
+     * @throws OptimisticLockingFailureException 达到最大次数后仍然冲突
+     */
+    public <T> T execute(Supplier<T> action) {
+        long backoff = initialBackoff;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("Optimistic lock conflict persisted after {} attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+                backoff = Math.min(backoff * 2, maxBackoff);
+            }
+        }
+    }
+
+    /**
+     * 等待指定时间，被中断时保留中断标记并立即返回
+     *
+     * @param millis 等待时间（毫秒）
+     */
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,590 @@
+package com.fingalden.template.core.utils;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应式Redis工具类，提供与RedisUtils相同的常见Redis操作
+ * 基于ReactiveRedisTemplate实现，所有方法返回Mono/Flux，不阻塞调用线程。
+ * Lettuce在同一连接上并发发出的命令不等待上一条响应，多个操作同时订阅即自动形成管道。
+ * 与RedisUtils共用连接工厂和序列化方式，两者写入的数据可以互相读取
+ */
+@Component
+public class ReactiveRedisUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRedisUtils.class);
+
+    /**
+     * ReactiveRedisTemplate实例，用于操作Redis
+     */
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    /**
+     * 构造函数注入ReactiveRedisTemplate
+     *
+     * @param reactiveRedisTemplate ReactiveRedisTemplate实例
+     */
+    @Autowired
+    public ReactiveRedisUtils(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+    }
+
+    // ============================== 字符串操作 ==============================
+
+    /**
+     * 设置字符串值
+     *
+     * @param key   键
+     * @param value 值
+     * @return Mono<Boolean> 操作是否成功
+     */
+    public Mono<Boolean> set(String key, Object value) {
+        return orFalse(reactiveRedisTemplate.opsForValue().set(key, value));
+    }
+
+    /**
+     * 设置字符串值，并指定过期时间
+     *
+     * @param key      键
+     * @param value    值
+     * @param time     过期时间
+     * @param timeUnit 时间单位
+     * @return Mono<Boolean> 操作是否成功
+     */
+    public Mono<Boolean> set(String key, Object value, long time, TimeUnit timeUnit) {
+        return orFalse(reactiveRedisTemplate.opsForValue().set(key, value, Duration.ofMillis(timeUnit.toMillis(time))));
+    }
+
+    /**
+     * 获取字符串值
+     *
+     * @param key 键
+     * @return Mono<Object> 值，不存在时为空Mono
+     */
+    public Mono<Object> get(String key) {
+        return key == null ? Mono.empty() : reactiveRedisTemplate.opsForValue().get(key);
+    }
+
+    /**
+     * 批量获取字符串值
+     *
+     * @param keys 键集合
+     * @return Mono<Map<String, Object>> 存在的键值对，不存在的键不包含在结果中
+     */
+    public Mono<Map<String, Object>> multiGet(Collection<String> keys) {
+        List<String> keyList = new ArrayList<>(keys);
+        if (keyList.isEmpty()) {
+            return Mono.just(new HashMap<>());
+        }
+        return reactiveRedisTemplate.opsForValue().multiGet(keyList)
+                .map(values -> {
+                    Map<String, Object> result = new HashMap<>();
+                    for (int i = 0; i < keyList.size(); i++) {
+                        if (values.get(i) != null) {
+                            result.put(keyList.get(i), values.get(i));
+                        }
+                    }
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    logger.error("Redis multiGet failed: {}", e.getMessage(), e);
+                    return Mono.just(new HashMap<>());
+                });
+    }
+
+    /**
+     * 删除键
+     *
+     * @param key 键
+     * @return Mono<Boolean> 是否删除了键
+     */
+    public Mono<Boolean> delete(String key) {
+        return orFalse(reactiveRedisTemplate.delete(key).map(count -> count > 0));
+    }
+
+    /**
+     * 批量删除键
+     *
+     * @param keys 键集合
+     * @return Mono<Long> 删除的键数量
+     */
+    public Mono<Long> delete(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return orZero(reactiveRedisTemplate.delete(keys.toArray(new String[0])));
+    }
+
+    /**
+     * 设置键的过期时间
+     *
+     * @param key      键
+     * @param time     过期时间
+     * @param timeUnit 时间单位
+     * @return Mono<Boolean> 操作是否成功
+     */
+    public Mono<Boolean> expire(String key, long time, TimeUnit timeUnit) {
+        if (time <= 0) {
+            return Mono.just(true);
+        }
+        return orFalse(reactiveRedisTemplate.expire(key, Duration.ofMillis(timeUnit.toMillis(time))));
+    }
+
+    /**
+     * 获取键的过期时间
+     *
+     * @param key      键
+     * @param timeUnit 时间单位
+     * @return Mono<Long> 过期时间，-1表示永久有效，-2表示键不存在
+     */
+    public Mono<Long> getExpire(String key, TimeUnit timeUnit) {
+        return reactiveRedisTemplate.getExpire(key)
+                .map(duration -> duration.isNegative() ? duration.getSeconds() : timeUnit.convert(duration))
+                .defaultIfEmpty(-2L)
+                .onErrorReturn(-2L);
+    }
+
+    /**
+     * 判断键是否存在
+     *
+     * @param key 键
+     * @return Mono<Boolean> 键是否存在
+     */
+    public Mono<Boolean> hasKey(String key) {
+        return orFalse(reactiveRedisTemplate.hasKey(key));
+    }
+
+    /**
+     * 递增操作
+     *
+     * @param key   键
+     * @param delta 递增步长
+     * @return Mono<Long> 递增后的值
+     */
+    public Mono<Long> increment(String key, long delta) {
+        if (delta < 0) {
+            return Mono.error(new RuntimeException("递增步长必须大于0"));
+        }
+        return reactiveRedisTemplate.opsForValue().increment(key, delta);
+    }
+
+    /**
+     * 递减操作
+     *
+     * @param key   键
+     * @param delta 递减步长
+     * @return Mono<Long> 递减后的值
+     */
+    public Mono<Long> decrement(String key, long delta) {
+        if (delta < 0) {
+            return Mono.error(new RuntimeException("递减步长必须大于0"));
+        }
+        return reactiveRedisTemplate.opsForValue().decrement(key, delta);
+    }
+
+    // ============================== 哈希操作 ==============================
+
+    /**
+     * 设置哈希值
+     *
+     * @param key     键
+     * @param hashKey 哈希键
+     * @param value   值
+     * @return Mono<Boolean> 操作是否成功
+     */
+    public Mono<Boolean> hSet(String key, String hashKey, Object value) {
+        return orFalse(reactiveRedisTemplate.<String, Object>opsForHash().put(key, hashKey, value).thenReturn(true));
+    }
+
+    /**
+     * 设置整个哈希表
+     *
+     * @param key 键
+     * @param map 哈希表
+     * @return Mono<Boolean> 操作是否成功
+     */
+    public Mono<Boolean> hSetAll(String key, Map<String, Object> map) {
+        return orFalse(reactiveRedisTemplate.<String, Object>opsForHash().putAll(key, map));
+    }
+
+    /**
+     * 获取哈希值
+     *
+     * @param key     键
+     * @param hashKey 哈希键
+     * @return Mono<Object> 值，不存在时为空Mono
+     */
+    public Mono<Object> hGet(String key, String hashKey) {
+        return reactiveRedisTemplate.<String, Object>opsForHash().get(key, hashKey);
+    }
+
+    /**
+     * 获取整个哈希表
+     *
+     * @param key 键
+     * @return Mono<Map<String, Object>> 哈希表
+     */
+    public Mono<Map<String, Object>> hGetAll(String key) {
+        return reactiveRedisTemplate.<String, Object>opsForHash().entries(key)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * 删除哈希表中的多个键
+     *
+     * @param key      键
+     * @param hashKeys 哈希键数组
+     * @return Mono<Long> 删除的键数量
+     */
+    public Mono<Long> hDelete(String key, Object... hashKeys) {
+        return orZero(reactiveRedisTemplate.opsForHash().remove(key, hashKeys));
+    }
+
+    /**
+     * 判断哈希键是否存在
+     *
+     * @param key     键
+     * @param hashKey 哈希键
+     * @return Mono<Boolean> 哈希键是否存在
+     */
+    public Mono<Boolean> hHasKey(String key, String hashKey) {
+        return orFalse(reactiveRedisTemplate.opsForHash().hasKey(key, hashKey));
+    }
+
+    /**
+     * 哈希值递增
+     *
+     * @param key     键
+     * @param hashKey 哈希键
+     * @param delta   递增步长
+     * @return Mono<Double> 递增后的值
+     */
+    public Mono<Double> hIncrement(String key, String hashKey, double delta) {
+        return reactiveRedisTemplate.<String, Object>opsForHash().increment(key, hashKey, delta);
+    }
+
+    // ============================== 列表操作 ==============================
+
+    /**
+     * 向列表左侧添加元素
+     *
+     * @param key   键
+     * @param value 值
+     * @return Mono<Long> 列表长度
+     */
+    public Mono<Long> lLeftPush(String key, Object value) {
+        return orZero(reactiveRedisTemplate.opsForList().leftPush(key, value));
+    }
+
+    /**
+     * 向列表右侧添加元素
+     *
+     * @param key   键
+     * @param value 值
+     * @return Mono<Long> 列表长度
+     */
+    public Mono<Long> lRightPush(String key, Object value) {
+        return orZero(reactiveRedisTemplate.opsForList().rightPush(key, value));
+    }
+
+    /**
+     * 向列表右侧添加多个元素
+     *
+     * @param key    键
+     * @param values 值集合
+     * @return Mono<Long> 列表长度
+     */
+    public Mono<Long> lRightPushAll(String key, Collection<Object> values) {
+        return orZero(reactiveRedisTemplate.opsForList().rightPushAll(key, values));
+    }
+
+    /**
+     * 获取列表指定范围内的元素
+     *
+     * @param key   键
+     * @param start 开始索引（0表示第一个元素）
+     * @param end   结束索引（-1表示最后一个元素）
+     * @return Flux<Object> 元素流
+     */
+    public Flux<Object> lRange(String key, long start, long end) {
+        return orEmpty(reactiveRedisTemplate.opsForList().range(key, start, end));
+    }
+
+    /**
+     * 截取列表，只保留指定范围内的元素
+     *
+     * @param key   键
+     * @param start 开始索引
+     * @param end   结束索引
+     * @return Mono<Boolean> 操作是否成功
+     */
+    public Mono<Boolean> lTrim(String key, long start, long end) {
+        return orFalse(reactiveRedisTemplate.opsForList().trim(key, start, end));
+    }
+
+    /**
+     * 获取列表长度
+     *
+     * @param key 键
+     * @return Mono<Long> 列表长度
+     */
+    public Mono<Long> lSize(String key) {
+        return orZero(reactiveRedisTemplate.opsForList().size(key));
+    }
+
+    /**
+     * 移除列表中与指定值相等的元素
+     *
+     * @param key   键
+     * @param count 移除数量，含义同RedisUtils.lRemove
+     * @param value 值
+     * @return Mono<Long> 移除的元素数量
+     */
+    public Mono<Long> lRemove(String key, long count, Object value) {
+        return orZero(reactiveRedisTemplate.opsForList().remove(key, count, value));
+    }
+
+    // ============================== 集合操作 ==============================
+
+    /**
+     * 向集合添加元素
+     *
+     * @param key    键
+     * @param values 值数组
+     * @return Mono<Long> 添加的元素数量
+     */
+    public Mono<Long> sAdd(String key, Object... values) {
+        return orZero(reactiveRedisTemplate.opsForSet().add(key, values));
+    }
+
+    /**
+     * 获取集合所有元素
+     *
+     * @param key 键
+     * @return Flux<Object> 元素流
+     */
+    public Flux<Object> sMembers(String key) {
+        return orEmpty(reactiveRedisTemplate.opsForSet().members(key));
+    }
+
+    /**
+     * 判断集合中是否包含指定元素
+     *
+     * @param key   键
+     * @param value 值
+     * @return Mono<Boolean> 是否包含
+     */
+    public Mono<Boolean> sIsMember(String key, Object value) {
+        return orFalse(reactiveRedisTemplate.opsForSet().isMember(key, value));
+    }
+
+    /**
+     * 获取集合大小
+     *
+     * @param key 键
+     * @return Mono<Long> 集合大小
+     */
+    public Mono<Long> sSize(String key) {
+        return orZero(reactiveRedisTemplate.opsForSet().size(key));
+    }
+
+    /**
+     * 移除集合中的元素
+     *
+     * @param key    键
+     * @param values 值数组
+     * @return Mono<Long> 移除的元素数量
+     */
+    public Mono<Long> sRemove(String key, Object... values) {
+        return orZero(reactiveRedisTemplate.opsForSet().remove(key, values));
+    }
+
+    // ============================== 有序集合操作 ==============================
+
+    /**
+     * 向有序集合添加元素
+     *
+     * @param key   键
+     * @param value 值
+     * @param score 分数
+     * @return Mono<Boolean> 操作是否成功
+     */
+    public Mono<Boolean> zAdd(String key, Object value, double score) {
+        return orFalse(reactiveRedisTemplate.opsForZSet().add(key, value, score).thenReturn(true));
+    }
+
+    /**
+     * 获取有序集合指定范围内的元素（从小到大）
+     *
+     * @param key   键
+     * @param start 开始索引
+     * @param end   结束索引
+     * @return Flux<Object> 元素流
+     */
+    public Flux<Object> zRange(String key, long start, long end) {
+        return orEmpty(reactiveRedisTemplate.opsForZSet().range(key, Range.closed(start, end)));
+    }
+
+    /**
+     * 获取有序集合指定分数范围内的元素（从小到大）
+     *
+     * @param key 键
+     * @param min 最小分数
+     * @param max 最大分数
+     * @return Flux<Object> 元素流
+     */
+    public Flux<Object> zRangeByScore(String key, double min, double max) {
+        return orEmpty(reactiveRedisTemplate.opsForZSet().rangeByScore(key, Range.closed(min, max)));
+    }
+
+    /**
+     * 获取有序集合指定范围内的元素及分数（从大到小）
+     *
+     * @param key   键
+     * @param start 开始索引
+     * @param end   结束索引
+     * @return Flux<TypedTuple<Object>> 元素及分数流，按分数从大到小排列
+     */
+    public Flux<ZSetOperations.TypedTuple<Object>> zReverseRangeWithScores(String key, long start, long end) {
+        return orEmpty(reactiveRedisTemplate.opsForZSet().reverseRangeWithScores(key, Range.closed(start, end)));
+    }
+
+    /**
+     * 获取有序集合元素数量
+     *
+     * @param key 键
+     * @return Mono<Long> 元素数量
+     */
+    public Mono<Long> zSize(String key) {
+        return orZero(reactiveRedisTemplate.opsForZSet().size(key));
+    }
+
+    /**
+     * 删除有序集合中的元素
+     *
+     * @param key    键
+     * @param values 值数组
+     * @return Mono<Long> 移除的元素数量
+     */
+    public Mono<Long> zRemove(String key, Object... values) {
+        return orZero(reactiveRedisTemplate.opsForZSet().remove(key, values));
+    }
+
+    /**
+     * 获取有序集合中指定元素的分数
+     *
+     * @param key   键
+     * @param value 值
+     * @return Mono<Double> 分数，元素不存在时为空Mono
+     */
+    public Mono<Double> zScore(String key, Object value) {
+        return reactiveRedisTemplate.opsForZSet().score(key, value);
+    }
+
+    /**
+     * 获取有序集合中指定元素的排名（从大到小，0表示第一名）
+     *
+     * @param key   键
+     * @param value 值
+     * @return Mono<Long> 排名，元素不存在时为空Mono
+     */
+    public Mono<Long> zReverseRank(String key, Object value) {
+        return reactiveRedisTemplate.opsForZSet().reverseRank(key, value);
+    }
+
+    /**
+     * 有序集合元素递增
+     *
+     * @param key   键
+     * @param value 值
+     * @param delta 递增步长
+     * @return Mono<Double> 递增后的分数
+     */
+    public Mono<Double> zIncrementScore(String key, Object value, double delta) {
+        return reactiveRedisTemplate.opsForZSet().incrementScore(key, value, delta);
+    }
+
+    // ============================== 键空间操作 ==============================
+
+    /**
+     * 使用SCAN增量遍历匹配的键，下游按需请求时才继续发出SCAN
+     *
+     * @param pattern 匹配模式，如user:*
+     * @param count   每次SCAN的建议返回数量
+     * @return Flux<String> 键流
+     */
+    public Flux<String> scan(String pattern, long count) {
+        return orEmpty(reactiveRedisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(count).build()));
+    }
+
+    // ============================== 管道操作 ==============================
+
+    /**
+     * 并发执行多个命令，结果按命令顺序返回
+     * 所有命令同时订阅，Lettuce在同一连接上连续写出而不等待响应，效果等同于管道；
+     * 每个命令占一个位置，结果为空（如GET不存在的键）时为Optional.empty()，保证结果与命令一一对应
+     *
+     * @param commands 命令列表，如由本类其它方法返回的Mono；返回多个值的命令只取第一个值，需要全部值时先collectList
+     * @return Flux<Optional<Object>> 各命令的结果，顺序和数量与commands一致
+     */
+    public Flux<Optional<Object>> pipeline(List<? extends Publisher<?>> commands) {
+        List<Mono<Optional<Object>>> slots = new ArrayList<>(commands.size());
+        for (Publisher<?> command : commands) {
+            slots.add(Mono.from(command).<Optional<Object>>map(Optional::of).defaultIfEmpty(Optional.empty()));
+        }
+        return Flux.mergeSequential(slots);
+    }
+
+    /**
+     * 出错时记录日志并返回false，与RedisUtils中捕获异常返回false的约定保持一致
+     *
+     * @param mono 命令结果
+     * @return Mono<Boolean> 命令结果，出错或为空时为false
+     */
+    private Mono<Boolean> orFalse(Mono<Boolean> mono) {
+        return mono.defaultIfEmpty(false).onErrorResume(e -> {
+            logger.error("Redis command failed: {}", e.getMessage(), e);
+            return Mono.just(false);
+        });
+    }
+
+    /**
+     * 出错时记录日志并返回0
+     *
+     * @param mono 命令结果
+     * @return Mono<Long> 命令结果，出错或为空时为0
+     */
+    private Mono<Long> orZero(Mono<Long> mono) {
+        return mono.defaultIfEmpty(0L).onErrorResume(e -> {
+            logger.error("Redis command failed: {}", e.getMessage(), e);
+            return Mono.just(0L);
+        });
+    }
+
+    /**
+     * 出错时记录日志并返回空流
+     *
+     * @param flux 命令结果
+     * @param <T>  元素类型
+     * @return Flux<T> 命令结果，出错时为空流
+     */
+    private <T> Flux<T> orEmpty(Flux<T> flux) {
+        return flux.onErrorResume(e -> {
+            logger.error("Redis command failed: {}", e.getMessage(), e);
+            return Flux.empty();
+        });
+    }
+}
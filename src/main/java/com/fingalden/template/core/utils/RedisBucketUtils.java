@@ -0,0 +1,170 @@
+package com.fingalden.template.core.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis分桶存储工具类，用于存储海量小对象
+ * 将每个键映射为(哈希桶, 字段)，多个小值共享一个哈希键，避免每个独立键的元数据开销。
+ * 每个桶的字段数保持在hash-max-listpack-entries（默认128）以下时，Redis使用紧凑的listpack编码，
+ * 内存占用通常只有独立字符串键的几分之一。值序列化后也应小于hash-max-listpack-value（默认64字节）。
+ * 桶数量应不小于预估条目数/100，如100万条目对应16384个桶，平均每桶约61个字段。
+ */
+@Component
+public class RedisBucketUtils {
+
+    /**
+     * 分桶键前缀
+     */
+    private static final String KEY_PREFIX = "bucket:";
+
+    /**
+     * Redis工具类
+     */
+    private final RedisUtils redisUtils;
+
+    /**
+     * 每个命名空间的桶数量，从配置文件读取
+     */
+    @Value("${redis.bucket.count:16384}")
+    private int bucketCount;
+
+    /**
+     * 构造函数注入RedisUtils，并注册分桶键空间用于内存统计
+     *
+     * @param redisUtils       Redis工具类
+     * @param keyspaceRegistry 键空间注册表
+     */
+    @Autowired
+    public RedisBucketUtils(RedisUtils redisUtils, KeyspaceRegistry keyspaceRegistry) {
+        this.redisUtils = redisUtils;
+        keyspaceRegistry.register("bucket", KEY_PREFIX, 0, TimeUnit.SECONDS, 0);
+    }
+
+    /**
+     * 计算键所在的桶
+     * 使用String.hashCode保证不同JVM之间映射一致
+     *
+     * @param namespace 命名空间
+     * @param key       键
+     * @return 桶对应的Redis哈希键，如bucket:user-flag:1024
+     */
+    public String bucketOf(String namespace, String key) {
+        return KEY_PREFIX + namespace + ":" + Math.floorMod(key.hashCode(), bucketCount);
+    }
+
+    /**
+     * 设置值
+     *
+     * @param namespace 命名空间
+     * @param key       键
+     * @param value     值
+     * @return boolean 操作是否成功
+     */
+    public boolean set(String namespace, String key, Object value) {
+        return redisUtils.hSet(bucketOf(namespace, key), key, value);
+    }
+
+    /**
+     * 获取值
+     *
+     * @param namespace 命名空间
+     * @param key       键
+     * @return Object 值，不存在时返回null
+     */
+    public Object get(String namespace, String key) {
+        return key == null ? null : redisUtils.hGet(bucketOf(namespace, key), key);
+    }
+
+    /**
+     * 删除值
+     *
+     * @param namespace 命名空间
+     * @param key       键
+     * @return boolean 是否删除了值
+     */
+    public boolean delete(String namespace, String key) {
+        return redisUtils.hDelete(bucketOf(namespace, key), key) > 0;
+    }
+
+    /**
+     * 批量设置值
+     * 按桶分组，每个桶一条HSET命令，所有命令在一次管道往返中发送
+     *
+     * @param namespace 命名空间
+     * @param values    键值对
+     * @return boolean 操作是否成功
+     */
+    public boolean multiSet(String namespace, Map<String, Object> values) {
+        if (values.isEmpty()) {
+            return true;
+        }
+        Map<String, Map<String, Object>> buckets = new HashMap<>();
+        values.forEach((key, value) ->
+                buckets.computeIfAbsent(bucketOf(namespace, key), b -> new HashMap<>()).put(key, value));
+        List<Object> results = redisUtils.executePipelined(operations ->
+                buckets.forEach((bucket, fields) -> operations.opsForHash().putAll(bucket, fields)));
+        return results != null;
+    }
+
+    /**
+     * 批量获取值
+     * 按桶分组，每个桶一条HMGET命令，所有命令在一次管道往返中发送
+     *
+     * @param namespace 命名空间
+     * @param keys      键集合
+     * @return Map<String, Object> 存在的键值对，不存在的键不包含在结果中
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> multiGet(String namespace, Collection<String> keys) {
+        Map<String, Object> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        Map<String, List<Object>> buckets = new LinkedHashMap<>();
+        for (String key : keys) {
+            buckets.computeIfAbsent(bucketOf(namespace, key), b -> new ArrayList<>()).add(key);
+        }
+        List<Object> results = redisUtils.executePipelined(operations ->
+                buckets.forEach((bucket, fields) -> operations.opsForHash().multiGet(bucket, fields)));
+        if (results == null || results.size() != buckets.size()) {
+            return result;
+        }
+        int i = 0;
+        for (List<Object> fields : buckets.values()) {
+            List<Object> values = (List<Object>) results.get(i++);
+            for (int j = 0; j < fields.size(); j++) {
+                Object value = values.get(j);
+                if (value != null) {
+                    result.put((String) fields.get(j), value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量删除值
+     * 按桶分组，每个桶一条HDEL命令，所有命令在一次管道往返中发送
+     *
+     * @param namespace 命名空间
+     * @param keys      键集合
+     * @return boolean 操作是否成功
+     */
+    public boolean multiDelete(String namespace, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return true;
+        }
+        Map<String, List<Object>> buckets = new HashMap<>();
+        for (String key : keys) {
+            buckets.computeIfAbsent(bucketOf(namespace, key), b -> new ArrayList<>()).add(key);
+        }
+        List<Object> results = redisUtils.executePipelined(operations ->
+                buckets.forEach((bucket, fields) -> operations.opsForHash().delete(bucket, fields.toArray())));
+        return results != null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.fingalden.template.core.utils;
+
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+
+/**
+ * Redis键工具类，提供集群哈希标签相关的辅助方法
+ * Redis集群只对键中第一对花括号内的内容计算槽位，
+ * 相关的键（如同一用户的哈希和集合）使用相同的哈希标签即可落在同一槽位，
+ * 从而可以在一条多键命令、事务或Lua脚本中原子地操作
+ */
+public final class RedisKeyUtils {
+
+    private RedisKeyUtils() {
+    }
+
+    /**
+     * 生成哈希标签
+     *
+     * @param tag 标签内容，如用户ID
+     * @return 哈希标签，如{1001}
+     */
+    public static String hashTag(Object tag) {
+        return "{" + tag + "}";
+    }
+
+    /**
+     * 生成带哈希标签的键
+     * 如key("user", 1001, "profile")返回user:{1001}:profile，
+     * 与key("user", 1001, "roles")返回的user:{1001}:roles位于同一槽位
+     *
+     * @param prefix 键前缀
+     * @param tag    标签内容
+     * @param suffix 键后缀，为空时不拼接
+     * @return 带哈希标签的键
+     */
+    public static String key(String prefix, Object tag, String suffix) {
+        String key = prefix + ":" + hashTag(tag);
+        return suffix == null || suffix.isEmpty() ? key : key + ":" + suffix;
+    }
+
+    /**
+     * 计算键所在的槽位
+     *
+     * @param key 键
+     * @return 槽位，范围0~16383
+     */
+    public static int slot(String key) {
+        return ClusterSlotHashUtil.calculateSlot(key);
+    }
+
+    /**
+     * 判断所有键是否位于同一槽位
+     *
+     * @param keys 键数组
+     * @return boolean 是否位于同一槽位，键为空时返回true
+     */
+    public static boolean isSameSlot(String... keys) {
+        if (keys.length == 0) {
+            return true;
+        }
+        int slot = slot(keys[0]);
+        for (int i = 1; i < keys.length; i++) {
+            if (slot(keys[i]) != slot) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,11 +1,42 @@
 package com.fingalden.template.core.utils;
 
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.BaseRedisAsyncCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandKeyword;
+import io.lettuce.core.protocol.CommandType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Redis工具类，提供常见的Redis操作功能
@@ -19,14 +50,38 @@ public class RedisUtils {
      */
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * 集群模式下按节点并行执行批量操作的线程池
+     */
+    private final Executor redisBatchExecutor;
+
+    /**
+     * 是否为集群模式
+     */
+    private final boolean cluster;
+
     /**
      * 构造函数注入RedisTemplate
      *
-     * @param redisTemplate RedisTemplate实例
+     * @param redisTemplate      RedisTemplate实例
+     * @param redisBatchExecutor 批量操作线程池
      */
     @Autowired
-    public RedisUtils(RedisTemplate<String, Object> redisTemplate) {
+    public RedisUtils(RedisTemplate<String, Object> redisTemplate,
+                      @Qualifier("redisBatchExecutor") Executor redisBatchExecutor) {
         this.redisTemplate = redisTemplate;
+        this.redisBatchExecutor = redisBatchExecutor;
+        this.cluster = redisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory factory
+                && factory.isClusterAware();
+    }
+
+    /**
+     * 是否为集群模式
+     *
+     * @return boolean 连接工厂配置了集群节点时返回true
+     */
+    public boolean isCluster() {
+        return cluster;
     }
 
     // ============================== 字符串操作 ==============================
@@ -67,6 +122,24 @@ public class RedisUtils {
         }
     }
 
+    /**
+     * 键不存在时设置字符串值，并指定过期时间（SET NX PX）
+     *
+     * @param key      键
+     * @param value    值
+     * @param time     过期时间
+     * @param timeUnit 时间单位
+     * @return boolean 是否设置成功，键已存在时返回false
+     */
+    public boolean setIfAbsent(String key, Object value, long time, TimeUnit timeUnit) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, time, timeUnit));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * 获取字符串值
      *
@@ -77,6 +150,55 @@ public class RedisUtils {
         return key == null ? null : redisTemplate.opsForValue().get(key);
     }
 
+    /**
+     * 批量获取字符串值
+     * 键按槽位分组，每组一条MGET命令，集群模式下各节点的命令并行以管道方式发送
+     *
+     * @param keys 键集合
+     * @return Map<String, Object> 存在的键值对，不存在的键不包含在结果中
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> multiGet(Collection<String> keys) {
+        Map<String, Object> values = new HashMap<>();
+        try {
+            for (SlotResult slotResult : executeBySlot(keys,
+                    (operations, slotKeys) -> operations.opsForValue().multiGet(slotKeys))) {
+                List<Object> slotValues = (List<Object>) slotResult.result();
+                for (int i = 0; i < slotResult.keys().size(); i++) {
+                    if (slotValues.get(i) != null) {
+                        values.put(slotResult.keys().get(i), slotValues.get(i));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return values;
+    }
+
+    /**
+     * 批量设置字符串值
+     * 键按槽位分组，每组一条MSET命令，集群模式下各节点的命令并行以管道方式发送
+     *
+     * @param values 键值对
+     * @return boolean 操作是否成功
+     */
+    public boolean multiSet(Map<String, Object> values) {
+        try {
+            executeBySlot(values.keySet(), (operations, slotKeys) -> {
+                Map<String, Object> slotValues = new HashMap<>();
+                for (String key : slotKeys) {
+                    slotValues.put(key, values.get(key));
+                }
+                operations.opsForValue().multiSet(slotValues);
+            });
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * 删除键
      *
@@ -100,7 +222,11 @@ public class RedisUtils {
      */
     public long delete(Collection<String> keys) {
         try {
-            return redisTemplate.delete(keys);
+            long deleted = 0;
+            for (SlotResult slotResult : executeBySlot(keys, (operations, slotKeys) -> operations.delete(slotKeys))) {
+                deleted += slotResult.result() instanceof Number number ? number.longValue() : 0;
+            }
+            return deleted;
         } catch (Exception e) {
             e.printStackTrace();
             return 0;
@@ -707,4 +833,282 @@ public class RedisUtils {
             return 0;
         }
     }
+
+    /**
+     * 获取有序集合中指定元素的排名（从大到小，0表示第一名）
+     *
+     * @param key   键
+     * @param value 值
+     * @return Long 排名，null表示元素不存在
+     */
+    public Long zReverseRank(String key, Object value) {
+        try {
+            return redisTemplate.opsForZSet().reverseRank(key, value);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 获取有序集合指定范围内的元素及分数（从大到小）
+     *
+     * @param key   键
+     * @param start 开始索引
+     * @param end   结束索引
+     * @return Set<TypedTuple<Object>> 元素及分数集合，按分数从大到小排列
+     */
+    public Set<ZSetOperations.TypedTuple<Object>> zReverseRangeWithScores(String key, long start, long end) {
+        try {
+            Set<ZSetOperations.TypedTuple<Object>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(key, start, end);
+            return tuples == null ? new LinkedHashSet<>() : tuples;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new LinkedHashSet<>();
+        }
+    }
+
+    // ============================== Stream操作 ==============================
+
+    /**
+     * 读取Stream中指定ID之后的记录（XREAD，不阻塞）
+     *
+     * @param key     键
+     * @param afterId 起始ID（不包含），0-0表示从头读取
+     * @param count   最多读取的记录数
+     * @return List<MapRecord> 记录列表，按ID从小到大排列，执行失败时返回空列表
+     */
+    public List<MapRecord<String, Object, Object>> xRead(String key, String afterId, long count) {
+        try {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .read(StreamReadOptions.empty().count(count), StreamOffset.create(key, ReadOffset.from(afterId)));
+            return records == null ? new ArrayList<>() : records;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * 获取Stream中最后一条记录的ID
+     *
+     * @param key 键
+     * @return String 最后一条记录的ID，Stream为空时返回0-0，执行失败时返回null
+     */
+    public String xLastId(String key) {
+        try {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .reverseRange(key, Range.unbounded(), Limit.limit().count(1));
+            return records == null || records.isEmpty() ? "0-0" : records.get(0).getId().getValue();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ============================== 脚本操作 ==============================
+
+    /**
+     * 执行Lua脚本，脚本在Redis中原子执行
+     * 参数与值使用相同的JSON序列化方式，脚本中比较参数与已存储的值时格式一致
+     *
+     * @param script 脚本，RedisScript会缓存SHA1并优先使用EVALSHA
+     * @param keys   脚本使用的键，集群模式下应位于同一槽位
+     * @param args   脚本参数
+     * @param <T>    返回值类型
+     * @return 脚本返回值，执行失败时返回null
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        try {
+            return redisTemplate.execute(script, keys, args);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ============================== 管道操作 ==============================
+
+    /**
+     * 以管道方式批量执行命令，所有命令在一次网络往返中发送
+     * 回调中通过operations发出的命令不会立即返回结果，结果按发送顺序汇总到返回值中
+     *
+     * @param action 管道中要执行的命令
+     * @return List<Object> 各命令的执行结果（无返回值的命令不计入），执行失败时返回null
+     */
+    public List<Object> executePipelined(Consumer<RedisOperations<String, Object>> action) {
+        try {
+            return redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    action.accept((RedisOperations<String, Object>) operations);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ============================== 键空间操作 ==============================
+
+    /**
+     * 使用SCAN增量遍历匹配的键，不会像KEYS命令那样阻塞Redis
+     *
+     * @param pattern  匹配模式，如user:*
+     * @param count    每次SCAN的建议返回数量
+     * @param consumer 键的处理函数
+     * @return long 遍历的键数量；遍历中途失败时返回-1，此前遍历到的键已经交给consumer处理
+     */
+    public long scan(String pattern, long count, Consumer<String> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        try {
+            if (cluster) {
+                // 集群模式下SCAN只能在单个节点上执行，依次遍历所有主节点
+                Long scanned = redisTemplate.execute((RedisCallback<Long>) connection -> {
+                    RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+                    long total = 0;
+                    for (RedisClusterNode node : clusterConnection.clusterGetNodes()) {
+                        if (!node.isMaster()) {
+                            continue;
+                        }
+                        try (Cursor<byte[]> cursor = clusterConnection.scan(node, options)) {
+                            while (cursor.hasNext()) {
+                                consumer.accept(new String(cursor.next(), StandardCharsets.UTF_8));
+                                total++;
+                            }
+                        }
+                    }
+                    return total;
+                });
+                return scanned == null ? 0 : scanned;
+            }
+            long scanned = 0;
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    consumer.accept(cursor.next());
+                    scanned++;
+                }
+            }
+            return scanned;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * 以管道方式批量获取键占用的内存（MEMORY USAGE）
+     * 命令通过Lettuce原生异步接口发出并以键作为路由键，集群模式下每条命令发往键所在的主节点；
+     * RedisConnection.execute会把USAGE当作第一个键，集群模式下所有命令都会发往USAGE所在的节点
+     *
+     * @param keys 键列表
+     * @return List<Long> 各键占用的字节数，与keys顺序一致，键不存在时为null；执行失败时返回空列表
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> memoryUsage(List<String> keys) {
+        try {
+            return redisTemplate.execute((RedisCallback<List<Long>>) connection -> {
+                BaseRedisAsyncCommands<byte[], byte[]> commands =
+                        (BaseRedisAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+                List<RedisFuture<Long>> futures = new ArrayList<>(keys.size());
+                for (String key : keys) {
+                    futures.add(commands.dispatch(CommandType.MEMORY, new IntegerOutput<>(ByteArrayCodec.INSTANCE),
+                            new CommandArgs<>(ByteArrayCodec.INSTANCE)
+                                    .add(CommandKeyword.USAGE)
+                                    .addKey(key.getBytes(StandardCharsets.UTF_8))));
+                }
+                List<Long> usages = new ArrayList<>(futures.size());
+                for (RedisFuture<Long> future : futures) {
+                    usages.add(future.toCompletableFuture().join());
+                }
+                return usages;
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    // ============================== 槽位分组 ==============================
+
+    /**
+     * 按槽位分组执行多键命令
+     * 1. 键按槽位分组，同一槽位的键可以在一条多键命令中执行，不会触发CROSSSLOT错误
+     * 2. 集群模式下槽位组再按所属主节点分组，每个节点一个管道，各节点在线程池中并行执行
+     * 3. 单机模式下所有键同属一组，只发送一条命令
+     *
+     * @param keys    键集合
+     * @param command 对一组同槽位的键发出一条命令
+     * @return List<SlotResult> 各槽位组及其命令结果，无返回值的命令不包含在结果中
+     */
+    private List<SlotResult> executeBySlot(Collection<String> keys,
+                                           BiConsumer<RedisOperations<String, Object>, List<String>> command) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (!cluster) {
+            return runPipeline(List.of(new ArrayList<>(keys)), command);
+        }
+        Map<Integer, List<String>> slots = new HashMap<>();
+        for (String key : keys) {
+            slots.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(key), slot -> new ArrayList<>()).add(key);
+        }
+        Map<RedisClusterNode, List<List<String>>> nodes = redisTemplate.execute((RedisCallback<Map<RedisClusterNode, List<List<String>>>>) connection -> {
+            RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+            Map<RedisClusterNode, List<List<String>>> grouped = new HashMap<>();
+            slots.forEach((slot, slotKeys) -> grouped
+                    .computeIfAbsent(clusterConnection.clusterGetNodeForSlot(slot), node -> new ArrayList<>())
+                    .add(slotKeys));
+            return grouped;
+        });
+        List<CompletableFuture<List<SlotResult>>> futures = new ArrayList<>();
+        for (List<List<String>> groups : nodes.values()) {
+            futures.add(CompletableFuture.supplyAsync(() -> runPipeline(groups, command), redisBatchExecutor));
+        }
+        List<SlotResult> results = new ArrayList<>();
+        for (CompletableFuture<List<SlotResult>> future : futures) {
+            results.addAll(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * 在一个管道中对每组键发出一条命令，并将结果与分组对应
+     *
+     * @param groups  键分组
+     * @param command 对一组键发出一条命令
+     * @return List<SlotResult> 分组及其命令结果，命令无返回值时返回空列表
+     */
+    private List<SlotResult> runPipeline(List<List<String>> groups,
+                                         BiConsumer<RedisOperations<String, Object>, List<String>> command) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                for (List<String> group : groups) {
+                    command.accept((RedisOperations<String, Object>) operations, group);
+                }
+                return null;
+            }
+        });
+        List<SlotResult> slotResults = new ArrayList<>(groups.size());
+        if (results.size() == groups.size()) {
+            for (int i = 0; i < groups.size(); i++) {
+                slotResults.add(new SlotResult(groups.get(i), results.get(i)));
+            }
+        }
+        return slotResults;
+    }
+
+    /**
+     * 同槽位键分组的命令结果
+     *
+     * @param keys   同一槽位的键
+     * @param result 命令结果
+     */
+    private record SlotResult(List<String> keys, Object result) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.fingalden.template.core.utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 只读副本路由数据源
+ * 作为LazyConnectionDataSourceProxy的只读数据源使用，只读事务的连接从这里获取：
+ * 1. 在健康的副本中选择活跃连接最少的一个，负载相同时按轮询顺序分配
+ * 2. 副本由定时任务做健康检查，连接失败或复制延迟超过阈值的副本暂时摘除
+ * 3. 没有可用副本，或当前请求已经执行过写事务时，回退到主库，保证读到自己刚写入的数据
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * 请求属性名，标记当前请求的读操作固定走主库
+     */
+    private static final String PRIMARY_STICKY_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".PRIMARY_STICKY";
+
+    /**
+     * 主库
+     */
+    private final HikariDataSource primary;
+
+    /**
+     * 只读副本
+     */
+    private final List<Replica> replicas;
+
+    /**
+     * 复制延迟查询语句，为空时只检查连接
+     */
+    private final String lagQuery;
+
+    /**
+     * 复制延迟查询结果中表示延迟秒数的列名
+     */
+    private final String lagColumn;
+
+    /**
+     * 允许的最大复制延迟（秒）
+     */
+    private final long maxLagSeconds;
+
+    /**
+     * 轮询计数器
+     */
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * 构造只读副本路由数据源
+     *
+     * @param primary       主库，无可用副本时回退使用
+     * @param replicas      只读副本
+     * @param lagQuery      复制延迟查询语句，为空时只检查连接
+     * @param lagColumn     延迟秒数的列名
+     * @param maxLagSeconds 允许的最大复制延迟（秒）
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    String lagQuery, String lagColumn, long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    // ============================== 路由 ==============================
+
+    /**
+     * 获取主库
+     *
+     * @return 主库
+     */
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * 关闭主库和所有副本的连接池
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+        primary.close();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return select().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+    }
+
+    /**
+     * 选择本次只读连接使用的数据源
+     *
+     * @return 数据源
+     */
+    private HikariDataSource select() {
+        if (isPrimarySticky()) {
+            return primary;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(counter.getAndIncrement(), size);
+        Replica selected = null;
+        int selectedActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            int active = replica.activeConnections();
+            if (active < selectedActive) {
+                selected = replica;
+                selectedActive = active;
+            }
+        }
+        return selected != null ? selected.dataSource : primary;
+    }
+
+    // ============================== 主库粘滞 ==============================
+
+    /**
+     * 标记当前请求后续的读操作走主库
+     * 在写事务提交后调用，避免同一请求随后从尚未同步的副本读到旧数据；非Web请求线程中调用无效果
+     */
+    public static void markPrimarySticky() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_STICKY_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * 判断当前请求的读操作是否固定走主库
+     *
+     * @return 是否固定走主库
+     */
+    public static boolean isPrimarySticky() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(PRIMARY_STICKY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    // ============================== 健康检查 ==============================
+
+    /**
+     * 定时检查所有副本，状态变化时输出日志
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.health-interval:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy = check(replica);
+            if (healthy != replica.healthy) {
+                replica.healthy = healthy;
+                if (healthy) {
+                    logger.info("Replica {} is healthy again, routing reads to it", replica.dataSource.getJdbcUrl());
+                } else {
+                    logger.warn("Replica {} is unhealthy, routing its reads elsewhere", replica.dataSource.getJdbcUrl());
+                }
+            }
+        }
+    }
+
+    /**
+     * 检查单个副本：连接可用，且配置了延迟查询时复制延迟不超过阈值
+     *
+     * @param replica 副本
+     * @return 是否健康
+     */
+    private boolean check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(2)) {
+                return false;
+            }
+            if (lagQuery == null || lagQuery.isEmpty()) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    // 未配置复制的实例不是副本
+                    return false;
+                }
+                long lag = resultSet.getLong(lagColumn);
+                // 延迟为NULL表示复制线程未运行
+                return !resultSet.wasNull() && lag <= maxLagSeconds;
+            }
+        } catch (SQLException e) {
+            logger.debug("Replica {} health check failed: {}", replica.dataSource.getJdbcUrl(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 只读副本及其健康状态
+     */
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * 获取副本连接池当前的活跃连接数
+         *
+         * @return 活跃连接数，连接池尚未启动时返回0
+         */
+        private int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.fingalden.template.core.utils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fingalden.template.common.constant.HttpStatus;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * 统一响应格式工具类
  * 用于封装API响应，包含成功状态、状态码、消息和数据
+ * 数据可以是键值对（success(key, value)、data(key, value)，序列化为data.键名），
+ * 也可以是任意类型的对象（of(data)）；没有数据的响应不创建数据容器，序列化时仍输出空对象
+ *
+ * @param <T> 数据类型
  */
 @Data
-public class RespBean {
+public class RespBean<T> {
     /**
      * 响应状态：true-成功，false-失败
      */
@@ -28,9 +37,10 @@ public class RespBean {
     private String message;
 
     /**
-     * 响应数据
+     * 响应数据，首次添加数据项时才创建
      */
-    private Map<String, Object> data = new HashMap<String, Object>();
+    @Getter(AccessLevel.NONE)
+    private T data;
 
     /**
      * 私有构造方法，防止直接创建实例
@@ -43,8 +53,8 @@ public class RespBean {
      *
      * @return RespBean对象，success=true，code=200，message="成功"
      */
-    public static RespBean success() {
-        RespBean r = new RespBean();
+    public static <T> RespBean<T> success() {
+        RespBean<T> r = new RespBean<>();
         r.setSuccess(true);
         r.setCode(HttpStatus.SUCCESS);
         r.setMessage(HttpStatus.SUCCESS_MSG);
@@ -57,8 +67,8 @@ public class RespBean {
      * @param message 响应消息
      * @return RespBean对象，success=true，code=200
      */
-    public static RespBean success(String message) {
-        RespBean r = new RespBean();
+    public static <T> RespBean<T> success(String message) {
+        RespBean<T> r = new RespBean<>();
         r.setSuccess(true);
         r.setCode(HttpStatus.SUCCESS);
         r.setMessage(message);
@@ -72,12 +82,12 @@ public class RespBean {
      * @param value 数据值
      * @return RespBean对象，success=true，code=200，message="成功"
      */
-    public static RespBean success(String key, Object value) {
-        RespBean r = new RespBean();
+    public static RespBean<Map<String, Object>> success(String key, Object value) {
+        RespBean<Map<String, Object>> r = new RespBean<>();
         r.setSuccess(true);
         r.setCode(HttpStatus.SUCCESS);
         r.setMessage(HttpStatus.SUCCESS_MSG);
-        r.getData().put(key, value);
+        r.data(key, value);
         return r;
     }
 
@@ -89,12 +99,29 @@ public class RespBean {
      * @param value   数据值
      * @return RespBean对象，success=true，code=200
      */
-    public static RespBean success(String message, String key, Object value) {
-        RespBean r = new RespBean();
+    public static RespBean<Map<String, Object>> success(String message, String key, Object value) {
+        RespBean<Map<String, Object>> r = new RespBean<>();
         r.setSuccess(true);
         r.setCode(HttpStatus.SUCCESS);
         r.setMessage(message);
-        r.getData().put(key, value);
+        r.data(key, value);
+        return r;
+    }
+
+    /**
+     * 创建带类型化数据的成功响应
+     * 数据对象直接作为data输出，Jackson按其具体类型序列化，不经过Map
+     *
+     * @param data 数据对象
+     * @param <T>  数据类型
+     * @return RespBean对象，success=true，code=200，message="成功"
+     */
+    public static <T> RespBean<T> of(T data) {
+        RespBean<T> r = new RespBean<>();
+        r.setSuccess(true);
+        r.setCode(HttpStatus.SUCCESS);
+        r.setMessage(HttpStatus.SUCCESS_MSG);
+        r.setData(data);
         return r;
     }
 
@@ -103,8 +130,8 @@ public class RespBean {
      *
      * @return RespBean对象，success=false，code=500，message="失败"
      */
-    public static RespBean error() {
-        RespBean r = new RespBean();
+    public static <T> RespBean<T> error() {
+        RespBean<T> r = new RespBean<>();
         r.setSuccess(false);
         r.setCode(HttpStatus.INTERNAL_SERVER_ERROR);
         r.setMessage(HttpStatus.INTERNAL_SERVER_ERROR_MSG);
@@ -117,8 +144,8 @@ public class RespBean {
      * @param message 响应消息
      * @return RespBean对象，success=false，code=500
      */
-    public static RespBean error(String message) {
-        RespBean r = new RespBean();
+    public static <T> RespBean<T> error(String message) {
+        RespBean<T> r = new RespBean<>();
         r.setSuccess(false);
         r.setCode(HttpStatus.INTERNAL_SERVER_ERROR);
         r.setMessage(message);
@@ -132,21 +159,41 @@ public class RespBean {
      * @param message 响应消息
      * @return RespBean对象，success=false
      */
-    public static RespBean error(Integer code, String message) {
-        RespBean r = new RespBean();
+    public static <T> RespBean<T> error(Integer code, String message) {
+        RespBean<T> r = new RespBean<>();
         r.setSuccess(false);
         r.setCode(code);
         r.setMessage(message);
         return r;
     }
 
+    /**
+     * 获取响应数据
+     *
+     * @return 响应数据，没有数据时为null
+     */
+    @JsonIgnore
+    public T getData() {
+        return data;
+    }
+
+    /**
+     * 序列化用的响应数据，没有数据时输出空对象，与客户端约定的格式保持一致
+     *
+     * @return 响应数据或空Map
+     */
+    @JsonProperty("data")
+    private Object dataOrEmpty() {
+        return data == null ? Collections.emptyMap() : data;
+    }
+
     /**
      * 设置响应状态
      *
      * @param success 响应状态：true-成功，false-失败
      * @return 当前RespBean对象
      */
-    public RespBean success(Boolean success) {
+    public RespBean<T> success(Boolean success) {
         this.setSuccess(success);
         return this;
     }
@@ -157,7 +204,7 @@ public class RespBean {
      * @param message 响应消息
      * @return 当前RespBean对象
      */
-    public RespBean message(String message) {
+    public RespBean<T> message(String message) {
         this.setMessage(message);
         return this;
     }
@@ -168,7 +215,7 @@ public class RespBean {
      * @param code 响应状态码
      * @return 当前RespBean对象
      */
-    public RespBean code(Integer code) {
+    public RespBean<T> code(Integer code) {
         this.setCode(code);
         return this;
     }
@@ -180,8 +227,8 @@ public class RespBean {
      * @param value 数据值
      * @return 当前RespBean对象
      */
-    public RespBean data(String key, Object value) {
-        this.data.put(key, value);
+    public RespBean<T> data(String key, Object value) {
+        map().put(key, value);
         return this;
     }
 
@@ -191,8 +238,9 @@ public class RespBean {
      * @param map 数据Map
      * @return 当前RespBean对象
      */
-    public RespBean data(Map<String, Object> map) {
-        this.setData(map);
+    @SuppressWarnings("unchecked")
+    public RespBean<T> data(Map<String, Object> map) {
+        this.data = (T) map;
         return this;
     }
 
@@ -203,8 +251,8 @@ public class RespBean {
      * @param value 数据值
      * @return 当前RespBean对象
      */
-    public RespBean data(Object value) {
-        this.data.put("data", value);
+    public RespBean<T> data(Object value) {
+        map().put("data", value);
         return this;
     }
 
@@ -217,12 +265,29 @@ public class RespBean {
      * @param size    每页大小
      * @return 当前RespBean对象
      */
-    public RespBean pageData(Object records, long total, int current, int size) {
-        this.data.put("records", records);
-        this.data.put("total", total);
-        this.data.put("current", current);
-        this.data.put("size", size);
-        this.data.put("pages", (total + size - 1) / size); // 计算总页数
+    public RespBean<T> pageData(Object records, long total, int current, int size) {
+        Map<String, Object> map = map();
+        map.put("records", records);
+        map.put("total", total);
+        map.put("current", current);
+        map.put("size", size);
+        map.put("pages", (total + size - 1) / size); // 计算总页数
         return this;
     }
+
+    /**
+     * 获取键值对形式的数据，第一次添加数据项时创建
+     *
+     * @return 数据Map
+     * @throws IllegalStateException 已通过of(data)设置了非Map的数据
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> map() {
+        if (data == null) {
+            data = (T) new HashMap<String, Object>();
+        } else if (!(data instanceof Map)) {
+            throw new IllegalStateException("响应数据不是键值对形式，不能按键名添加数据");
+        }
+        return (Map<String, Object>) data;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.fingalden.template.core.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * 分片上下文
+ * 记录当前线程要访问的分片，ShardRoutingDataSource据此选择数据源。
+ * 分片在获取数据库连接时确定，因此必须在开启事务之前设置
+ */
+public final class ShardContext {
+
+    /**
+     * 默认分片，同时存放用户名目录表
+     */
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * 获取当前线程的分片
+     *
+     * @return 分片编号，未设置时返回默认分片
+     */
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? DEFAULT_SHARD : shard;
+    }
+
+    /**
+     * 在指定分片上执行操作，结束后恢复原来的分片
+     *
+     * @param shard  分片编号
+     * @param action 操作
+     * @param <T>    返回值类型
+     * @return 操作的返回值
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 计算ID所在的分片
+     * 雪花ID的低位是序列号，低并发时大多为0，先混淆所有位再取模，使ID均匀分布
+     *
+     * @param id         ID
+     * @param shardCount 分片数
+     * @return 分片编号
+     */
+    public static int shardOf(long id, int shardCount) {
+        if (shardCount <= 1) {
+            return DEFAULT_SHARD;
+        }
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        return Math.floorMod((int) (mixed >>> 32), shardCount);
+    }
+}
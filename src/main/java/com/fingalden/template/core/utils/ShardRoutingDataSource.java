@@ -0,0 +1,60 @@
+package com.fingalden.template.core.utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分片路由数据源
+ * 按ShardContext中的分片编号选择数据源，分片0对应spring.datasource.url，
+ * 分片i（i >= 1）对应sharding.urls中的第i-1个地址
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * 各分片的连接池
+     */
+    private final List<HikariDataSource> shards;
+
+    /**
+     * 构造分片路由数据源
+     *
+     * @param shards 各分片的连接池，按分片编号排列
+     */
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = shards;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardContext.DEFAULT_SHARD));
+        setLenientFallback(false);
+    }
+
+    /**
+     * 获取分片数
+     *
+     * @return 分片数
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * 关闭所有分片的连接池
+     */
+    public void close() {
+        for (HikariDataSource shard : shards) {
+            shard.close();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
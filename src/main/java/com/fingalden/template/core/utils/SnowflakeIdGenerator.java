@@ -0,0 +1,154 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.common.exception.MyException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 雪花算法ID生成器，生成64位按时间递增的ID
+ * ID结构：1位符号位(0) + 41位毫秒时间戳(相对EPOCH) + 10位节点ID + 12位序列号，
+ * 单节点每毫秒最多生成4096个ID，时间戳可使用约69年。
+ * 生成过程无锁：(时间戳, 序列号)打包在一个AtomicLong中通过CAS推进，
+ * 序列号溢出时自然进位到下一毫秒。
+ * 时钟回拨时继续沿用上次的时间戳并递增序列号，保证ID单调递增；
+ * 逻辑时间领先系统时钟超过MAX_DRIFT_MILLIS时拒绝生成，避免回拨过大时无限透支未来时间
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 起始时间戳：2024-01-01 00:00:00 UTC
+     */
+    public static final long EPOCH = 1704067200000L;
+
+    /**
+     * 节点ID位数
+     */
+    public static final int NODE_BITS = 10;
+
+    /**
+     * 序列号位数
+     */
+    public static final int SEQUENCE_BITS = 12;
+
+    /**
+     * 最大节点ID
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * 逻辑时间允许领先系统时钟的最大毫秒数
+     */
+    private static final long MAX_DRIFT_MILLIS = 2000;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * 全局实例，供Hibernate创建的SnowflakeIdentifierGenerator使用，由SnowflakeNodeLease设置节点ID
+     */
+    private static final SnowflakeIdGenerator INSTANCE = new SnowflakeIdGenerator();
+
+    /**
+     * 节点ID，-1表示尚未获得或已失去节点租约，此时拒绝生成ID
+     */
+    private volatile int nodeId = -1;
+
+    /**
+     * 节点租约截止时间（毫秒时间戳），超过后拒绝生成ID；固定节点ID时为Long.MAX_VALUE
+     */
+    private volatile long leaseDeadline = Long.MAX_VALUE;
+
+    /**
+     * 打包状态：高位为相对EPOCH的时间戳，低12位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * 获取全局实例
+     *
+     * @return 全局ID生成器
+     */
+    public static SnowflakeIdGenerator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 设置不会过期的节点ID
+     *
+     * @param nodeId 节点ID，范围0~1023，-1表示停止生成
+     */
+    public void setNodeId(int nodeId) {
+        setLease(nodeId, Long.MAX_VALUE);
+    }
+
+    /**
+     * 设置租用的节点ID及租约截止时间
+     *
+     * @param nodeId   节点ID，范围0~1023，-1表示停止生成
+     * @param deadline 租约截止时间（毫秒时间戳）
+     */
+    public void setLease(int nodeId, long deadline) {
+        if (nodeId < -1 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        // 先收紧截止时间再切换节点，避免并发的nextId用新节点ID配上旧截止时间
+        this.leaseDeadline = Math.min(this.leaseDeadline, deadline);
+        this.nodeId = nodeId;
+        this.leaseDeadline = deadline;
+    }
+
+    /**
+     * 续期后延长当前节点的租约截止时间
+     *
+     * @param deadline 新的租约截止时间（毫秒时间戳）
+     */
+    public void extendLease(long deadline) {
+        this.leaseDeadline = deadline;
+    }
+
+    public long getLeaseDeadline() {
+        return leaseDeadline;
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 生成下一个ID
+     *
+     * @return 64位ID
+     * @throws MyException 未获得节点ID、租约已过期，或时钟回拨超过允许范围
+     */
+    public long nextId() {
+        int node = nodeId;
+        if (node < 0) {
+            throw new MyException("Snowflake node id is not leased");
+        }
+        while (true) {
+            long wallClock = System.currentTimeMillis();
+            if (wallClock >= leaseDeadline) {
+                throw new MyException("Snowflake node id lease expired");
+            }
+            long now = wallClock - EPOCH;
+            long current = state.get();
+            long next = (current >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : current + 1;
+            long timestamp = next >>> SEQUENCE_BITS;
+            if (timestamp - now > MAX_DRIFT_MILLIS) {
+                throw new MyException("Clock moved backwards by more than " + MAX_DRIFT_MILLIS + " ms");
+            }
+            if (state.compareAndSet(current, next)) {
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | ((long) node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 从ID中解析生成时间
+     *
+     * @param id ID
+     * @return 毫秒时间戳
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+}
@@ -0,0 +1,23 @@
+package com.fingalden.template.core.utils;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate主键生成器，委托给全局的SnowflakeIdGenerator
+ * 由Hibernate根据@SnowflakeId注解实例化，不受Spring管理
+ * 允许持久化前预先分配ID（如分片写入需要先根据ID确定分片），此时沿用已有ID
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        Object assigned = session.getEntityPersister(null, object).getIdentifier(object, session);
+        return assigned != null ? assigned : SnowflakeIdGenerator.getInstance().nextId();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
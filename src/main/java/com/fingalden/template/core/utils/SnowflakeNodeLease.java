@@ -0,0 +1,171 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.common.exception.MyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 雪花算法节点ID租约
+ * 启动时在Redis中以SET NX方式抢占一个空闲的节点ID，并定时续期；
+ * 本地租约截止时间按发起请求前的时间加有效期再减去安全余量计算，超过后ID生成器拒绝生成ID，
+ * 续期时发现租约已被其他实例占用（如长时间GC导致过期）时重新抢占。
+ * 只有在各实例时钟偏差和Redis过期误差小于安全余量时，才能保证同一节点ID不会被两个实例同时使用。
+ * 配置了snowflake.node-id时直接使用该节点ID，不访问Redis
+ */
+@Component
+public class SnowflakeNodeLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeNodeLease.class);
+
+    /**
+     * 节点ID租约键前缀
+     */
+    private static final String KEY_PREFIX = "snowflake:node:";
+
+    /**
+     * 续期脚本：仍由本实例持有时延长过期时间，否则返回0
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end", Long.class);
+
+    /**
+     * 释放脚本：仍由本实例持有时删除租约
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final RedisUtils redisUtils;
+
+    /**
+     * 本实例的唯一标识，作为租约值
+     */
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * 固定节点ID，从配置文件读取，-1表示从Redis租用
+     */
+    @Value("${snowflake.node-id:-1}")
+    private int fixedNodeId;
+
+    /**
+     * 租约有效期（毫秒），从配置文件读取
+     */
+    @Value("${snowflake.lease-ttl:30000}")
+    private long leaseTtl;
+
+    /**
+     * 租约安全余量（毫秒），本地截止时间比Redis中的过期时间提前该值，从配置文件读取
+     */
+    @Value("${snowflake.lease-safety-margin:2000}")
+    private long safetyMargin;
+
+    /**
+     * 构造函数注入RedisUtils
+     *
+     * @param redisUtils Redis工具类
+     */
+    @Autowired
+    public SnowflakeNodeLease(RedisUtils redisUtils) {
+        this.redisUtils = redisUtils;
+    }
+
+    /**
+     * 启动时获取节点ID，获取失败时启动失败，避免生成重复ID
+     */
+    @PostConstruct
+    public void init() {
+        if (fixedNodeId >= 0) {
+            SnowflakeIdGenerator.getInstance().setNodeId(fixedNodeId);
+            logger.info("Using fixed snowflake node id {}", fixedNodeId);
+            return;
+        }
+        if (!acquire()) {
+            throw new MyException("No free snowflake node id available");
+        }
+    }
+
+    /**
+     * 定时续期租约，续期间隔应明显小于租约有效期
+     */
+    @Scheduled(fixedDelayString = "${snowflake.heartbeat-interval:10000}")
+    public void heartbeat() {
+        if (fixedNodeId >= 0) {
+            return;
+        }
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.getInstance();
+        int nodeId = generator.getNodeId();
+        if (nodeId >= 0) {
+            // 截止时间以发起续期前的时间为准，续期请求在途的耗时不计入租约
+            long requestedAt = System.currentTimeMillis();
+            Long renewed = redisUtils.execute(RENEW_SCRIPT, List.of(KEY_PREFIX + nodeId), owner, leaseTtl);
+            if (renewed != null && renewed > 0) {
+                generator.extendLease(deadline(requestedAt));
+                return;
+            }
+            if (renewed == null && System.currentTimeMillis() < generator.getLeaseDeadline()) {
+                // Redis暂时不可用，租约截止前继续使用，下次心跳再续期；截止后生成器自行拒绝生成ID
+                logger.warn("Failed to renew snowflake node id {}", nodeId);
+                return;
+            }
+            logger.error("Lost snowflake node id {}, re-acquiring", nodeId);
+            generator.setNodeId(-1);
+        }
+        acquire();
+    }
+
+    /**
+     * 应用关闭时释放租约
+     */
+    @PreDestroy
+    public void release() {
+        int nodeId = SnowflakeIdGenerator.getInstance().getNodeId();
+        if (fixedNodeId < 0 && nodeId >= 0) {
+            redisUtils.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + nodeId), owner);
+        }
+    }
+
+    /**
+     * 从随机位置开始依次尝试抢占空闲节点ID
+     *
+     * @return boolean 是否获得节点ID
+     */
+    private boolean acquire() {
+        int start = ThreadLocalRandom.current().nextInt(SnowflakeIdGenerator.MAX_NODE_ID + 1);
+        for (int i = 0; i <= SnowflakeIdGenerator.MAX_NODE_ID; i++) {
+            int nodeId = (start + i) & SnowflakeIdGenerator.MAX_NODE_ID;
+            long requestedAt = System.currentTimeMillis();
+            if (redisUtils.setIfAbsent(KEY_PREFIX + nodeId, owner, leaseTtl, TimeUnit.MILLISECONDS)) {
+                SnowflakeIdGenerator.getInstance().setLease(nodeId, deadline(requestedAt));
+                logger.info("Leased snowflake node id {}", nodeId);
+                return true;
+            }
+        }
+        logger.error("Failed to lease a snowflake node id");
+        return false;
+    }
+
+    /**
+     * 计算本地租约截止时间
+     *
+     * @param requestedAt 发起获取或续期请求前的时间
+     * @return 截止时间（毫秒时间戳）
+     */
+    private long deadline(long requestedAt) {
+        return requestedAt + leaseTtl - safetyMargin;
+    }
+}
@@ -0,0 +1,58 @@
+package com.fingalden.template;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * 集成测试基类
+ * 使用test配置（H2内存数据库），并在随机端口启动一个嵌入式Redis，所有测试类共用，JVM退出时停止。
+ * 配置相同的测试类共用同一个Spring上下文，测试数据使用各自唯一的用户名等取值，互不影响
+ */
+@SpringBootTest(classes = TestApplication.class)
+@ActiveProfiles("test")
+public abstract class IntegrationTest {
+
+    /**
+     * 嵌入式Redis端口
+     */
+    private static final int REDIS_PORT;
+
+    static {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            REDIS_PORT = socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            RedisServer redisServer = RedisServer.newRedisServer()
+                    .port(REDIS_PORT)
+                    .bind("127.0.0.1")
+                    .setting("save \"\"")
+                    .setting("appendonly no")
+                    .build();
+            redisServer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    redisServer.stop();
+                } catch (IOException ignored) {
+                    // JVM退出时停止失败无需处理
+                }
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", () -> REDIS_PORT);
+    }
+}
@@ -0,0 +1,11 @@
+package com.fingalden.template;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 测试启动类
+ * 本项目是模板，不包含启动类，测试时扫描com.fingalden.template下的所有组件
+ */
+@SpringBootApplication
+public class TestApplication {
+}
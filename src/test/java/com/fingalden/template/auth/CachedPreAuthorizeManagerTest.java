@@ -0,0 +1,177 @@
+package com.fingalden.template.auth;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.service.PermissionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CachedPreAuthorizeManager测试：可缓存的表达式只执行一次，引用Bean或静态方法的表达式、
+ * 参数不是简单值的调用每次都执行，权限模型版本变化后不再命中旧结果。
+ * 实际执行表达式的次数通过未命中缓存的计时器计数确认
+ */
+class CachedPreAuthorizeManagerTest extends IntegrationTest {
+
+    @Autowired
+    private MethodSecurityExpressionHandler expressionHandler;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Target target = new Target();
+
+    private CachedPreAuthorizeManager manager;
+
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory meters = new DefaultListableBeanFactory();
+        meters.registerSingleton("meterRegistry", meterRegistry);
+        PreAuthorizeAuthorizationManager delegate = new PreAuthorizeAuthorizationManager();
+        delegate.setExpressionHandler(expressionHandler);
+        delegate.setApplicationContext(applicationContext);
+        manager = new CachedPreAuthorizeManager(delegate, applicationContext.getBeanProvider(PermissionModel.class),
+                meters.getBeanProvider(MeterRegistry.class), true, 60000, 1000);
+
+        permissionService.savePermission("dc:read", "read");
+        permissionService.savePermission("dc:write", "write");
+        permissionService.replaceRolePermissions("ROLE_DC", List.of("dc:read"));
+        authentication = authenticate();
+    }
+
+    @Test
+    void simpleExpressionsAreEvaluatedOnce() {
+        assertThat(authorize("read")).isTrue();
+        assertThat(authorize("read")).isTrue();
+        assertThat(authorize("read")).isTrue();
+        assertThat(evaluations("read")).isEqualTo(1);
+        assertThat(hits("read")).isEqualTo(2);
+
+        // 参数值参与缓存键，不同的值分别执行
+        assertThat(authorize("named", "alice")).isTrue();
+        assertThat(authorize("named", "alice")).isTrue();
+        assertThat(authorize("named", "bob")).isFalse();
+        assertThat(evaluations("named")).isEqualTo(2);
+    }
+
+    @Test
+    void beanAndTypeReferencesAreNotCached() {
+        assertThat(authorize("bean")).isTrue();
+        assertThat(authorize("bean")).isTrue();
+        assertThat(evaluations("bean")).isEqualTo(2);
+
+        assertThat(authorize("type")).isTrue();
+        assertThat(authorize("type")).isTrue();
+        assertThat(evaluations("type")).isEqualTo(2);
+        assertThat(hits("bean") + hits("type")).isZero();
+    }
+
+    @Test
+    void nonSimpleArgumentsAreNotCached() {
+        assertThat(authorize("sized", List.of("a"))).isTrue();
+        assertThat(authorize("sized", List.of("a"))).isTrue();
+        assertThat(evaluations("sized")).isEqualTo(2);
+        assertThat(hits("sized")).isZero();
+    }
+
+    @Test
+    void permissionChangesMissTheCache() {
+        assertThat(authorize("read")).isTrue();
+        assertThat(authorize("write")).isFalse();
+        assertThat(authorize("write")).isFalse();
+        assertThat(evaluations("write")).isEqualTo(1);
+
+        // 权限模型重新编译后版本号变化，之后的请求角色相同也不会命中旧结果
+        permissionService.replaceRolePermissions("ROLE_DC", List.of("dc:write"));
+        authentication = authenticate();
+        assertThat(authorize("read")).isFalse();
+        assertThat(authorize("write")).isTrue();
+        assertThat(evaluations("read")).isEqualTo(2);
+        assertThat(evaluations("write")).isEqualTo(2);
+    }
+
+    /**
+     * 按JwtAuthenticationFilter的方式为一次请求生成认证信息，权限列表在生成时确定
+     */
+    private static Authentication authenticate() {
+        AuthUser user = new AuthUser(1L, "decision-cache", "{noop}secret", "ROLE_DC", 1);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    private boolean authorize(String method, Object... args) {
+        Class<?>[] types = args.length == 0 ? new Class<?>[0]
+                : new Class<?>[]{args[0] instanceof List ? List.class : String.class};
+        SimpleMethodInvocation invocation = new SimpleMethodInvocation(target,
+                ReflectionUtils.findMethod(Target.class, method, types), args);
+        return manager.authorize(() -> authentication, invocation).isGranted();
+    }
+
+    private long evaluations(String method) {
+        return count(method, "miss");
+    }
+
+    private long hits(String method) {
+        return count(method, "hit");
+    }
+
+    private long count(String method, String cache) {
+        return meterRegistry.get("security.method.authorization")
+                .tag("method", "Target." + method)
+                .tag("cache", cache)
+                .timer()
+                .count();
+    }
+
+    /**
+     * 只用于提供@PreAuthorize表达式的目标类
+     */
+    static class Target {
+
+        @PreAuthorize("hasAuthority('dc:read')")
+        public void read() {
+        }
+
+        @PreAuthorize("hasAuthority('dc:write')")
+        public void write() {
+        }
+
+        @PreAuthorize("#name == 'alice'")
+        public void named(String name) {
+        }
+
+        @PreAuthorize("#items.size() == 1")
+        public void sized(List<String> items) {
+        }
+
+        @PreAuthorize("@permissionModel.has('ROLE_DC', 'dc:read')")
+        public void bean() {
+        }
+
+        @PreAuthorize("T(java.lang.Math).abs(-1) == 1")
+        public void type() {
+        }
+    }
+}
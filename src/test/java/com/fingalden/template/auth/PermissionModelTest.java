@@ -0,0 +1,102 @@
+package com.fingalden.template.auth;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.service.PermissionService;
+import com.fingalden.template.common.constant.UserConstant;
+import com.fingalden.template.core.utils.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PermissionModel测试：权限关系编译为位图后的判断结果（包括跨越64位边界的权限），
+ * 修改后版本号递增，以及定时检查发现其他节点直接写入数据库的修改
+ */
+class PermissionModelTest extends IntegrationTest {
+
+    @Autowired
+    private PermissionModel permissionModel;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compiledBitsMatchGrantedPermissions() {
+        // 70个权限保证位图不止一个long
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            String code = String.format("pm-bits:%02d", i);
+            permissionService.savePermission(code, code);
+            codes.add(code);
+        }
+        List<String> granted = List.of(codes.get(0), codes.get(63), codes.get(64), codes.get(69));
+        permissionService.replaceRolePermissions("ROLE_PM_BITS", granted);
+        permissionService.replaceRolePermissions("ROLE_PM_OTHER", List.of(codes.get(1)));
+
+        for (String code : codes) {
+            assertThat(permissionModel.has("ROLE_PM_BITS", code)).as(code).isEqualTo(granted.contains(code));
+        }
+        assertThat(permissionModel.has("ROLE_PM_OTHER", codes.get(1))).isTrue();
+        assertThat(permissionModel.has("ROLE_PM_OTHER", codes.get(0))).isFalse();
+        assertThat(permissionModel.has("ROLE_PM_MISSING", codes.get(0))).isFalse();
+        assertThat(permissionModel.has("ROLE_PM_BITS", "pm-bits:missing")).isFalse();
+        assertThat(permissionModel.has(null, codes.get(0))).isFalse();
+        assertThat(permissionModel.has("ROLE_PM_BITS", null)).isFalse();
+
+        // 共享的权限列表包含角色本身和授予的权限
+        assertThat(RoleAuthorities.of("ROLE_PM_BITS")).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_PM_BITS", codes.get(0), codes.get(63), codes.get(64), codes.get(69));
+        assertThat(RoleAuthorities.of("ROLE_PM_MISSING")).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_PM_MISSING");
+    }
+
+    @Test
+    void versionIncreasesWhenPermissionsChange() {
+        permissionService.savePermission("pm-version:read", "read");
+        permissionService.savePermission("pm-version:write", "write");
+        long version = permissionModel.getVersion();
+
+        permissionService.replaceRolePermissions("ROLE_PM_VERSION", List.of("pm-version:read", "pm-version:write"));
+        assertThat(permissionModel.getVersion()).isGreaterThan(version);
+        assertThat(permissionModel.has("ROLE_PM_VERSION", "pm-version:write")).isTrue();
+
+        version = permissionModel.getVersion();
+        permissionService.replaceRolePermissions("ROLE_PM_VERSION", List.of("pm-version:read"));
+        assertThat(permissionModel.getVersion()).isGreaterThan(version);
+        assertThat(permissionModel.has("ROLE_PM_VERSION", "pm-version:write")).isFalse();
+
+        // 只改名称不重新编译
+        version = permissionModel.getVersion();
+        permissionService.savePermission("pm-version:read", "read only");
+        assertThat(permissionModel.getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void checkDetectsChangesMadeElsewhere() {
+        permissionService.savePermission("pm-remote:read", "read");
+        long version = permissionModel.getVersion();
+        permissionModel.checkForChanges();
+        assertThat(permissionModel.getVersion()).isEqualTo(version);
+
+        // 模拟其他节点直接写入关系表
+        jdbcTemplate.update("insert into " + UserConstant.ROLE_PERMISSION_TABLE_NAME
+                        + " (id, role, permission_code, create_time) values (?, ?, ?, ?)",
+                SnowflakeIdGenerator.getInstance().nextId(), "ROLE_PM_REMOTE", "pm-remote:read",
+                new Timestamp(System.currentTimeMillis()));
+        assertThat(permissionModel.has("ROLE_PM_REMOTE", "pm-remote:read")).isFalse();
+
+        permissionModel.checkForChanges();
+        assertThat(permissionModel.getVersion()).isGreaterThan(version);
+        assertThat(permissionModel.has("ROLE_PM_REMOTE", "pm-remote:read")).isTrue();
+    }
+}
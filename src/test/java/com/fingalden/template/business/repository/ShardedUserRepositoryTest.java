@@ -0,0 +1,199 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.CursorPage;
+import com.fingalden.template.business.dto.UserSummary;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ShardedUserRepository测试：三个H2分片，验证按ID路由、用户名和联系方式目录的维护，以及跨分片的分页
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ShardedUserRepositoryTest.SHARD_0,
+        "sharding.urls=" + ShardedUserRepositoryTest.SHARD_1 + "," + ShardedUserRepositoryTest.SHARD_2,
+        "sharding.init-schema=true"
+})
+class ShardedUserRepositoryTest extends IntegrationTest {
+
+    static final String SHARD_0 = "jdbc:h2:mem:shard0;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:shard1;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:shard2;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ShardedUserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void usersAreStoredOnTheirShard() throws SQLException {
+        assertThat(userRepository.isSharded()).isTrue();
+        assertThat(userRepository.getShardCount()).isEqualTo(3);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(userRepository.save(user("route-" + i)).getId());
+        }
+        Set<Integer> shards = new HashSet<>();
+        for (Long id : ids) {
+            int shard = userRepository.shardOf(id);
+            shards.add(shard);
+            assertThat(countOnShard(shard, "select count(*) from sys_user where id = ?", id)).isEqualTo(1);
+            assertThat(userRepository.findById(id).getId()).isEqualTo(id);
+        }
+        assertThat(shards).hasSize(3);
+        assertThat(userRepository.findAllByIds(ids, 7)).hasSize(30);
+    }
+
+    @Test
+    void directoryResolvesUsernames() {
+        User saved = userRepository.save(user("directory-alice"));
+
+        assertThat(userRepository.findByUsername("directory-alice").getId()).isEqualTo(saved.getId());
+        assertThat(userRepository.findAuthByUsername("directory-alice").getId()).isEqualTo(saved.getId());
+        assertThat(userRepository.findByUsername("directory-missing")).isNull();
+
+        // 用户名在目录中登记，即使新用户落在其他分片也会被拒绝
+        assertThatThrownBy(() -> userRepository.save(user("directory-alice")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void renameAndDeleteMaintainDirectory() {
+        User saved = userRepository.save(user("directory-bob"));
+
+        User loaded = userRepository.findById(saved.getId());
+        loaded.setUsername("directory-bobby");
+        userRepository.save(loaded);
+        assertThat(userRepository.findByUsername("directory-bob")).isNull();
+        assertThat(userRepository.findByUsername("directory-bobby").getId()).isEqualTo(saved.getId());
+
+        userRepository.deleteById(saved.getId());
+        assertThat(userRepository.findById(saved.getId())).isNull();
+        assertThat(userRepository.findByUsername("directory-bobby")).isNull();
+        // 删除后用户名可以重新注册
+        assertThat(userRepository.save(user("directory-bobby")).getId()).isNotEqualTo(saved.getId());
+    }
+
+    @Test
+    void contactsAreUniqueAcrossShards() {
+        User first = user("contact-carol");
+        first.setEmail("carol@example.com");
+        first.setPhone("13800000001");
+        userRepository.save(first);
+
+        // 不论新用户落在哪个分片，邮箱和手机号都在默认分片的目录中冲突
+        for (int i = 0; i < 6; i++) {
+            User sameEmail = user("contact-email-" + i);
+            sameEmail.setEmail("Carol@Example.com");
+            assertThatThrownBy(() -> userRepository.save(sameEmail))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            User samePhone = user("contact-phone-" + i);
+            samePhone.setPhone("13800000001");
+            assertThatThrownBy(() -> userRepository.save(samePhone))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+        }
+        // 冲突时整条目录登记回滚，用户名没有被占用
+        assertThat(userRepository.findByUsername("contact-email-0")).isNull();
+        assertThat(userRepository.save(user("contact-email-0")).getId()).isNotNull();
+    }
+
+    @Test
+    void changingContactsReleasesOldValues() {
+        User dave = user("contact-dave");
+        dave.setEmail("dave@example.com");
+        dave = userRepository.save(dave);
+        User erin = user("contact-erin");
+        erin.setEmail("erin@example.com");
+        userRepository.save(erin);
+
+        // 改成已被占用的邮箱时更新失败，原邮箱仍然保留
+        User taken = userRepository.findById(dave.getId());
+        taken.setEmail("erin@example.com");
+        assertThatThrownBy(() -> userRepository.save(taken))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        User other = user("contact-other");
+        other.setEmail("dave@example.com");
+        assertThatThrownBy(() -> userRepository.save(other))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        User changed = userRepository.findById(dave.getId());
+        changed.setEmail("dave@example.org");
+        userRepository.save(changed);
+        assertThat(userRepository.save(other).getId()).isNotNull();
+
+        // 删除后邮箱可以重新注册
+        userRepository.deleteById(dave.getId());
+        User again = user("contact-again");
+        again.setEmail("dave@example.org");
+        assertThat(userRepository.save(again).getId()).isNotNull();
+    }
+
+    @Test
+    void pagesMergeShardsInIdOrder() {
+        for (int i = 0; i < 12; i++) {
+            User user = user("page-" + i);
+            user.setRole("ROLE_SHARD_PAGE");
+            userRepository.save(user);
+        }
+
+        List<Long> paged = new ArrayList<>();
+        Long after = null;
+        do {
+            CursorPage<UserSummary> page = userService.listUsers("ROLE_SHARD_PAGE", null, after, 5, false);
+            page.getItems().forEach(item -> paged.add(item.getId()));
+            after = page.getNextCursor() == null ? null : CursorPage.decodeCursor(page.getNextCursor());
+        } while (after != null);
+
+        assertThat(paged).hasSize(12).isSorted().doesNotHaveDuplicates();
+        assertThat(userRepository.countByFilter("ROLE_SHARD_PAGE", null)).isEqualTo(12);
+    }
+
+    /**
+     * 直接连接分片库执行计数查询，不经过路由
+     */
+    static long countOnShard(int shard, String sql, Object... args) throws SQLException {
+        String url = switch (shard) {
+            case 0 -> SHARD_0;
+            case 1 -> SHARD_1;
+            default -> SHARD_2;
+        };
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setRole("ROLE_USER");
+        user.setStatus(1);
+        return user;
+    }
+}
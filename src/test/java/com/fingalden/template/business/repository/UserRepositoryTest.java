@@ -0,0 +1,209 @@
+package com.fingalden.template.business.repository;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.dto.CursorPage;
+import com.fingalden.template.business.dto.UserSummary;
+import com.fingalden.template.business.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * UserRepository测试：实体映射的唯一索引与乐观锁，认证投影查询，键集分页的边界与游标往返，
+ * 以及按用户名查询命中自然ID缓存和二级缓存
+ */
+class UserRepositoryTest extends IntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveAssignsIdAndTimestamps() {
+        User user = userRepository.saveAndFlush(user("repo-save", "repo-save@example.com", "13900000001"));
+
+        assertThat(user.getId()).isPositive();
+        assertThat(user.getVersion()).isZero();
+        assertThat(user.getCreateTime()).isNotNull();
+        assertThat(userRepository.findByUsername("repo-save").getId()).isEqualTo(user.getId());
+        assertThat(userRepository.findByEmail("repo-save@example.com").getId()).isEqualTo(user.getId());
+        assertThat(userRepository.findByPhone("13900000001").getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void uniqueIndexesRejectDuplicates() {
+        userRepository.saveAndFlush(user("repo-unique", "repo-unique@example.com", "13900000002"));
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(user("repo-unique", null, null)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> userRepository.saveAndFlush(user("repo-unique-2", "repo-unique@example.com", null)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> userRepository.saveAndFlush(user("repo-unique-3", null, "13900000002")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void staleUpdateFailsWithOptimisticLock() {
+        User saved = userRepository.saveAndFlush(user("repo-version", null, null));
+        User first = userRepository.findById(saved.getId()).orElseThrow();
+        User second = userRepository.findById(saved.getId()).orElseThrow();
+
+        first.setEmail("repo-version-1@example.com");
+        assertThat(userRepository.saveAndFlush(first).getVersion()).isEqualTo(1L);
+
+        second.setEmail("repo-version-2@example.com");
+        assertThatThrownBy(() -> userRepository.saveAndFlush(second))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(userRepository.findById(saved.getId()).orElseThrow().getEmail())
+                .isEqualTo("repo-version-1@example.com");
+    }
+
+    @Test
+    void findConflictsMatchesAnyUniqueField() {
+        userRepository.saveAndFlush(user("repo-conflict", "repo-conflict@example.com", "13900000003"));
+
+        assertThat(userRepository.findConflicts("repo-conflict", null, null)).hasSize(1);
+        assertThat(userRepository.findConflicts("other", "repo-conflict@example.com", null)).hasSize(1);
+        assertThat(userRepository.findConflicts("other", null, "13900000003")).hasSize(1);
+        assertThat(userRepository.findConflicts("other", "other@example.com", "13900000009")).isEmpty();
+    }
+
+    @Test
+    void findAuthByUsernameLoadsProjection() {
+        User saved = userRepository.saveAndFlush(user("repo-auth", null, null));
+
+        AuthUser authUser = userRepository.findAuthByUsername("repo-auth");
+        assertThat(authUser.getId()).isEqualTo(saved.getId());
+        assertThat(authUser.getUsername()).isEqualTo("repo-auth");
+        assertThat(authUser.getPassword()).isEqualTo("{noop}secret");
+        assertThat(authUser.getRole()).isEqualTo("ROLE_USER");
+        assertThat(authUser.isEnabled()).isTrue();
+        assertThat(authUser.getAuthorities()).extracting(Object::toString).contains("ROLE_USER");
+
+        assertThat(userRepository.findAuthByUsername("repo-auth-missing")).isNull();
+    }
+
+    @Test
+    void findByUsernameIsServedFromCaches() {
+        User saved = userRepository.saveAndFlush(user("repo-cache", "repo-cache@example.com", null));
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // JPA的evictAll不清除自然ID缓存，两个区域分别清空
+        sessionFactory.getCache().evictEntityData(User.class);
+        sessionFactory.getCache().evictNaturalIdData(User.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        // 缓存为空：执行SQL查询，结果写入两级缓存
+        long statements = statistics.getPrepareStatementCount();
+        long naturalIdPuts = statistics.getNaturalIdCachePutCount();
+        long entityPuts = statistics.getSecondLevelCachePutCount();
+        assertThat(userRepository.findByUsername("repo-cache").getId()).isEqualTo(saved.getId());
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(statements);
+        assertThat(statistics.getNaturalIdCachePutCount()).isGreaterThan(naturalIdPuts);
+        assertThat(statistics.getSecondLevelCachePutCount()).isGreaterThan(entityPuts);
+
+        // 新会话中再次查询：自然ID缓存得到主键，实体缓存得到用户，不执行SQL
+        statements = statistics.getPrepareStatementCount();
+        long naturalIdHits = statistics.getNaturalIdCacheHitCount();
+        long entityHits = statistics.getSecondLevelCacheHitCount();
+        User cached = userRepository.findByUsername("repo-cache");
+        assertThat(cached.getEmail()).isEqualTo("repo-cache@example.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(naturalIdHits + 1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(entityHits);
+
+        // 更新后缓存中是新值
+        cached.setEmail("repo-cache-2@example.com");
+        userRepository.saveAndFlush(cached);
+        assertThat(userRepository.findByUsername("repo-cache").getEmail()).isEqualTo("repo-cache-2@example.com");
+    }
+
+    @Test
+    void findPageAfterStopsAtBoundaries() {
+        // 使用单独的角色，与其他测试写入的用户隔离
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            User user = user("repo-page-" + i, null, null);
+            user.setRole("ROLE_PAGE");
+            user.setStatus(i % 3 == 0 ? 0 : 1);
+            ids.add(userRepository.saveAndFlush(user).getId());
+        }
+        ids.sort(null);
+
+        assertThat(idsOf(userRepository.findPageAfter("ROLE_PAGE", null, null, 3))).isEqualTo(ids.subList(0, 3));
+        assertThat(idsOf(userRepository.findPageAfter("ROLE_PAGE", null, ids.get(2), 3))).isEqualTo(ids.subList(3, 6));
+        // 最后一页不满，之后为空
+        assertThat(idsOf(userRepository.findPageAfter("ROLE_PAGE", null, ids.get(5), 3))).isEqualTo(ids.subList(6, 7));
+        assertThat(userRepository.findPageAfter("ROLE_PAGE", null, ids.get(6), 3)).isEmpty();
+        // 游标不必是已存在的ID，从第一个更大的ID开始
+        assertThat(idsOf(userRepository.findPageAfter("ROLE_PAGE", null, ids.get(0) - 1, 7))).isEqualTo(ids);
+        assertThat(idsOf(userRepository.findPageAfter("ROLE_PAGE", null, ids.get(3) + 1, 1))).isEqualTo(ids.subList(4, 5));
+
+        // 过滤条件与游标同时生效
+        List<UserSummary> enabled = userRepository.findPageAfter("ROLE_PAGE", 1, ids.get(1), 10);
+        assertThat(enabled).extracting(UserSummary::getStatus).containsOnly(1);
+        assertThat(idsOf(enabled)).containsExactly(ids.get(2), ids.get(4), ids.get(5));
+    }
+
+    @Test
+    void cursorRoundTripVisitsEveryRowOnce() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = user("repo-cursor-" + i, null, null);
+            user.setRole("ROLE_CURSOR");
+            ids.add(userRepository.saveAndFlush(user).getId());
+        }
+        ids.sort(null);
+
+        // 与UserService.listUsers相同：多取一条判断是否有下一页，游标为本页最后一条的ID
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Long afterId = cursor == null ? null : CursorPage.decodeCursor(cursor);
+            List<UserSummary> page = userRepository.findPageAfter("ROLE_CURSOR", null, afterId, 3);
+            cursor = null;
+            if (page.size() > 2) {
+                page = page.subList(0, 2);
+                cursor = CursorPage.encodeCursor(page.get(1).getId());
+            }
+            visited.addAll(idsOf(page));
+            pages++;
+        } while (cursor != null);
+
+        assertThat(visited).isEqualTo(ids);
+        assertThat(pages).isEqualTo(3);
+
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(ids.get(0)))).isEqualTo(ids.get(0));
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        assertThat(CursorPage.decodeCursor("not a cursor")).isNull();
+        assertThat(CursorPage.decodeCursor("AAAA")).isNull();
+    }
+
+    private static List<Long> idsOf(List<UserSummary> page) {
+        return page.stream().map(UserSummary::getId).toList();
+    }
+
+    private static User user(String username, String email, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setRole("ROLE_USER");
+        user.setStatus(1);
+        return user;
+    }
+}
@@ -0,0 +1,67 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.TokenPair;
+import com.fingalden.template.core.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AuthService测试：登录签发令牌，刷新时轮换刷新token，重放旧的刷新token使整个令牌族失效
+ */
+class AuthServiceTest extends IntegrationTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void loginRejectsWrongPassword() {
+        userService.register("auth-wrong", "secret-1", null, null);
+
+        assertThatThrownBy(() -> authService.login("auth-wrong", "secret-2"))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void refreshRotatesAndReuseRevokesFamily() {
+        userService.register("auth-rotate", "secret-1", null, null);
+        TokenPair login = authService.login("auth-rotate", "secret-1");
+        Claims claims = jwtUtils.parseToken(login.getRefreshToken());
+        assertThat(claims.getSubject()).isEqualTo("auth-rotate");
+        assertThat(claims.get("fid", String.class)).isNotNull();
+
+        TokenPair refreshed = authService.refresh(login.getRefreshToken());
+        Claims rotated = jwtUtils.parseToken(refreshed.getRefreshToken());
+        assertThat(rotated.get("fid", String.class)).isEqualTo(claims.get("fid", String.class));
+        assertThat(rotated.getId()).isNotEqualTo(claims.getId());
+
+        TokenPair next = authService.refresh(refreshed.getRefreshToken());
+        // 两次轮换之前的token被重放，令牌族撤销，最新的token也随之失效
+        assertThatThrownBy(() -> authService.refresh(login.getRefreshToken()))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> authService.refresh(next.getRefreshToken()))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void accessTokenCannotRefresh() {
+        userService.register("auth-access", "secret-1", null, null);
+        TokenPair login = authService.login("auth-access", "secret-1");
+
+        assertThatThrownBy(() -> authService.refresh(login.getAccessToken()))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> authService.refresh("not-a-token"))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+}
@@ -0,0 +1,151 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.LeaderboardEntry;
+import com.fingalden.template.business.service.impl.LeaderboardServiceImpl;
+import com.fingalden.template.common.constant.LeaderboardPeriod;
+import com.fingalden.template.core.utils.KeyspaceRegistry;
+import com.fingalden.template.core.utils.RedisUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LeaderboardService测试：增量在本地聚合后一次刷写，过期时间按周期设置，
+ * 管道失败时增量放回缓冲区，以及前N名快照的加载与刷新。
+ * 使用单独构造的实例，不受定时刷写和定时刷新快照的干扰
+ */
+class LeaderboardServiceTest extends IntegrationTest {
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private KeyspaceRegistry keyspaceRegistry;
+
+    private FailingRedisUtils redisUtils;
+
+    private LeaderboardServiceImpl leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        redisUtils = new FailingRedisUtils(redisTemplate);
+        leaderboardService = new LeaderboardServiceImpl(redisUtils, keyspaceRegistry);
+        ReflectionTestUtils.setField(leaderboardService, "snapshotSize", 3);
+    }
+
+    @Test
+    void incrementsAreAggregatedBeforeFlush() {
+        leaderboardService.incrementScore("lb-aggregate", "alice", 1);
+        leaderboardService.incrementScore("lb-aggregate", "alice", 2);
+        leaderboardService.incrementScore("lb-aggregate", "bob", 5);
+        assertThat(leaderboardService.getRank("lb-aggregate", LeaderboardPeriod.ALL, "alice")).isNull();
+
+        leaderboardService.flush();
+        assertThat(redisUtils.pipelines).isEqualTo(1);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            LeaderboardEntry alice = leaderboardService.getRank("lb-aggregate", period, "alice");
+            assertThat(alice.getScore()).isEqualTo(3.0);
+            assertThat(alice.getRank()).isEqualTo(2);
+        }
+
+        // 缓冲区已清空，再次刷写不会发出命令
+        leaderboardService.flush();
+        assertThat(redisUtils.pipelines).isEqualTo(1);
+    }
+
+    @Test
+    void expireFollowsPeriodNotKeyText() {
+        // 榜单名中包含":weekly:"，过期时间仍按周期决定
+        String board = "lb-event:weekly:cup";
+        leaderboardService.incrementScore(board, "alice", 1);
+        leaderboardService.flush();
+
+        LocalDate today = LocalDate.now();
+        assertThat(redisTemplate.getExpire(key(board, LeaderboardPeriod.ALL, today))).isEqualTo(-1L);
+        assertThat(redisTemplate.getExpire(key(board, LeaderboardPeriod.DAILY, today), TimeUnit.SECONDS))
+                .isBetween(LeaderboardPeriod.DAILY.getExpireSeconds() - 60, LeaderboardPeriod.DAILY.getExpireSeconds());
+        assertThat(redisTemplate.getExpire(key(board, LeaderboardPeriod.WEEKLY, today), TimeUnit.SECONDS))
+                .isBetween(LeaderboardPeriod.WEEKLY.getExpireSeconds() - 60, LeaderboardPeriod.WEEKLY.getExpireSeconds());
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        leaderboardService.incrementScore("lb-retry", "alice", 1);
+        redisUtils.failing = true;
+        leaderboardService.flush();
+        assertThat(leaderboardService.getRank("lb-retry", LeaderboardPeriod.DAILY, "alice")).isNull();
+
+        // 放回的增量与之后的增量合并，恢复后一次写入
+        leaderboardService.incrementScore("lb-retry", "alice", 2);
+        redisUtils.failing = false;
+        leaderboardService.flush();
+        assertThat(leaderboardService.getRank("lb-retry", LeaderboardPeriod.DAILY, "alice").getScore()).isEqualTo(3.0);
+        assertThat(redisTemplate.getExpire(key("lb-retry", LeaderboardPeriod.DAILY, LocalDate.now())))
+                .isPositive();
+    }
+
+    @Test
+    void topNIsServedFromSnapshot() {
+        for (int i = 1; i <= 5; i++) {
+            leaderboardService.incrementScore("lb-top", "member-" + i, i);
+        }
+        leaderboardService.flush();
+
+        List<LeaderboardEntry> top = leaderboardService.getTopN("lb-top", LeaderboardPeriod.ALL, 2);
+        assertThat(top).extracting(LeaderboardEntry::getMember).containsExactly("member-5", "member-4");
+        assertThat(top).extracting(LeaderboardEntry::getRank).containsExactly(1L, 2L);
+
+        // 快照刷新前读到的是旧数据
+        leaderboardService.incrementScore("lb-top", "member-1", 10);
+        leaderboardService.flush();
+        assertThat(leaderboardService.getTopN("lb-top", LeaderboardPeriod.ALL, 3))
+                .extracting(LeaderboardEntry::getMember).containsExactly("member-5", "member-4", "member-3");
+
+        leaderboardService.refreshSnapshots();
+        assertThat(leaderboardService.getTopN("lb-top", LeaderboardPeriod.ALL, 3))
+                .extracting(LeaderboardEntry::getMember).containsExactly("member-1", "member-5", "member-4");
+
+        // 超过快照大小时直接查询Redis
+        assertThat(leaderboardService.getTopN("lb-top", LeaderboardPeriod.ALL, 5))
+                .extracting(LeaderboardEntry::getRank).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(leaderboardService.getTopN("lb-top", LeaderboardPeriod.ALL, 0)).isEmpty();
+    }
+
+    private static String key(String board, LeaderboardPeriod period, LocalDate date) {
+        return "leaderboard:" + board + ":" + period.bucket(date);
+    }
+
+    /**
+     * 可模拟管道执行失败的RedisUtils，并记录实际执行的管道次数
+     */
+    private static class FailingRedisUtils extends RedisUtils {
+
+        private volatile boolean failing;
+
+        private int pipelines;
+
+        FailingRedisUtils(RedisTemplate<String, Object> redisTemplate) {
+            super(redisTemplate, Runnable::run);
+        }
+
+        @Override
+        public List<Object> executePipelined(Consumer<RedisOperations<String, Object>> action) {
+            if (failing) {
+                return null;
+            }
+            pipelines++;
+            return super.executePipelined(action);
+        }
+    }
+}
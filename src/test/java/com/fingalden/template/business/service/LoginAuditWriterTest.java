@@ -0,0 +1,70 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.LoginAuditEvent;
+import com.fingalden.template.common.constant.UserConstant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 登录审计测试：超长字段在监听器中截断，批量写入失败时逐行写入，只丢弃写不进去的事件
+ */
+class LoginAuditWriterTest extends IntegrationTest {
+
+    @Autowired
+    private LoginAuditWriter loginAuditWriter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchFailureFallsBackToRowByRow() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        loginAuditWriter.record(new LoginAuditEvent(null, "audit-batch-1", false, "bad", "127.0.0.1", null, now));
+        // 超过列长度，整批插入失败，逐行写入时只有这一行失败
+        loginAuditWriter.record(new LoginAuditEvent(null, "audit-batch-" + "x".repeat(200), false, "bad",
+                "127.0.0.1", null, now));
+        loginAuditWriter.record(new LoginAuditEvent(null, "audit-batch-2", false, "bad", "127.0.0.1", null, now));
+
+        assertThat(awaitUsernames("audit-batch-%", 2)).containsExactlyInAnyOrder("audit-batch-1", "audit-batch-2");
+    }
+
+    @Test
+    void listenerTruncatesLongUsername() throws InterruptedException {
+        String username = "audit-long-" + "y".repeat(300);
+        eventPublisher.publishEvent(new AuthenticationFailureBadCredentialsEvent(
+                new UsernamePasswordAuthenticationToken(username, "pw"), new BadCredentialsException("bad")));
+
+        assertThat(awaitUsernames("audit-long-%", 1)).containsExactly(username.substring(0, 64));
+    }
+
+    /**
+     * 等待写入线程写出指定数量的审计记录
+     *
+     * @param pattern 用户名匹配模式
+     * @param count   期望的记录数
+     * @return 匹配的用户名
+     */
+    private List<String> awaitUsernames(String pattern, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<String> usernames;
+        do {
+            Thread.sleep(100);
+            usernames = jdbcTemplate.queryForList("select username from " + UserConstant.LOGIN_AUDIT_TABLE_NAME
+                    + " where username like ?", String.class, pattern);
+        } while (usernames.size() < count && System.currentTimeMillis() < deadline);
+        return usernames;
+    }
+}
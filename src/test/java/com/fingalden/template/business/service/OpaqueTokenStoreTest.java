@@ -0,0 +1,85 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.AuthUser;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OpaqueTokenStore测试：会话的创建与撤销，用户会话集合的清理，以及角色变化时撤销用户的所有会话
+ */
+@TestPropertySource(properties = "auth.token-mode=opaque")
+class OpaqueTokenStoreTest extends IntegrationTest {
+
+    @Autowired
+    private OpaqueTokenStore opaqueTokenStore;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardedUserRepository userRepository;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Test
+    void createLookupAndRevoke() {
+        AuthUser user = new AuthUser(9001L, "opaque-alice", null, "ROLE_USER", 1);
+        String first = opaqueTokenStore.create(user);
+        String second = opaqueTokenStore.create(user);
+
+        assertThat(opaqueTokenStore.lookup(first).getUsername()).isEqualTo("opaque-alice");
+        assertThat(redisTemplate.opsForSet().size("auth:user-sessions:9001")).isEqualTo(2);
+
+        opaqueTokenStore.revoke(first);
+        assertThat(opaqueTokenStore.lookup(first)).isNull();
+        assertThat(opaqueTokenStore.lookup(second)).isNotNull();
+        assertThat(redisTemplate.opsForSet().size("auth:user-sessions:9001")).isEqualTo(1);
+        assertThat(opaqueTokenStore.lookup("unknown-token")).isNull();
+    }
+
+    @Test
+    void expiredSessionsArePrunedFromUserIndex() {
+        AuthUser user = new AuthUser(9002L, "opaque-bob", null, "ROLE_USER", 1);
+        String expired = opaqueTokenStore.create(user);
+        opaqueTokenStore.create(user);
+        // 模拟会话过期
+        redisTemplate.delete("auth:session:" + expired);
+
+        opaqueTokenStore.create(user);
+        assertThat(redisTemplate.opsForSet().size("auth:user-sessions:9002")).isEqualTo(2);
+    }
+
+    @Test
+    void revokeUserRemovesAllSessions() {
+        AuthUser user = new AuthUser(9003L, "opaque-carol", null, "ROLE_USER", 1);
+        String first = opaqueTokenStore.create(user);
+        String second = opaqueTokenStore.create(user);
+
+        opaqueTokenStore.revokeUser(9003L);
+        assertThat(opaqueTokenStore.lookup(first)).isNull();
+        assertThat(opaqueTokenStore.lookup(second)).isNull();
+        assertThat(redisTemplate.hasKey("auth:user-sessions:9003")).isFalse();
+    }
+
+    @Test
+    void roleChangeRevokesSessions() {
+        User user = new User();
+        user.setUsername("opaque-dave");
+        user.setPassword("{noop}secret");
+        user.setRole("ROLE_USER");
+        user.setStatus(1);
+        Long id = userRepository.save(user).getId();
+        String token = opaqueTokenStore.create(new AuthUser(id, "opaque-dave", null, "ROLE_USER", 1));
+
+        userService.updateRole(id, "ROLE_ADMIN");
+        assertThat(opaqueTokenStore.lookup(token)).isNull();
+    }
+}
@@ -0,0 +1,60 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RefreshTokenStore测试：轮换脚本的各个分支——轮换、宽限期内的并发刷新、令牌族不存在、重复使用时撤销
+ */
+class RefreshTokenStoreTest extends IntegrationTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Test
+    void rotateIssuesNewTokenId() {
+        String familyId = RefreshTokenStore.newId();
+        assertThat(refreshTokenStore.create(familyId, "first")).isTrue();
+
+        String second = refreshTokenStore.rotate(familyId, "first");
+        assertThat(second).isNotNull().isNotEqualTo("first");
+        String third = refreshTokenStore.rotate(familyId, second);
+        assertThat(third).isNotNull().isNotEqualTo(second);
+    }
+
+    @Test
+    void concurrentRefreshWithinGraceGetsCurrentId() {
+        String familyId = RefreshTokenStore.newId();
+        refreshTokenStore.create(familyId, "first");
+        String second = refreshTokenStore.rotate(familyId, "first");
+
+        // 另一个请求同时提交了刚被轮换的token，返回当前tokenId而不是撤销
+        assertThat(refreshTokenStore.rotate(familyId, "first")).isEqualTo(second);
+        assertThat(refreshTokenStore.rotate(familyId, second)).isNotNull();
+    }
+
+    @Test
+    void reuseRevokesFamily() {
+        String familyId = RefreshTokenStore.newId();
+        refreshTokenStore.create(familyId, "first");
+        String second = refreshTokenStore.rotate(familyId, "first");
+        String third = refreshTokenStore.rotate(familyId, second);
+
+        // first既不是当前也不是上一个tokenId，视为被盗用后重放，整个令牌族失效
+        assertThat(refreshTokenStore.rotate(familyId, "first")).isNull();
+        assertThat(refreshTokenStore.rotate(familyId, third)).isNull();
+    }
+
+    @Test
+    void missingOrRevokedFamilyIsRejected() {
+        assertThat(refreshTokenStore.rotate(RefreshTokenStore.newId(), "any")).isNull();
+
+        String familyId = RefreshTokenStore.newId();
+        refreshTokenStore.create(familyId, "first");
+        refreshTokenStore.revoke(familyId);
+        assertThat(refreshTokenStore.rotate(familyId, "first")).isNull();
+    }
+}
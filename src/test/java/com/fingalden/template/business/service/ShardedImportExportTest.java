@@ -0,0 +1,107 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.UserImportJob;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.common.constant.DataFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 分片模式下的导入导出测试：导入的用户写入各自的分片并登记用户名目录，导出遍历所有分片
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "sharding.urls=jdbc:h2:mem:shard1;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard2;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "sharding.init-schema=true"
+})
+class ShardedImportExportTest extends IntegrationTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private ShardedUserRepository userRepository;
+
+    @Test
+    void importSpreadsAcrossShardsAndExportReadsThemAll() throws Exception {
+        StringBuilder csv = new StringBuilder("username,password,email\n");
+        for (int i = 0; i < 40; i++) {
+            csv.append("shard-import-").append(i).append(",pw-").append(i)
+                    .append(",shard-import-").append(i).append("@example.com\n");
+        }
+        // 与前面的行用户名仅大小写不同，视为重复
+        csv.append("SHARD-IMPORT-3,pw,other@example.com\n");
+        UserImportJob job = importAndWait(csv.toString());
+
+        assertThat(job.getStatus()).isEqualTo(UserImportJob.Status.COMPLETED);
+        assertThat(job.getImported().get()).isEqualTo(40);
+        assertThat(job.getDuplicates().get()).isEqualTo(1);
+
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            Long id = userRepository.findByUsername("shard-import-" + i).getId();
+            shards.add(userRepository.shardOf(id));
+        }
+        assertThat(shards).hasSize(3);
+
+        // 邮箱与其他分片上已导入的用户重复
+        UserImportJob second = importAndWait("username,password,email\n"
+                + "shard-import-fresh,pw,\nshard-import-copy,pw,SHARD-IMPORT-5@example.com\n");
+        assertThat(second.getImported().get()).isEqualTo(1);
+        assertThat(second.getDuplicates().get()).isEqualTo(1);
+        assertThat(userRepository.findByUsername("shard-import-fresh")).isNotNull();
+        assertThat(userRepository.findByUsername("shard-import-copy")).isNull();
+
+        // 导入的邮箱登记在默认分片的目录中，之后注册的用户无论落在哪个分片都会冲突
+        User late = new User();
+        late.setUsername("shard-import-late");
+        late.setPassword("{noop}secret");
+        late.setEmail("shard-import-7@example.com");
+        late.setRole("ROLE_USER");
+        late.setStatus(1);
+        assertThatThrownBy(() -> userRepository.save(late)).isInstanceOf(DataIntegrityViolationException.class);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = userExportService.export(out, DataFormat.CSV);
+        long importedRows = Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .filter(line -> line.contains(",shard-import-"))
+                .count();
+        assertThat(importedRows).isEqualTo(41);
+        assertThat(exported).isGreaterThanOrEqualTo(41);
+    }
+
+    private UserImportJob importAndWait(String content) throws IOException, InterruptedException {
+        Path file = Files.createTempFile("users", ".csv");
+        try {
+            Files.writeString(file, content);
+            UserImportJob job = userImportService.submit(file, DataFormat.CSV);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (job.getEndTime() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            return job;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
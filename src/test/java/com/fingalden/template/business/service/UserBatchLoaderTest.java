@@ -0,0 +1,118 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.business.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserBatchLoader测试：登记的ID合并为一次查询，重复的ID只查询一次，结果按传入顺序返回。
+ * 加载器是请求级Bean，这里直接构造实例，通过Hibernate统计的语句数确认查询次数
+ */
+class UserBatchLoaderTest extends IntegrationTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private ShardedUserRepository shardedUserRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserBatchLoader loader;
+
+    private Statistics statistics;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        loader = new UserBatchLoader(shardedUserRepository);
+        ReflectionTestUtils.setField(loader, "chunkSize", 500);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User user = new User();
+            user.setUsername("batch-loader-" + SEQUENCE.getAndIncrement());
+            user.setPassword("{noop}secret");
+            user.setRole("ROLE_USER");
+            user.setStatus(1);
+            ids.add(userRepository.saveAndFlush(user).getId());
+        }
+        // 清空二级缓存，使每次加载都访问数据库
+        entityManagerFactory.getCache().evict(User.class);
+    }
+
+    @Test
+    void loadManyKeepsOrderAndDropsDuplicatesAndMissing() {
+        Long missing = -1L;
+        List<Long> request = List.of(ids.get(2), ids.get(0), ids.get(2), missing, ids.get(1));
+
+        long statements = statistics.getPrepareStatementCount();
+        Map<Long, User> users = loader.loadMany(request);
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(1);
+        assertThat(users.keySet()).containsExactly(ids.get(2), ids.get(0), ids.get(1));
+        assertThat(users.values()).extracting(User::getUsername).allMatch(name -> name.startsWith("batch-loader-"));
+
+        // 同一请求内再次加载已解析的ID，直接复用结果
+        entityManagerFactory.getCache().evict(User.class);
+        statements = statistics.getPrepareStatementCount();
+        assertThat(loader.loadMany(List.of(ids.get(1), ids.get(2))).keySet())
+                .containsExactly(ids.get(1), ids.get(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+
+        // 只有新的ID需要查询
+        statements = statistics.getPrepareStatementCount();
+        assertThat(loader.loadMany(List.of(ids.get(3), ids.get(0))).keySet())
+                .containsExactly(ids.get(3), ids.get(0));
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(1);
+    }
+
+    @Test
+    void loadsAreBatchedUntilDispatch() {
+        CompletableFuture<User> first = loader.load(ids.get(0));
+        CompletableFuture<User> second = loader.load(ids.get(1));
+        assertThat(loader.load(ids.get(0))).isSameAs(first);
+        assertThat(first).isNotDone();
+
+        long statements = statistics.getPrepareStatementCount();
+        loader.dispatch();
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(1);
+        assertThat(first.join().getId()).isEqualTo(ids.get(0));
+        assertThat(second.join().getId()).isEqualTo(ids.get(1));
+
+        // 没有待查询的ID时不访问数据库
+        statements = statistics.getPrepareStatementCount();
+        loader.dispatch();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void largeRequestsAreSplitIntoChunks() {
+        ReflectionTestUtils.setField(loader, "chunkSize", 3);
+
+        long statements = statistics.getPrepareStatementCount();
+        Map<Long, User> users = loader.loadMany(ids);
+        assertThat(users.keySet()).containsExactlyElementsOf(ids);
+        // 4个ID按每块3个分成两条IN查询
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(2);
+    }
+}
@@ -0,0 +1,101 @@
+package com.fingalden.template.business.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.UserRepository;
+import com.fingalden.template.common.constant.DataFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserExportService测试：CSV与NDJSON的格式、字段转义，以及不导出密码
+ * 数据库由所有测试类共用，断言只针对本类创建的用户
+ */
+class UserExportServiceTest extends IntegrationTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void createUsers() {
+        if (userRepository.findByUsername("export-0") != null) {
+            return;
+        }
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setUsername("export-" + i);
+            user.setPassword("{noop}export-secret");
+            user.setEmail(i == 1 ? "a,\"b\"@example.com" : null);
+            user.setRole("ROLE_USER");
+            user.setStatus(1);
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void exportsCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = userExportService.export(out, DataFormat.CSV);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        List<String> lines = Arrays.asList(csv.split("\n"));
+        assertThat(lines.get(0)).isEqualTo("id,username,email,phone,role,status,createTime,updateTime");
+        assertThat(lines).hasSize((int) count + 1);
+        assertThat(csv).doesNotContain("export-secret");
+
+        List<String> exported = new ArrayList<>();
+        for (String line : lines) {
+            if (line.contains(",export-")) {
+                exported.add(line.substring(line.indexOf(',') + 1, line.lastIndexOf(',', line.lastIndexOf(',') - 1)));
+            }
+        }
+        assertThat(exported).containsExactly(
+                "export-0,,,ROLE_USER,1",
+                "export-1,\"a,\"\"b\"\"@example.com\",,ROLE_USER,1",
+                "export-2,,,ROLE_USER,1");
+    }
+
+    @Test
+    void exportsNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = userExportService.export(out, DataFormat.NDJSON);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize((int) count);
+        assertThat(ndjson).doesNotContain("password").doesNotContain("export-secret");
+
+        List<JsonNode> exported = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("username").asText().startsWith("export-")) {
+                exported.add(node);
+            }
+        }
+        assertThat(exported).hasSize(3);
+        JsonNode second = exported.get(1);
+        assertThat(second.get("id").isTextual()).isTrue();
+        assertThat(second.get("email").asText()).isEqualTo("a,\"b\"@example.com");
+        assertThat(second.get("phone").isNull()).isTrue();
+        assertThat(second.get("status").asInt()).isEqualTo(1);
+        assertThat(second.get("createTime").asText()).endsWith("Z");
+    }
+}
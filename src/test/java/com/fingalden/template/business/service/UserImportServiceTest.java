@@ -0,0 +1,88 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.dto.UserImportJob;
+import com.fingalden.template.business.repository.UserRepository;
+import com.fingalden.template.common.constant.DataFormat;
+import com.fingalden.template.common.constant.UserConstant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserImportService测试：导入的用户与其创建事件写入同一事务，每个导入的用户对应一条发件箱事件；
+ * 超出注册接口长度限制的行记为失败，不写入数据库
+ */
+class UserImportServiceTest extends IntegrationTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importedUsersHaveOutboxEvents() throws Exception {
+        Path file = Files.createTempFile("users", ".ndjson");
+        try {
+            Files.writeString(file, """
+                    {"username":"import-outbox-1","password":"pw","email":"import-outbox-1@example.com"}
+                    {"username":"import-outbox-2","password":"pw"}
+                    {"username":"import-outbox-1","password":"pw"}
+                    """);
+            UserImportJob job = userImportService.submit(file, DataFormat.NDJSON);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (job.getEndTime() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertThat(job.getStatus()).isEqualTo(UserImportJob.Status.COMPLETED);
+            assertThat(job.getImported().get()).isEqualTo(2);
+            assertThat(job.getDuplicates().get()).isEqualTo(1);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        for (String username : new String[]{"import-outbox-1", "import-outbox-2"}) {
+            Long id = userRepository.findByUsername(username).getId();
+            assertThat(jdbcTemplate.queryForList("select event_type from " + UserConstant.OUTBOX_TABLE_NAME
+                    + " where user_id = ?", String.class, id)).containsExactly("CREATED");
+        }
+    }
+
+    @Test
+    void overlongRowsAreReportedAsFailed() throws Exception {
+        Path file = Files.createTempFile("users", ".ndjson");
+        try {
+            Files.writeString(file, "{\"username\":\"" + "u".repeat(UserConstant.MAX_USERNAME_LENGTH + 1) + "\",\"password\":\"pw\"}\n"
+                    + "{\"username\":\"import-long-phone\",\"password\":\"pw\",\"phone\":\""
+                    + "1".repeat(UserConstant.MAX_PHONE_LENGTH + 1) + "\"}\n"
+                    + "{\"username\":\"import-long-ok\",\"password\":\"pw\"}\n");
+            UserImportJob job = userImportService.submit(file, DataFormat.NDJSON);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (job.getEndTime() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertThat(job.getStatus()).isEqualTo(UserImportJob.Status.COMPLETED);
+            assertThat(job.getImported().get()).isEqualTo(1);
+            assertThat(job.getFailed().get()).isEqualTo(2);
+            assertThat(job.getDuplicates().get()).isZero();
+            assertThat(job.getErrors()).hasSize(2)
+                    .anySatisfy(error -> assertThat(error).startsWith("line 1:").contains("用户名"))
+                    .anySatisfy(error -> assertThat(error).startsWith("line 2:").contains("手机号"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertThat(userRepository.findByUsername("import-long-phone")).isNull();
+        assertThat(userRepository.findByUsername("import-long-ok")).isNotNull();
+    }
+}
@@ -0,0 +1,124 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import com.fingalden.template.common.constant.UserConstant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserOutboxRelay测试：事件按顺序发布到Stream后从发件箱删除，被其他事务锁定的事件跳过
+ * 测试配置加大了定时中继的间隔，由测试手动调用relay()
+ */
+class UserOutboxRelayTest extends IntegrationTest {
+
+    private static final String STREAM_KEY = "user:events";
+
+    @Autowired
+    private UserOutboxRelay userOutboxRelay;
+
+    @Autowired
+    private ShardedUserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Test
+    void publishesEventsInOrderAndDeletesThem() {
+        User user = userRepository.save(user("outbox-order"));
+        user.setEmail("outbox-order@example.com");
+        userRepository.save(user);
+        userRepository.deleteById(user.getId());
+
+        userOutboxRelay.relay();
+
+        assertThat(pendingEvents(user.getId())).isZero();
+        List<MapRecord<String, Object, Object>> records = publishedEvents(user.getId());
+        assertThat(records).extracting(record -> record.getValue().get("type"))
+                .containsExactly("CREATED", "UPDATED", "DELETED");
+        assertThat(String.valueOf(records.get(1).getValue().get("payload")))
+                .contains("outbox-order@example.com");
+    }
+
+    @Test
+    void lockedEventsAreSkipped() throws Exception {
+        User user = userRepository.save(user("outbox-locked"));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 另一个事务锁定该用户的事件，模拟其他节点正在发布
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("select id from " + UserConstant.OUTBOX_TABLE_NAME
+                        + " where user_id = ? for update", user.getId());
+                locked.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(30, TimeUnit.SECONDS)).isTrue();
+
+            userOutboxRelay.relay();
+            assertThat(pendingEvents(user.getId())).isEqualTo(1);
+            assertThat(publishedEvents(user.getId())).isEmpty();
+
+            release.countDown();
+            holder.get(30, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        userOutboxRelay.relay();
+        assertThat(pendingEvents(user.getId())).isZero();
+        assertThat(publishedEvents(user.getId())).hasSize(1);
+    }
+
+    private long pendingEvents(Long userId) {
+        return jdbcTemplate.queryForObject("select count(*) from " + UserConstant.OUTBOX_TABLE_NAME
+                + " where user_id = ?", Long.class, userId);
+    }
+
+    private List<MapRecord<String, Object, Object>> publishedEvents(Long userId) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .range(STREAM_KEY, Range.unbounded());
+        return records == null ? List.of() : records.stream()
+                .filter(record -> String.valueOf(userId).equals(record.getValue().get("userId")))
+                .toList();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setRole("ROLE_USER");
+        user.setStatus(1);
+        return user;
+    }
+}
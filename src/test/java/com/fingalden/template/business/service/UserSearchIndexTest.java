@@ -0,0 +1,108 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.ShardedUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserSearchIndex测试：快照的前缀查询，通过用户变更事件的增量更新，
+ * 以及快照与增量的结果按UTF-8字节序合并
+ */
+class UserSearchIndexTest extends IntegrationTest {
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private ShardedUserRepository userRepository;
+
+    @Autowired
+    private UserOutboxRelay userOutboxRelay;
+
+    @Test
+    void snapshotMatchesPrefixes() throws InterruptedException {
+        Long alice = userRepository.save(user("SearchAlice", "alice.search@example.com", "139-0011-2233")).getId();
+        Long alan = userRepository.save(user("searchalan", "alan.search@example.com", null)).getId();
+        Long bob = userRepository.save(user("searchbob", null, "13800112233")).getId();
+        reload();
+
+        assertThat(userSearchIndex.search("searchal", 10)).containsExactly(alan, alice);
+        assertThat(userSearchIndex.search("SEARCHAL", 1)).containsExactly(alan);
+        assertThat(userSearchIndex.search("alice.search@", 10)).containsExactly(alice);
+        assertThat(userSearchIndex.search("139 0011", 10)).containsExactly(alice);
+        assertThat(userSearchIndex.search("138-0011", 10)).containsExactly(bob);
+        assertThat(userSearchIndex.search("searchzzz", 10)).isEmpty();
+        assertThat(userSearchIndex.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void changesApplyIncrementally() throws InterruptedException {
+        User user = userRepository.save(user("deltacarol", "carol.delta@example.com", null));
+        reload();
+        assertThat(userSearchIndex.search("carol.delta", 10)).containsExactly(user.getId());
+
+        user.setEmail("caroline.delta@example.com");
+        user = userRepository.save(user);
+        User dave = userRepository.save(user("deltadave", null, null));
+        userOutboxRelay.relay();
+        userSearchIndex.poll();
+
+        assertThat(userSearchIndex.search("carol.delta", 10)).isEmpty();
+        assertThat(userSearchIndex.search("caroline.delta", 10)).containsExactly(user.getId());
+        assertThat(userSearchIndex.search("delta", 10)).containsExactly(user.getId(), dave.getId());
+
+        userRepository.deleteById(dave.getId());
+        userOutboxRelay.relay();
+        userSearchIndex.poll();
+        assertThat(userSearchIndex.search("deltadave", 10)).isEmpty();
+    }
+
+    @Test
+    void resultsFollowUtf8ByteOrder() throws InterruptedException {
+        // U+1F600在UTF-16中以代理对D83D开头，按String比较排在U+FF41之前，按UTF-8字节序排在之后
+        Long emoji = userRepository.save(user("ordersnap\uD83D\uDE00", null, null)).getId();
+        reload();
+        Long fullwidth = userRepository.save(user("ordersnap\uFF41", null, null)).getId();
+        Long deltaEmoji = userRepository.save(user("orderdelta\uD83D\uDE00", null, null)).getId();
+        Long deltaFullwidth = userRepository.save(user("orderdelta\uFF41", null, null)).getId();
+        userOutboxRelay.relay();
+        userSearchIndex.poll();
+
+        // 快照中的命中与增量中的命中合并
+        assertThat(userSearchIndex.search("ordersnap", 10)).containsExactly(fullwidth, emoji);
+        assertThat(userSearchIndex.search("ordersnap", 1)).containsExactly(fullwidth);
+        // 都在增量中时，截断前的顺序也一致
+        assertThat(userSearchIndex.search("orderdelta", 10)).containsExactly(deltaFullwidth, deltaEmoji);
+        assertThat(userSearchIndex.search("orderdelta", 1)).containsExactly(deltaFullwidth);
+    }
+
+    /**
+     * 等待启动时的后台加载完成后重新加载快照，使其包含测试创建的用户
+     */
+    private void reload() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!userSearchIndex.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        // 启动加载刚完成时可能还未释放加载标记，稍候再加载
+        Thread.sleep(100);
+        userSearchIndex.reload();
+    }
+
+    private static User user(String username, String email, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setRole("ROLE_USER");
+        user.setStatus(1);
+        return user;
+    }
+}
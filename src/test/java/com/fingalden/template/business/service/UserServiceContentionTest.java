@@ -0,0 +1,73 @@
+package com.fingalden.template.business.service;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 并发更新同一用户的测试：冲突的更新经重试后提交，提交成功的更新一个都不会丢失
+ */
+class UserServiceContentionTest extends IntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws Exception {
+        User user = new User();
+        user.setUsername("contention");
+        user.setPassword("{noop}secret");
+        user.setRole("ROLE_USER");
+        user.setStatus(1);
+        Long id = userRepository.saveAndFlush(user).getId();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        try {
+                            userService.updateProfile(id, "contention-" + thread + "-" + i + "@example.com", null);
+                            succeeded.incrementAndGet();
+                        } catch (OptimisticLockingFailureException e) {
+                            conflicted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(succeeded.get() + conflicted.get()).isEqualTo(THREADS * UPDATES_PER_THREAD);
+        // 重试吸收了大部分冲突
+        assertThat(succeeded.get()).isGreaterThan(conflicted.get());
+        // 每次成功的更新恰好使版本号加一，没有更新被覆盖
+        assertThat(userRepository.findById(id).orElseThrow().getVersion()).isEqualTo(succeeded.get());
+    }
+}
@@ -0,0 +1,73 @@
+package com.fingalden.template.core.config;
+
+import com.fingalden.template.IntegrationTest;
+import com.fingalden.template.business.entity.User;
+import com.fingalden.template.business.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 读写分离测试：只读事务从副本读取，同一请求写入主库后的读取改走主库
+ * 副本是独立的H2库，只有测试手工写入的数据，据此判断读取落在哪个库
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replica.urls=" + ReplicaRoutingTest.REPLICA_URL
+})
+class ReplicaRoutingTest extends IntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyQueriesUseReplicaUntilRequestWrites() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists sys_user (id bigint primary key, username varchar(64),"
+                    + " password varchar(100), email varchar(128), phone varchar(20), role varchar(32), status int,"
+                    + " create_time timestamp, update_time timestamp, version bigint)");
+            statement.execute("merge into sys_user key (id) values"
+                    + " (1, 'replica-only', '{noop}secret', null, null, 'ROLE_USER', 1, now(), now(), 0)");
+        }
+
+        assertThat(userDetailsService.loadUserByUsername("replica-only").getUsername()).isEqualTo("replica-only");
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        User user = new User();
+        user.setUsername("primary-only");
+        user.setPassword("{noop}secret");
+        user.setRole("ROLE_USER");
+        user.setStatus(1);
+        userRepository.save(user);
+
+        // 写入后同一请求内的读取走主库，能读到刚写入的用户，副本上的用户则不可见
+        assertThat(userDetailsService.loadUserByUsername("primary-only").getUsername()).isEqualTo("primary-only");
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("replica-only"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
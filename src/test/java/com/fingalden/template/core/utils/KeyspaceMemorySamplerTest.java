@@ -0,0 +1,91 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * KeyspaceMemorySampler测试：键按注册的前缀归类计数，
+ * 每个命名空间的MEMORY USAGE样本数不超过蓄水池容量，结果导出为指标
+ */
+class KeyspaceMemorySamplerTest extends IntegrationTest {
+
+    @Autowired
+    private KeyspaceMemorySampler keyspaceMemorySampler;
+
+    @Autowired
+    private KeyspaceRegistry keyspaceRegistry;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void sampleCountsKeysAndCapsReservoir() {
+        keyspaceRegistry.register("sampler-large", "sampler-large:", 10, TimeUnit.MINUTES, 0);
+        keyspaceRegistry.register("sampler-small", "sampler-small:", 10, TimeUnit.MINUTES, 0);
+        keyspaceRegistry.register("sampler-empty", "sampler-empty:", 10, TimeUnit.MINUTES, 0);
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            values.put("sampler-large:" + i, "value-" + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            values.put("sampler-small:" + i, "value-" + i);
+        }
+        assertThat(redisUtils.multiSet(values)).isTrue();
+
+        try {
+            keyspaceMemorySampler.sample();
+
+            Map<String, KeyspaceStats> stats = new HashMap<>();
+            for (KeyspaceStats item : keyspaceMemorySampler.getLatest()) {
+                stats.put(item.getNamespace(), item);
+            }
+            KeyspaceStats large = stats.get("sampler-large");
+            assertThat(large.isComplete()).isTrue();
+            assertThat(large.getKeyCount()).isEqualTo(500);
+            // 默认蓄水池容量为200
+            assertThat(large.getSampledKeys()).isEqualTo(200);
+            assertThat(large.getEstimatedBytes()).isGreaterThan(500);
+
+            KeyspaceStats small = stats.get("sampler-small");
+            assertThat(small.getKeyCount()).isEqualTo(20);
+            assertThat(small.getSampledKeys()).isEqualTo(20);
+
+            // 已注册但没有键的命名空间也出现在结果中
+            assertThat(stats.get("sampler-empty").getKeyCount()).isZero();
+
+            assertThat(meterRegistry.get("redis.keyspace.keys").tag("namespace", "sampler-large").gauge().value())
+                    .isEqualTo(500);
+            assertThat(meterRegistry.get("redis.keyspace.bytes").tag("namespace", "sampler-large").gauge().value())
+                    .isEqualTo(large.getEstimatedBytes());
+        } finally {
+            redisUtils.delete(values.keySet());
+        }
+    }
+
+    @Test
+    void memoryUsageKeepsKeyOrder() {
+        redisUtils.set("sampler-usage:short", "a");
+        redisUtils.set("sampler-usage:long", "a".repeat(1000));
+        try {
+            List<Long> usages = redisUtils.memoryUsage(
+                    List.of("sampler-usage:short", "sampler-usage:missing", "sampler-usage:long"));
+            assertThat(usages).hasSize(3);
+            assertThat(usages.get(1)).isNull();
+            assertThat(usages.get(2)).isGreaterThan(usages.get(0) + 900);
+        } finally {
+            redisUtils.delete(List.of("sampler-usage:short", "sampler-usage:long"));
+        }
+    }
+}
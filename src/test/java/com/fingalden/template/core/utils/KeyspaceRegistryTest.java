@@ -0,0 +1,72 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * KeyspaceRegistry测试：命名空间的注册、前缀冲突检查和按前缀归类，
+ * 以及KeyNamespace按默认过期时间加抖动写入、使用独立序列化器读写
+ */
+class KeyspaceRegistryTest extends IntegrationTest {
+
+    @Autowired
+    private KeyspaceRegistry keyspaceRegistry;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Test
+    void registerIsIdempotentAndRejectsOverlappingPrefixes() {
+        KeyNamespace<Object> namespace = keyspaceRegistry.register("registry-test", "registry-test:", 1,
+                TimeUnit.MINUTES, 0);
+        assertThat(keyspaceRegistry.register("registry-test", "registry-test:", 1, TimeUnit.MINUTES, 0))
+                .isSameAs(namespace);
+        assertThat(keyspaceRegistry.get("registry-test")).isSameAs(namespace);
+        assertThat(keyspaceRegistry.all()).contains(namespace);
+
+        // 前缀互相包含时无法区分键的归属
+        assertThatThrownBy(() -> keyspaceRegistry.register("registry-test-child", "registry-test:child:", 1,
+                TimeUnit.MINUTES, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> keyspaceRegistry.register("registry-test-parent", "registry-", 1,
+                TimeUnit.MINUTES, 0)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(keyspaceRegistry.match("registry-test:1001")).isSameAs(namespace);
+        assertThat(keyspaceRegistry.match("registry-other:1001")).isNull();
+    }
+
+    @Test
+    void ttlIncludesJitterWithinRatio() {
+        KeyNamespace<Object> namespace = keyspaceRegistry.register("ttl-test", "ttl-test:", 100,
+                TimeUnit.SECONDS, 0.5);
+        assertThat(namespace.getTtlMillis()).isEqualTo(100_000);
+        for (int i = 0; i < 100; i++) {
+            assertThat(namespace.nextTtlMillis()).isBetween(100_000L, 150_000L);
+        }
+
+        assertThat(namespace.set("alice", "value")).isTrue();
+        assertThat(namespace.get("alice")).isEqualTo("value");
+        assertThat(redisTemplate.getExpire("ttl-test:alice", TimeUnit.SECONDS)).isBetween(90L, 150L);
+        assertThat(namespace.delete("alice")).isTrue();
+        assertThat(namespace.get("alice")).isNull();
+    }
+
+    @Test
+    void zeroTtlNeverExpires() {
+        KeyNamespace<Long> namespace = keyspaceRegistry.register("no-ttl-test", "no-ttl-test:", 0,
+                TimeUnit.SECONDS, 0.5, new GenericToStringSerializer<>(Long.class));
+        assertThat(namespace.nextTtlMillis()).isZero();
+
+        assertThat(namespace.set("counter", 42L)).isTrue();
+        assertThat(namespace.get("counter")).isEqualTo(42L);
+        assertThat(redisTemplate.getExpire("no-ttl-test:counter")).isEqualTo(-1L);
+        namespace.delete("counter");
+    }
+}
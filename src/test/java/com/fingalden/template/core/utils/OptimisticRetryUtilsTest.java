@@ -0,0 +1,55 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OptimisticRetryUtils测试：版本冲突时重试，超过最大次数后抛出最后一次的冲突，其他异常不重试
+ */
+class OptimisticRetryUtilsTest extends IntegrationTest {
+
+    @Autowired
+    private OptimisticRetryUtils optimisticRetryUtils;
+
+    @Test
+    void retriesUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = optimisticRetryUtils.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict " + attempts.get());
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> optimisticRetryUtils.execute(() -> {
+            throw new OptimisticLockingFailureException("conflict " + attempts.incrementAndGet());
+        }))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessage("conflict 5");
+        assertThat(attempts).hasValue(5);
+    }
+
+    @Test
+    void otherExceptionsAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> optimisticRetryUtils.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("broken");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts).hasValue(1);
+    }
+}
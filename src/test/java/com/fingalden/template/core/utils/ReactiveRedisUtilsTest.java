@@ -0,0 +1,132 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ReactiveRedisUtils测试：读写往返，管道结果的顺序与空结果的占位，
+ * 以及连接失败时按约定返回false、0或空结果
+ */
+class ReactiveRedisUtilsTest extends IntegrationTest {
+
+    @Autowired
+    private ReactiveRedisUtils reactiveRedisUtils;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    @Test
+    void setGetRoundTrip() {
+        StepVerifier.create(reactiveRedisUtils.set("reactive:name", "alice"))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(reactiveRedisUtils.get("reactive:name"))
+                .expectNext("alice")
+                .verifyComplete();
+        // 不存在的键为空Mono
+        StepVerifier.create(reactiveRedisUtils.get("reactive:missing"))
+                .verifyComplete();
+
+        StepVerifier.create(reactiveRedisUtils.set("reactive:ttl", 1, 60, TimeUnit.SECONDS))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(reactiveRedisUtils.getExpire("reactive:ttl", TimeUnit.SECONDS))
+                .assertNext(ttl -> assertThat(ttl).isBetween(1L, 60L))
+                .verifyComplete();
+        StepVerifier.create(reactiveRedisUtils.getExpire("reactive:missing", TimeUnit.SECONDS))
+                .expectNext(-2L)
+                .verifyComplete();
+
+        StepVerifier.create(reactiveRedisUtils.multiGet(List.of("reactive:name", "reactive:missing")))
+                .expectNext(Map.of("reactive:name", "alice"))
+                .verifyComplete();
+
+        StepVerifier.create(reactiveRedisUtils.delete("reactive:name"))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(reactiveRedisUtils.delete("reactive:name"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void pipelineKeepsOrderAndEmptySlots() {
+        StepVerifier.create(reactiveRedisUtils.set("reactive:pipeline", "value")).expectNext(true).verifyComplete();
+
+        // 第一个命令最后完成，结果仍排在第一位；空结果占位，不会让后面的结果前移
+        StepVerifier.create(reactiveRedisUtils.pipeline(List.of(
+                        Mono.delay(Duration.ofMillis(100)).then(reactiveRedisUtils.get("reactive:pipeline")),
+                        reactiveRedisUtils.get("reactive:pipeline-missing"),
+                        reactiveRedisUtils.hGet("reactive:pipeline-hash", "missing"),
+                        reactiveRedisUtils.increment("reactive:pipeline-counter", 2),
+                        reactiveRedisUtils.sMembers("reactive:pipeline-empty-set"),
+                        reactiveRedisUtils.hasKey("reactive:pipeline"))))
+                .expectNext(Optional.of("value"))
+                .expectNext(Optional.empty())
+                .expectNext(Optional.empty())
+                .expectNext(Optional.of(2L))
+                .expectNext(Optional.empty())
+                .expectNext(Optional.of(true))
+                .verifyComplete();
+
+        StepVerifier.create(reactiveRedisUtils.pipeline(List.of()))
+                .verifyComplete();
+    }
+
+    @Test
+    void failuresFallBackToDefaults() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        // 指向没有Redis监听的端口，每个命令都以连接失败结束
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofSeconds(1)).build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            ReactiveRedisUtils failing = new ReactiveRedisUtils(new ReactiveRedisTemplate<>(connectionFactory,
+                    reactiveRedisTemplate.getSerializationContext()));
+
+            StepVerifier.create(failing.set("reactive:down", "value")).expectNext(false).verifyComplete();
+            StepVerifier.create(failing.hasKey("reactive:down")).expectNext(false).verifyComplete();
+            StepVerifier.create(failing.delete(List.of("reactive:down", "reactive:down-2")))
+                    .expectNext(0L)
+                    .verifyComplete();
+            StepVerifier.create(failing.multiGet(List.of("reactive:down")))
+                    .expectNext(Map.of())
+                    .verifyComplete();
+            StepVerifier.create(failing.getExpire("reactive:down", TimeUnit.SECONDS))
+                    .expectNext(-2L)
+                    .verifyComplete();
+            StepVerifier.create(failing.scan("reactive:*", 100)).verifyComplete();
+            // 没有默认值的读取把错误交给调用方
+            StepVerifier.create(failing.get("reactive:down")).expectError().verify();
+        } finally {
+            connectionFactory.destroy();
+        }
+
+        // 参数校验失败不访问Redis
+        StepVerifier.create(reactiveRedisUtils.increment("reactive:counter", -1))
+                .expectErrorMessage("递增步长必须大于0")
+                .verify();
+    }
+}
@@ -0,0 +1,75 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ValueEncoding;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RedisBucketUtils测试：读写删除的往返，以及分桶后哈希保持紧凑编码
+ */
+class RedisBucketUtilsTest extends IntegrationTest {
+
+    @Autowired
+    private RedisBucketUtils redisBucketUtils;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Test
+    void setGetDelete() {
+        assertThat(redisBucketUtils.set("bucket-test", "alice", 1)).isTrue();
+        assertThat(redisBucketUtils.get("bucket-test", "alice")).isEqualTo(1);
+
+        assertThat(redisBucketUtils.delete("bucket-test", "alice")).isTrue();
+        assertThat(redisBucketUtils.get("bucket-test", "alice")).isNull();
+        assertThat(redisBucketUtils.delete("bucket-test", "alice")).isFalse();
+    }
+
+    @Test
+    void multiGetReturnsOnlyExistingKeys() {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            values.put("user-" + i, i);
+        }
+        assertThat(redisBucketUtils.multiSet("bucket-multi", values)).isTrue();
+
+        List<String> keys = new ArrayList<>(values.keySet());
+        keys.add("missing");
+        Map<String, Object> loaded = redisBucketUtils.multiGet("bucket-multi", keys);
+        assertThat(loaded).isEqualTo(values);
+
+        assertThat(redisBucketUtils.multiDelete("bucket-multi", values.keySet())).isTrue();
+        assertThat(redisBucketUtils.multiGet("bucket-multi", keys)).isEmpty();
+    }
+
+    @Test
+    void fullBucketStaysCompactlyEncoded() {
+        // 按默认桶数量，平均每桶约61个字段；这里把一个桶填到略低于listpack阈值的120个字段
+        String bucket = redisBucketUtils.bucketOf("bucket-encoding", "flag-0");
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; values.size() < 120; i++) {
+            String key = "flag-" + i;
+            if (redisBucketUtils.bucketOf("bucket-encoding", key).equals(bucket)) {
+                values.put(key, 1);
+            }
+        }
+        assertThat(redisBucketUtils.multiSet("bucket-encoding", values)).isTrue();
+
+        ValueEncoding encoding = redisTemplate.execute((RedisCallback<ValueEncoding>) connection ->
+                connection.keyCommands().encodingOf(bucket.getBytes(StandardCharsets.UTF_8)));
+        // Redis 7之前紧凑编码为ziplist，之后为listpack
+        assertThat(encoding.raw()).isIn("ziplist", "listpack");
+        assertThat(redisTemplate.opsForHash().size(bucket)).isEqualTo(120);
+    }
+}
@@ -0,0 +1,151 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+import redis.embedded.RedisShardedCluster;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RedisUtils集群模式测试：启动三个主节点的嵌入式集群，
+ * 验证跨槽位的批量读写删除按槽位分组执行，以及SCAN遍历所有主节点
+ */
+@DirtiesContext
+class RedisClusterUtilsTest extends IntegrationTest {
+
+    /**
+     * 集群各主节点端口
+     */
+    private static final List<Integer> CLUSTER_PORTS = new ArrayList<>();
+
+    private static RedisShardedCluster cluster;
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                CLUSTER_PORTS.add(socket.getLocalPort());
+            }
+        }
+        cluster = RedisShardedCluster.newRedisCluster()
+                .withServerBuilder(RedisServer.newRedisServer()
+                        .bind("127.0.0.1")
+                        .setting("save \"\"")
+                        .setting("appendonly no"))
+                .serverPorts(CLUSTER_PORTS)
+                .shard("master-1", 0)
+                .shard("master-2", 0)
+                .shard("master-3", 0)
+                .initializationTimeout(Duration.ofSeconds(30))
+                .build();
+        cluster.start();
+    }
+
+    /**
+     * 先停止连接工厂再停止集群，避免Lettuce在上下文关闭前不断重连已停止的节点；
+     * 类上的@DirtiesContext使上下文随测试类结束关闭，不会在缓存中留下指向已停止集群的连接
+     */
+    @AfterAll
+    static void stopCluster(@Autowired LettuceConnectionFactory connectionFactory) throws IOException {
+        connectionFactory.stop();
+        if (cluster != null) {
+            cluster.stop();
+        }
+    }
+
+    @DynamicPropertySource
+    static void clusterProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.cluster.nodes", () -> CLUSTER_PORTS.stream()
+                .map(port -> "127.0.0.1:" + port)
+                .collect(Collectors.joining(",")));
+    }
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Test
+    void detectsClusterMode() {
+        assertThat(redisUtils.isCluster()).isTrue();
+    }
+
+    @Test
+    void multiKeyCommandsSpanSlots() {
+        Map<String, Object> values = new HashMap<>();
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            String key = "cluster-multi:" + i;
+            values.put(key, i);
+            slots.add(RedisKeyUtils.slot(key));
+        }
+        assertThat(slots).hasSizeGreaterThan(3);
+        assertThat(redisUtils.multiSet(values)).isTrue();
+
+        List<String> keys = new ArrayList<>(values.keySet());
+        keys.add("cluster-multi:missing");
+        assertThat(redisUtils.multiGet(keys)).isEqualTo(values);
+
+        assertThat(redisUtils.delete(keys)).isEqualTo(100);
+        assertThat(redisUtils.multiGet(keys)).isEmpty();
+    }
+
+    @Test
+    void hashTaggedKeysShareSlot() {
+        String profile = RedisKeyUtils.key("cluster-user", 1001, "profile");
+        String roles = RedisKeyUtils.key("cluster-user", 1001, "roles");
+        assertThat(profile).isEqualTo("cluster-user:{1001}:profile");
+        assertThat(RedisKeyUtils.isSameSlot(profile, roles)).isTrue();
+        assertThat(RedisKeyUtils.isSameSlot(profile, RedisKeyUtils.key("cluster-user", 1002, "profile")))
+                .isFalse();
+
+        assertThat(redisUtils.multiSet(Map.of(profile, "alice", roles, "admin"))).isTrue();
+        assertThat(redisUtils.multiGet(List.of(profile, roles))).containsOnlyKeys(profile, roles);
+    }
+
+    @Test
+    void memoryUsageRunsOnOwningNode() {
+        List<String> keys = new ArrayList<>();
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            keys.add("cluster-memory:" + i);
+            values.put("cluster-memory:" + i, i);
+        }
+        assertThat(redisUtils.multiSet(values)).isTrue();
+
+        // 键分布在所有主节点上，每个键都能在其所在节点上取得内存占用
+        List<Long> usages = redisUtils.memoryUsage(keys);
+        assertThat(usages).hasSize(30).doesNotContainNull().allSatisfy(usage -> assertThat(usage).isPositive());
+        redisUtils.delete(keys);
+    }
+
+    @Test
+    void scanVisitsEveryMaster() {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            values.put("cluster-scan:" + i, i);
+        }
+        assertThat(redisUtils.multiSet(values)).isTrue();
+
+        Set<String> scanned = new HashSet<>();
+        assertThat(redisUtils.scan("cluster-scan:*", 10, scanned::add)).isEqualTo(50);
+        assertThat(scanned).isEqualTo(values.keySet());
+    }
+}
@@ -0,0 +1,100 @@
+package com.fingalden.template.core.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RespBean测试：JSON结构，以及预先序列化的固定响应与正常序列化结果一致
+ */
+class RespBeanTest extends IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JsonResponses jsonResponses;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter converter;
+
+    @Test
+    void emptyDataIsWrittenAsObject() throws IOException {
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(RespBean.success()));
+
+        assertThat(json.get("success").asBoolean()).isTrue();
+        assertThat(json.get("code").asInt()).isEqualTo(200);
+        assertThat(json.get("message").asText()).isEqualTo("成功");
+        assertThat(json.get("data").isObject()).isTrue();
+        assertThat(json.get("data").size()).isZero();
+    }
+
+    @Test
+    void keyedAndTypedData() throws IOException {
+        JsonNode keyed = objectMapper.readTree(objectMapper.writeValueAsString(
+                RespBean.success("user", Map.of("id", 1)).data("total", 2)));
+        assertThat(keyed.at("/data/user/id").asInt()).isEqualTo(1);
+        assertThat(keyed.at("/data/total").asInt()).isEqualTo(2);
+
+        JsonNode typed = objectMapper.readTree(objectMapper.writeValueAsString(RespBean.of(List.of(1, 2))));
+        assertThat(typed.get("success").asBoolean()).isTrue();
+        assertThat(typed.get("data").isArray()).isTrue();
+        assertThat(typed.get("data")).hasSize(2);
+
+        JsonNode error = objectMapper.readTree(objectMapper.writeValueAsString(
+                RespBean.error(400, "参数错误").data("errors", List.of("username"))));
+        assertThat(error.get("success").asBoolean()).isFalse();
+        assertThat(error.get("code").asInt()).isEqualTo(400);
+        assertThat(error.at("/data/errors/0").asText()).isEqualTo("username");
+    }
+
+    @Test
+    void preparedBodiesMatchSerialization() throws IOException {
+        for (JsonResponses.Prepared prepared : JsonResponses.Prepared.values()) {
+            byte[] body = jsonResponses.bytes(prepared);
+            JsonNode json = objectMapper.readTree(body);
+            RespBean<?> equivalent = json.get("success").asBoolean()
+                    ? RespBean.success(json.get("message").asText()).code(json.get("code").asInt())
+                    : RespBean.error(json.get("code").asInt(), json.get("message").asText());
+
+            assertThat(objectMapper.writeValueAsBytes(equivalent)).isEqualTo(body);
+            assertThat(jsonResponses.lookup(equivalent)).isSameAs(body);
+        }
+        assertThat(jsonResponses.lookup(RespBean.success("user", 1))).isNull();
+    }
+
+    @Test
+    void converterWritesPreparedBytes() throws IOException {
+        MockHttpOutputMessage prepared = new MockHttpOutputMessage();
+        converter.write(RespBean.success(), MediaType.APPLICATION_JSON, prepared);
+        assertThat(prepared.getBodyAsBytes()).isEqualTo(jsonResponses.bytes(JsonResponses.Prepared.SUCCESS));
+        assertThat(prepared.getHeaders().getContentLength())
+                .isEqualTo(jsonResponses.bytes(JsonResponses.Prepared.SUCCESS).length);
+
+        MockHttpOutputMessage regular = new MockHttpOutputMessage();
+        converter.write(RespBean.success("user", 1), MediaType.APPLICATION_JSON, regular);
+        assertThat(objectMapper.readTree(regular.getBodyAsBytes()).at("/data/user").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void writeSetsStatusAndBody() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jsonResponses.write(response, JsonResponses.Prepared.ACCESS_DENIED);
+
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(jsonResponses.bytes(JsonResponses.Prepared.ACCESS_DENIED));
+    }
+}
@@ -0,0 +1,116 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.common.exception.MyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SnowflakeIdGenerator测试：并发生成的ID唯一且各线程内单调递增，序列号用尽时进位到下一毫秒，
+ * 逻辑时间领先系统时钟过多或租约过期时拒绝生成
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long SEQUENCE_MASK = (1L << SnowflakeIdGenerator.SEQUENCE_BITS) - 1;
+
+    @Test
+    void concurrentIdsAreUniqueAndMonotonic() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        generator.setNodeId(7);
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit((Callable<long[]>) () -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertThat(all.add(ids[i])).isTrue();
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    assertThat((ids[i] >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID)
+                            .isEqualTo(7);
+                }
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exhaustedSequenceMovesToNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        generator.setNodeId(1);
+        long now = System.currentTimeMillis() - SnowflakeIdGenerator.EPOCH;
+        // 当前毫秒的序列号已用完
+        state(generator).set((now << SnowflakeIdGenerator.SEQUENCE_BITS) | SEQUENCE_MASK);
+
+        long id = generator.nextId();
+        assertThat(id & SEQUENCE_MASK).isZero();
+        assertThat(SnowflakeIdGenerator.timestampOf(id)).isGreaterThanOrEqualTo(now + 1 + SnowflakeIdGenerator.EPOCH);
+    }
+
+    @Test
+    void rejectsDriftBeyondLimit() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        generator.setNodeId(1);
+        long now = System.currentTimeMillis() - SnowflakeIdGenerator.EPOCH;
+
+        // 领先在允许范围内时沿用逻辑时间，ID仍然递增
+        long ahead = now + 1000;
+        state(generator).set(ahead << SnowflakeIdGenerator.SEQUENCE_BITS);
+        long id = generator.nextId();
+        assertThat(SnowflakeIdGenerator.timestampOf(id)).isEqualTo(ahead + SnowflakeIdGenerator.EPOCH);
+
+        state(generator).set((now + 10_000) << SnowflakeIdGenerator.SEQUENCE_BITS);
+        assertThatThrownBy(generator::nextId).isInstanceOf(MyException.class).hasMessageContaining("2000");
+    }
+
+    @Test
+    void refusesIdsWithoutValidLease() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        assertThatThrownBy(generator::nextId).isInstanceOf(MyException.class).hasMessageContaining("not leased");
+
+        generator.setLease(3, System.currentTimeMillis() + 50);
+        assertThat(generator.nextId()).isPositive();
+        Thread.sleep(60);
+        assertThatThrownBy(generator::nextId).isInstanceOf(MyException.class).hasMessageContaining("expired");
+
+        // 续期后恢复生成
+        generator.extendLease(System.currentTimeMillis() + 10_000);
+        assertThat(generator.nextId()).isPositive();
+
+        generator.setNodeId(-1);
+        assertThatThrownBy(generator::nextId).isInstanceOf(MyException.class);
+        assertThatThrownBy(() -> generator.setNodeId(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AtomicLong state(SnowflakeIdGenerator generator) {
+        return (AtomicLong) ReflectionTestUtils.getField(generator, "state");
+    }
+}
@@ -0,0 +1,85 @@
+package com.fingalden.template.core.utils;
+
+import com.fingalden.template.IntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SnowflakeNodeLease测试：在嵌入式Redis上抢占节点ID、续期延长本地截止时间、
+ * 租约被他人占用后重新抢占，以及关闭时释放租约。
+ * 测试会修改全局ID生成器，结束后恢复为测试配置的固定节点ID
+ */
+class SnowflakeNodeLeaseTest extends IntegrationTest {
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @AfterEach
+    void restoreFixedNode() {
+        SnowflakeIdGenerator.getInstance().setNodeId(1);
+    }
+
+    @Test
+    void acquireRenewAndRelease() throws InterruptedException {
+        SnowflakeNodeLease lease = lease();
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.getInstance();
+        long before = System.currentTimeMillis();
+        lease.init();
+
+        int nodeId = generator.getNodeId();
+        String key = "snowflake:node:" + nodeId;
+        assertThat(nodeId).isBetween(0, SnowflakeIdGenerator.MAX_NODE_ID);
+        assertThat(redisUtils.getExpire(key, TimeUnit.MILLISECONDS)).isBetween(1L, 5_000L);
+        // 本地截止时间比Redis中的过期时间提前安全余量
+        long deadline = generator.getLeaseDeadline();
+        assertThat(deadline).isBetween(before + 4_000, System.currentTimeMillis() + 4_000);
+        assertThat(generator.nextId()).isPositive();
+
+        Thread.sleep(20);
+        lease.heartbeat();
+        assertThat(generator.getNodeId()).isEqualTo(nodeId);
+        assertThat(generator.getLeaseDeadline()).isGreaterThan(deadline);
+
+        lease.release();
+        assertThat(redisUtils.hasKey(key)).isFalse();
+    }
+
+    @Test
+    void reacquiresAfterLeaseIsTaken() {
+        SnowflakeNodeLease lease = lease();
+        lease.init();
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.getInstance();
+        int nodeId = generator.getNodeId();
+        String key = "snowflake:node:" + nodeId;
+
+        // 模拟租约过期后被其他实例抢占
+        redisUtils.set(key, "other-instance", 5, TimeUnit.SECONDS);
+        lease.heartbeat();
+
+        int reacquired = generator.getNodeId();
+        assertThat(reacquired).isNotEqualTo(nodeId).isNotNegative();
+        assertThat(redisUtils.get(key)).isEqualTo("other-instance");
+
+        lease.release();
+        redisUtils.delete(key);
+        // 释放只删除本实例持有的租约
+        assertThat(redisUtils.hasKey("snowflake:node:" + reacquired)).isFalse();
+    }
+
+    /**
+     * 构造从Redis租用节点ID的租约组件，有效期5秒，安全余量1秒
+     */
+    private SnowflakeNodeLease lease() {
+        SnowflakeNodeLease lease = new SnowflakeNodeLease(redisUtils);
+        ReflectionTestUtils.setField(lease, "fixedNodeId", -1);
+        ReflectionTestUtils.setField(lease, "leaseTtl", 5_000L);
+        ReflectionTestUtils.setField(lease, "safetyMargin", 1_000L);
+        return lease;
+    }
+}